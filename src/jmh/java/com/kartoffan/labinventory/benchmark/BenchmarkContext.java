@@ -0,0 +1,56 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.kartoffan.labinventory.LabInventoryApplication;
+
+/**
+ * Boots the application against a private in-memory H2 database for a
+ * benchmark trial.
+ */
+final class BenchmarkContext {
+
+  private BenchmarkContext() {
+  }
+
+  static ConfigurableApplicationContext start() {
+    return start(Map.of());
+  }
+
+  /**
+   * Starts the application with the given properties on top of the benchmark
+   * defaults
+   */
+  static ConfigurableApplicationContext start(Map<String, String> overrides) {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("server.port", "0");
+    properties.put("spring.datasource.url",
+        "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+    properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+    properties.put("spring.datasource.username", "sa");
+    properties.put("spring.datasource.password", "");
+    properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+    properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    properties.put("spring.jpa.show-sql", "false");
+    properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+    properties.put("logging.level.root", "WARN");
+    properties.put("logging.level.org.springframework.security", "WARN");
+    properties.put("jwt.secret", "benchmark-secret-key-with-at-least-32-bytes");
+    properties.put("jwt.expiration", "3600000");
+    properties.put("app.item-search.engine", "memory");
+    properties.put("app.cache.invalidation.transport", "memory");
+    properties.putAll(overrides);
+
+    // Passed as command line arguments so they take precedence over application.properties
+    String[] args = properties.entrySet().stream()
+        .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+        .toArray(String[]::new);
+
+    return new SpringApplicationBuilder(LabInventoryApplication.class).run(args);
+  }
+}
@@ -0,0 +1,83 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.kartoffan.labinventory.dto.category.CategoryResponse;
+import com.kartoffan.labinventory.dto.item.ItemResponse;
+import com.kartoffan.labinventory.dto.lab.LabResponse;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementResponse;
+import com.kartoffan.labinventory.dto.supplier.SupplierResponse;
+import com.kartoffan.labinventory.dto.user.UserResponse;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.model.Supplier;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.security.role.Role;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+  private User user;
+  private Lab lab;
+  private Category category;
+  private Supplier supplier;
+  private Item item;
+  private StockMovement movement;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    LocalDateTime now = LocalDateTime.now();
+    user = User.builder().id(UUID.randomUUID()).firstName("Ada").lastName("Lovelace")
+        .email("ada@test.com").role(Role.LAB_ADMIN).createdAt(now).build();
+    lab = Lab.builder().id(UUID.randomUUID()).name("Chemistry").location("Building A")
+        .manager(user).createdAt(now).build();
+    category = Category.builder().id(UUID.randomUUID()).name("Solvents").lab(lab).createdAt(now).build();
+    supplier = Supplier.builder().id(UUID.randomUUID()).name("Acme").email("sales@acme.test").createdAt(now).build();
+    item = Item.builder().id(UUID.randomUUID()).name("Ethanol").code("ETH-001").lab(lab).category(category)
+        .unit("ml").reorderLevel(10).maxQuantity(100).createdAt(now).build();
+    movement = StockMovement.builder().id(UUID.randomUUID()).item(item).lab(lab).performedBy(user)
+        .type(MovementType.IN).quantity(5).supplier(supplier).reason("Delivery").timestamp(now).build();
+  }
+
+  @Benchmark
+  public UserResponse user() {
+    return UserResponse.fromEntity(user);
+  }
+
+  @Benchmark
+  public LabResponse lab() {
+    return LabResponse.fromEntity(lab);
+  }
+
+  @Benchmark
+  public CategoryResponse category() {
+    return CategoryResponse.fromEntity(category);
+  }
+
+  @Benchmark
+  public SupplierResponse supplier() {
+    return SupplierResponse.fromEntity(supplier);
+  }
+
+  @Benchmark
+  public ItemResponse item() {
+    return ItemResponse.fromEntity(item);
+  }
+
+  @Benchmark
+  public StockMovementResponse stockMovement() {
+    return StockMovementResponse.fromEntity(movement);
+  }
+}
@@ -0,0 +1,66 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.kartoffan.labinventory.dto.item.ItemFilter;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.repository.spec.ItemSpecifications;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Cost of turning an item filter into a specification and rendering it into
+ * a criteria query, without touching the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSpecificationsBenchmark {
+
+  private ConfigurableApplicationContext context;
+  private EntityManager entityManager;
+  private ItemFilter filter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start();
+    entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+    filter = new ItemFilter();
+    filter.setActive(true);
+    filter.setLabId(UUID.randomUUID());
+    filter.setCategoryId(UUID.randomUUID());
+    filter.setSearch("ethanol");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    entityManager.close();
+    context.close();
+  }
+
+  @Benchmark
+  public Specification<Item> fromFilter() {
+    return ItemSpecifications.fromFilter(filter);
+  }
+
+  @Benchmark
+  public CriteriaQuery<Item> fromFilterToCriteria() {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Item> query = cb.createQuery(Item.class);
+    Root<Item> root = query.from(Item.class);
+    return query.where(ItemSpecifications.fromFilter(filter).toPredicate(root, query, cb));
+  }
+}
@@ -0,0 +1,39 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.kartoffan.labinventory.security.jwt.JwtUtil;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+  private JwtUtil jwtUtil;
+  private String token;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    jwtUtil = new JwtUtil();
+    ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "benchmark-secret-key-with-at-least-32-bytes");
+    ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3_600_000L);
+    jwtUtil.init();
+    token = jwtUtil.generateToken("user@test.com");
+  }
+
+  @Benchmark
+  public String generateToken() {
+    return jwtUtil.generateToken("user@test.com");
+  }
+
+  @Benchmark
+  public boolean validateToken() {
+    return jwtUtil.validateToken(token);
+  }
+}
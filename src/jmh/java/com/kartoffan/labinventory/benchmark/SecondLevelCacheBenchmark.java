@@ -0,0 +1,132 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.kartoffan.labinventory.dto.stock.StockInRequest;
+import com.kartoffan.labinventory.dto.stock.StockOutRequest;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.role.Role;
+import com.kartoffan.labinventory.service.stock.StockService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * stockIn/stockOut with and without the Hibernate second-level cache. Besides
+ * the timings, every iteration prints the SQL statements issued per
+ * operation, the database round trips the cache saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+  private static final int ITEMS = 1_000;
+
+  @Param({ "true", "false" })
+  public boolean secondLevelCache;
+
+  private ConfigurableApplicationContext context;
+  private StockService stockService;
+  private Statistics statistics;
+  private List<UUID> itemIds;
+  private UUID labId;
+  private UUID userId;
+  private long operations;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start(Map.of("app.cache.l2.enabled", String.valueOf(secondLevelCache)));
+    stockService = context.getBean(StockService.class);
+    statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+    Lab lab = context.getBean(LabRepository.class).save(Lab.builder()
+        .name("Benchmark lab")
+        .location("Building A")
+        .build());
+    Category category = context.getBean(CategoryRepository.class).save(Category.builder()
+        .name("Benchmark category")
+        .lab(lab)
+        .build());
+    User user = context.getBean(UserRepository.class).save(User.builder()
+        .firstName("Bench")
+        .lastName("Mark")
+        .email("bench@test.com")
+        .passwordHash("hash")
+        .role(Role.STAFF)
+        .build());
+
+    List<Item> items = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      items.add(Item.builder()
+          .name("Item " + i)
+          .code("CODE-" + i)
+          .lab(lab)
+          .category(category)
+          .unit("ml")
+          .reorderLevel(10)
+          .maxQuantity(100)
+          .build());
+    }
+    itemIds = context.getBean(ItemRepository.class).saveAll(items).stream().map(Item::getId).toList();
+    labId = lab.getId();
+    userId = user.getId();
+
+    // Opening stock so that stockOut never runs dry
+    for (UUID itemId : itemIds) {
+      stockService.stockIn(new StockInRequest(itemId, labId, 1_000_000_000.0, null, null, null, null, "Opening", userId));
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void resetCounters() {
+    statistics.clear();
+    operations = 0;
+  }
+
+  @TearDown(Level.Iteration)
+  public void reportRoundTrips() {
+    System.out.printf("%nsecond-level cache %s: %.2f statements per operation%n",
+        secondLevelCache ? "on" : "off", (double) statistics.getPrepareStatementCount() / Math.max(operations, 1));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void stockIn() {
+    stockService.stockIn(new StockInRequest(randomItem(), labId, 1.0, null, null, null, null, "Benchmark", userId));
+    operations++;
+  }
+
+  @Benchmark
+  public void stockOut() {
+    stockService.stockOut(new StockOutRequest(randomItem(), labId, 1.0, null, "Benchmark", userId));
+    operations++;
+  }
+
+  private UUID randomItem() {
+    return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+  }
+}
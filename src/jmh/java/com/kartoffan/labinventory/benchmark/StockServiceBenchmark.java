@@ -0,0 +1,145 @@
+package com.kartoffan.labinventory.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.kartoffan.labinventory.dto.stock.StockInRequest;
+import com.kartoffan.labinventory.dto.stock.StockOutRequest;
+import com.kartoffan.labinventory.dto.stock.StockQuantity;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.role.Role;
+import com.kartoffan.labinventory.service.stock.StockService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+
+/**
+ * Stock service hot paths against an in-memory database seeded with a
+ * ledger of the given size spread over a fixed catalogue.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockServiceBenchmark {
+
+  private static final int ITEMS = 1_000;
+  private static final int INSERT_BATCH = 5_000;
+
+  @Param({ "10000", "100000", "1000000" })
+  public int movements;
+
+  private ConfigurableApplicationContext context;
+  private StockService stockService;
+  private List<UUID> itemIds;
+  private UUID labId;
+  private UUID userId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start();
+    stockService = context.getBean(StockService.class);
+
+    Lab lab = context.getBean(LabRepository.class).save(Lab.builder()
+        .name("Benchmark lab")
+        .location("Building A")
+        .build());
+    Category category = context.getBean(CategoryRepository.class).save(Category.builder()
+        .name("Benchmark category")
+        .lab(lab)
+        .build());
+    User user = context.getBean(UserRepository.class).save(User.builder()
+        .firstName("Bench")
+        .lastName("Mark")
+        .email("bench@test.com")
+        .passwordHash("hash")
+        .role(Role.STAFF)
+        .build());
+
+    ItemRepository itemRepository = context.getBean(ItemRepository.class);
+    List<Item> items = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      items.add(Item.builder()
+          .name("Item " + i)
+          .code("CODE-" + i)
+          .lab(lab)
+          .category(category)
+          .unit("ml")
+          .reorderLevel(10)
+          .maxQuantity(100)
+          .build());
+    }
+    itemIds = itemRepository.saveAll(items).stream().map(Item::getId).toList();
+    labId = lab.getId();
+    userId = user.getId();
+
+    seedLedger();
+    context.getBean(StockBalanceService.class).rebuild();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public void stockIn() {
+    stockService.stockIn(new StockInRequest(randomItem(), labId, 1.0, null, null, null, null, "Benchmark", userId));
+  }
+
+  @Benchmark
+  public void stockOut() {
+    stockService.stockOut(new StockOutRequest(randomItem(), labId, 1.0, null, "Benchmark", userId));
+  }
+
+  @Benchmark
+  public List<StockQuantity> getAllItemQuantities() {
+    return stockService.getAllItemQuantities(labId);
+  }
+
+  private UUID randomItem() {
+    return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+  }
+
+  /**
+   * Spreads the ledger evenly over the catalogue, plus one large opening
+   * delivery per item so that stockOut never runs dry
+   */
+  private void seedLedger() {
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    String sql = "INSERT INTO stock_movements (id, item_id, lab_id, performed_by, type, quantity, reason, timestamp) "
+        + "VALUES (?, ?, ?, ?, 'IN', ?, 'Seed', ?)";
+    LocalDateTime start = LocalDateTime.now().minusYears(1);
+
+    List<Object[]> openings = new ArrayList<>(ITEMS);
+    for (UUID itemId : itemIds) {
+      openings.add(new Object[] { UUID.randomUUID(), itemId, labId, userId, 1_000_000_000.0, Timestamp.valueOf(start) });
+    }
+    jdbcTemplate.batchUpdate(sql, openings);
+
+    for (int offset = 0; offset < movements; offset += INSERT_BATCH) {
+      List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+      for (int i = offset; i < Math.min(offset + INSERT_BATCH, movements); i++) {
+        batch.add(new Object[] {
+            UUID.randomUUID(), itemIds.get(i % ITEMS), labId, userId, 1.0, Timestamp.valueOf(start.plusSeconds(i)) });
+      }
+      jdbcTemplate.batchUpdate(sql, batch);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -16,6 +17,7 @@ import org.springframework.security.access.AccessDeniedException;
 import com.kartoffan.labinventory.exception.ApiException;
 import com.kartoffan.labinventory.exception.InsufficientStockException;
 import com.kartoffan.labinventory.exception.InvalidCredentialsException;
+import com.kartoffan.labinventory.exception.ServiceUnavailableException;
 
 import jakarta.validation.ConstraintViolationException;
 
@@ -35,6 +37,20 @@ public class GlobalExceptionHandler {
         .body(error);
   }
 
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException exception) {
+    ApiError error = ApiError.builder()
+        .code(exception.getCode())
+        .message(exception.getMessage())
+        .timestamp(LocalDateTime.now())
+        .build();
+
+    return ResponseEntity
+        .status(exception.getStatus())
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, exception.getRetryAfter().toSeconds())))
+        .body(error);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<?> handleValidationException(MethodArgumentNotValidException exception) {
     List<String> details = exception.getBindingResult()
@@ -0,0 +1,232 @@
+package com.kartoffan.labinventory.api;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kartoffan.labinventory.exception.ApiException;
+import com.kartoffan.labinventory.exception.BadRequestException;
+import com.kartoffan.labinventory.exception.IdempotencyKeyInUseException;
+import com.kartoffan.labinventory.exception.IdempotencyKeyReusedException;
+import com.kartoffan.labinventory.model.IdempotencyRecord;
+import com.kartoffan.labinventory.service.idempotency.IdempotencyClaim;
+import com.kartoffan.labinventory.service.idempotency.IdempotencyService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Makes the stock write endpoints safe to retry. A POST carrying an
+ * {@code Idempotency-Key} header claims the key for the caller before it runs;
+ * a later request with the same key gets the stored response back instead of
+ * running again. Only successful responses are kept, a failed request left
+ * nothing behind and releases its key. Requests without the header are passed
+ * through untouched.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final String STOCKS_PATH = "/api/v1/stocks/";
+  private static final String MOVEMENTS_PATH = "/api/v1/stocks/movements";
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyService idempotencyService;
+  private final ObjectMapper objectMapper;
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return !HttpMethod.POST.matches(request.getMethod())
+        || request.getHeader(KEY_HEADER) == null
+        || !path.startsWith(STOCKS_PATH)
+        || path.startsWith(MOVEMENTS_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(KEY_HEADER).trim();
+    if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(response, new BadRequestException(
+          KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+      return;
+    }
+
+    CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+    String requestHash = hash(request, cachedRequest.body);
+    IdempotencyClaim claim = idempotencyService.claim(principal(), idempotencyKey, requestHash);
+    if (!claim.acquired()) {
+      replay(claim.record(), requestHash, response);
+      return;
+    }
+
+    ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+    try {
+      boolean succeeded = false;
+      try {
+        filterChain.doFilter(cachedRequest, cachingResponse);
+        succeeded = isSuccessful(cachingResponse.getStatus());
+      } finally {
+        if (!succeeded) {
+          // The request's transaction rolled back, a retry may run it again
+          idempotencyService.release(claim.record());
+        }
+      }
+
+      if (succeeded) {
+        idempotencyService.complete(
+            claim.record(),
+            cachingResponse.getStatus(),
+            cachingResponse.getContentType(),
+            new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+      }
+    } finally {
+      cachingResponse.copyBodyToResponse();
+    }
+  }
+
+  private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response)
+      throws IOException {
+    if (!requestHash.equals(record.getRequestHash())) {
+      writeError(response, new IdempotencyKeyReusedException(
+          KEY_HEADER + " was already used for a different request"));
+      return;
+    }
+    if (!record.isCompleted()) {
+      writeError(response, new IdempotencyKeyInUseException(
+          "A request with this " + KEY_HEADER + " is still being processed"));
+      return;
+    }
+
+    byte[] body = record.getResponseBody() != null
+        ? record.getResponseBody().getBytes(StandardCharsets.UTF_8)
+        : new byte[0];
+    response.setStatus(record.getResponseStatus());
+    if (record.getResponseContentType() != null) {
+      response.setContentType(record.getResponseContentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+
+  private void writeError(HttpServletResponse response, ApiException exception) throws IOException {
+    ApiError error = ApiError.builder()
+        .code(exception.getCode())
+        .message(exception.getMessage())
+        .timestamp(LocalDateTime.now())
+        .build();
+
+    response.setStatus(exception.getStatus().value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), error);
+  }
+
+  private static boolean isSuccessful(int status) {
+    return status >= 200 && status < 300;
+  }
+
+  private static String principal() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null ? authentication.getName() : "anonymous";
+  }
+
+  /**
+   * SHA-256 over method, path, query and body, so a key sent again with a
+   * different payload is told apart from a retry
+   */
+  private static String hash(HttpServletRequest request, byte[] body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) ' ');
+      digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+      if (request.getQueryString() != null) {
+        digest.update((byte) '?');
+        digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+      }
+      digest.update((byte) '\n');
+      digest.update(body);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException exception) {
+      throw new IllegalStateException("SHA-256 is not available", exception);
+    }
+  }
+
+  /**
+   * Reads the body up front so it can be hashed and still be read by the
+   * controller
+   */
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request) throws IOException {
+      super(request);
+      this.body = request.getInputStream().readAllBytes();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return input.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+      String encoding = getCharacterEncoding();
+      return new BufferedReader(new InputStreamReader(getInputStream(),
+          encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+    }
+  }
+}
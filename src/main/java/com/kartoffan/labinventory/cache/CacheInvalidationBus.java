@@ -0,0 +1,92 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the in-process caches of every node in step. Local changes are sent
+ * once their transaction commits; invalidations from other nodes are
+ * republished as an {@link EntityInvalidation} application event, on which
+ * each cache evicts its own entries.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final InvalidationTransport transport;
+  private final ApplicationEventPublisher eventPublisher;
+
+  public CacheInvalidationBus(InvalidationTransport transport, ApplicationEventPublisher eventPublisher) {
+    this.transport = transport;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @PostConstruct
+  public void start() {
+    transport.subscribe(this::receive);
+  }
+
+  /**
+   * Announces a change to an entity, after commit when a transaction is active.
+   * The changes of one transaction are sent together.
+   */
+  public void publish(Class<?> entityType, UUID id) {
+    EntityInvalidation invalidation = new EntityInvalidation(entityType.getSimpleName(), id, nodeId);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      pending().invalidations.add(invalidation);
+    } else {
+      transport.publish(invalidation);
+    }
+  }
+
+  /**
+   * Looks up the invalidations collected by the current transaction. The
+   * synchronizations of a suspended outer transaction are not visible here, so
+   * a nested REQUIRES_NEW transaction collects and sends its own.
+   */
+  private PendingInvalidations pending() {
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      if (synchronization instanceof PendingInvalidations pending && pending.bus() == this) {
+        return pending;
+      }
+    }
+    PendingInvalidations pending = new PendingInvalidations();
+    TransactionSynchronizationManager.registerSynchronization(pending);
+    return pending;
+  }
+
+  private void receive(EntityInvalidation invalidation) {
+    if (nodeId.equals(invalidation.origin())) {
+      return;
+    }
+    log.debug("Applying cache invalidation {}", invalidation);
+    eventPublisher.publishEvent(invalidation);
+  }
+
+  private class PendingInvalidations implements TransactionSynchronization {
+
+    private final Set<EntityInvalidation> invalidations = new LinkedHashSet<>();
+
+    CacheInvalidationBus bus() {
+      return CacheInvalidationBus.this;
+    }
+
+    @Override
+    public void afterCommit() {
+      transport.publishAll(List.copyOf(invalidations));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockAlert;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.Supplier;
+import com.kartoffan.labinventory.model.User;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that announces every insert, update and delete of a
+ * cached or streamed entity on the {@link CacheInvalidationBus}. Bulk JPQL
+ * updates bypass entity listeners and are left to the cache TTL.
+ */
+@Component
+public class CacheInvalidationListener {
+
+  private final ObjectProvider<CacheInvalidationBus> bus;
+
+  public CacheInvalidationListener(ObjectProvider<CacheInvalidationBus> bus) {
+    this.bus = bus;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void changed(Object entity) {
+    UUID id = idOf(entity);
+    if (id != null) {
+      bus.ifAvailable(available -> available.publish(Hibernate.getClass(entity), id));
+    }
+  }
+
+  private static UUID idOf(Object entity) {
+    if (entity instanceof Lab lab) {
+      return lab.getId();
+    }
+    if (entity instanceof Item item) {
+      return item.getId();
+    }
+    if (entity instanceof Category category) {
+      return category.getId();
+    }
+    if (entity instanceof Supplier supplier) {
+      return supplier.getId();
+    }
+    if (entity instanceof User user) {
+      return user.getId();
+    }
+    if (entity instanceof StockAlert alert) {
+      return alert.getId();
+    }
+    if (entity instanceof StockMovement movement) {
+      return movement.getId();
+    }
+    return null;
+  }
+}
@@ -0,0 +1,44 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.UUID;
+
+/**
+ * A change to a cached entity, broadcast to every node. A reset, which has no
+ * entity type, tells a node to drop everything because it may have missed
+ * notifications. Also republished locally as an application event.
+ */
+public record EntityInvalidation(String entityType, UUID id, String origin) {
+
+  private static final String SEPARATOR = "|";
+  private static final String RESET = "*";
+
+  public static EntityInvalidation reset() {
+    return new EntityInvalidation(null, null, null);
+  }
+
+  public boolean isReset() {
+    return entityType == null;
+  }
+
+  public boolean isFor(Class<?> type) {
+    return isReset() || type.getSimpleName().equals(entityType);
+  }
+
+  public String encode() {
+    if (isReset()) {
+      return RESET;
+    }
+    return entityType + SEPARATOR + id + SEPARATOR + origin;
+  }
+
+  public static EntityInvalidation decode(String payload) {
+    if (RESET.equals(payload)) {
+      return reset();
+    }
+    String[] parts = payload.split("\\" + SEPARATOR, 3);
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Invalid invalidation payload: " + payload);
+    }
+    return new EntityInvalidation(parts[0], UUID.fromString(parts[1]), parts[2]);
+  }
+}
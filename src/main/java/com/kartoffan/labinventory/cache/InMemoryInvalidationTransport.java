@@ -0,0 +1,41 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * JVM-wide transport that delivers invalidations synchronously to every
+ * subscriber, so several application contexts in one process behave like
+ * separate nodes. Meant for tests and single-process setups.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+  private static final Set<Consumer<EntityInvalidation>> SUBSCRIBERS = ConcurrentHashMap.newKeySet();
+
+  private final Set<Consumer<EntityInvalidation>> ownSubscribers = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public void publish(EntityInvalidation invalidation) {
+    SUBSCRIBERS.forEach(subscriber -> subscriber.accept(invalidation));
+  }
+
+  @Override
+  public void subscribe(Consumer<EntityInvalidation> subscriber) {
+    ownSubscribers.add(subscriber);
+    SUBSCRIBERS.add(subscriber);
+  }
+
+  @PreDestroy
+  public void close() {
+    SUBSCRIBERS.removeAll(ownSubscribers);
+    ownSubscribers.clear();
+  }
+}
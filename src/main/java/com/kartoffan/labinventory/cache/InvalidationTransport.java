@@ -0,0 +1,19 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Carries entity invalidations between application nodes. Delivery is best
+ * effort; a transport that may have dropped messages delivers a reset.
+ */
+public interface InvalidationTransport {
+
+  void publish(EntityInvalidation invalidation);
+
+  default void publishAll(List<EntityInvalidation> invalidations) {
+    invalidations.forEach(this::publish);
+  }
+
+  void subscribe(Consumer<EntityInvalidation> subscriber);
+}
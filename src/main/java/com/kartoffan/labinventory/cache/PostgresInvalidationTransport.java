@@ -0,0 +1,245 @@
+package com.kartoffan.labinventory.cache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts invalidations with PostgreSQL NOTIFY and receives them on a
+ * dedicated connection that LISTENs on the channel. The listening connection is
+ * taken from the pool for the lifetime of the node. Whenever it has to be
+ * re-established, subscribers get a reset since notifications sent in between
+ * are lost.
+ * <p>
+ * Publishing only queues the invalidation; a single sender thread drains the
+ * queue and notifies in batches on a connection of its own, so a committing
+ * request never waits for a second connection from the pool. If the queue
+ * overflows or a batch cannot be sent, the next batch is a reset instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationTransport implements InvalidationTransport {
+
+  private static final int MAX_BATCH = 1000;
+
+  private final DataSource dataSource;
+  private final String channel;
+  private final Duration pollTimeout;
+  private final Duration retryDelay;
+  private final BlockingQueue<EntityInvalidation> outbox;
+
+  private final List<Consumer<EntityInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean lost = new AtomicBoolean();
+  private volatile boolean running;
+  private Thread listener;
+  private Thread sender;
+
+  public PostgresInvalidationTransport(
+      DataSource dataSource,
+      @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel,
+      @Value("${app.cache.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+      @Value("${app.cache.invalidation.retry-delay:5s}") Duration retryDelay,
+      @Value("${app.cache.invalidation.queue-capacity:10000}") int queueCapacity) {
+    if (!channel.matches("[a-z_][a-z0-9_]*")) {
+      throw new IllegalArgumentException("Invalid notification channel: " + channel);
+    }
+    this.dataSource = dataSource;
+    this.channel = channel;
+    this.pollTimeout = pollTimeout;
+    this.retryDelay = retryDelay;
+    this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+  }
+
+  @PostConstruct
+  public synchronized void start() {
+    running = true;
+    sender = new Thread(this::send, "cache-invalidation-sender");
+    sender.setDaemon(true);
+    sender.start();
+  }
+
+  /**
+   * Queues a notification for the sender without blocking. When the queue is
+   * full the invalidation is dropped and a reset is sent in its place
+   */
+  @Override
+  public void publish(EntityInvalidation invalidation) {
+    if (!outbox.offer(invalidation)) {
+      lost.set(true);
+    }
+  }
+
+  @Override
+  public synchronized void subscribe(Consumer<EntityInvalidation> subscriber) {
+    subscribers.add(subscriber);
+    if (listener == null) {
+      running = true;
+      listener = new Thread(this::listen, "cache-invalidation-listener");
+      listener.setDaemon(true);
+      listener.start();
+    }
+  }
+
+  @PreDestroy
+  public synchronized void close() throws InterruptedException {
+    running = false;
+    stop(listener);
+    stop(sender);
+    listener = null;
+    sender = null;
+    flush();
+  }
+
+  private void stop(Thread thread) throws InterruptedException {
+    if (thread != null) {
+      thread.interrupt();
+      thread.join(retryDelay.toMillis());
+    }
+  }
+
+  private void send() {
+    while (running) {
+      try {
+        EntityInvalidation first = outbox.poll(pollTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null && !lost.get()) {
+          continue;
+        }
+        List<EntityInvalidation> batch = new ArrayList<>();
+        if (first != null) {
+          batch.add(first);
+        }
+        if (!sendBatch(batch)) {
+          sleep();
+        }
+      } catch (InterruptedException exception) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sends what is left in the queue on shutdown, without retrying
+   */
+  private void flush() {
+    while (!outbox.isEmpty() || lost.get()) {
+      if (!sendBatch(new ArrayList<>())) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Sends the given invalidations and queued ones, up to {@link #MAX_BATCH},
+   * in a single round trip. Once anything has been lost the batch is replaced
+   * by a reset, which stays pending until it has been sent.
+   */
+  private boolean sendBatch(List<EntityInvalidation> batch) {
+    outbox.drainTo(batch, MAX_BATCH - batch.size());
+    if (lost.getAndSet(false)) {
+      batch = List.of(EntityInvalidation.reset());
+    }
+    if (batch.isEmpty()) {
+      return true;
+    }
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(
+            "SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload")) {
+      connection.setAutoCommit(true);
+      String[] payloads = batch.stream().map(EntityInvalidation::encode).toArray(String[]::new);
+      statement.setString(1, channel);
+      statement.setArray(2, connection.createArrayOf("text", payloads));
+      statement.execute();
+      return true;
+    } catch (SQLException exception) {
+      lost.set(true);
+      log.warn("Could not publish {} cache invalidations, a reset will follow: {}",
+          batch.size(), exception.getMessage());
+      return false;
+    }
+  }
+
+  private void listen() {
+    boolean reconnecting = false;
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        if (reconnecting) {
+          deliver(EntityInvalidation.reset());
+        }
+        reconnecting = true;
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            receive(notification.getParameter());
+          }
+        }
+      } catch (SQLException exception) {
+        if (!running) {
+          return;
+        }
+        log.warn("Cache invalidation listener lost its connection, retrying in {}: {}",
+            retryDelay, exception.getMessage());
+        sleep();
+      }
+    }
+  }
+
+  private void receive(String payload) {
+    try {
+      deliver(EntityInvalidation.decode(payload));
+    } catch (IllegalArgumentException exception) {
+      log.warn("Ignoring malformed cache invalidation: {}", payload);
+    }
+  }
+
+  private void deliver(EntityInvalidation invalidation) {
+    for (Consumer<EntityInvalidation> subscriber : subscribers) {
+      try {
+        subscriber.accept(invalidation);
+      } catch (RuntimeException exception) {
+        log.warn("Cache invalidation subscriber failed for {}", invalidation, exception);
+      }
+    }
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(retryDelay.toMillis());
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.kartoffan.labinventory.cache;
+
+import java.util.List;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.Supplier;
+import com.kartoffan.labinventory.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Evicts entities changed on other nodes from the Hibernate second-level
+ * cache. An invalidation carries no natural id, so the natural-id resolutions
+ * of the changed type are dropped as a whole. Does nothing when the cache is
+ * disabled.
+ */
+@Component
+public class SecondLevelCacheInvalidator {
+
+  private static final List<Class<?>> CACHED = List.of(
+      Item.class, Lab.class, Category.class, Supplier.class, User.class);
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+    this.entityManagerFactory = entityManagerFactory;
+  }
+
+  @EventListener
+  public void on(EntityInvalidation invalidation) {
+    Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    for (Class<?> type : CACHED) {
+      if (!invalidation.isFor(type)) {
+        continue;
+      }
+      if (invalidation.isReset()) {
+        cache.evictEntityData(type);
+      } else {
+        cache.evictEntityData(type, invalidation.id());
+      }
+      cache.evictNaturalIdData(type);
+    }
+  }
+}
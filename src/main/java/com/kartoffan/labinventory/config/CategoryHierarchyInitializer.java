@@ -0,0 +1,35 @@
+package com.kartoffan.labinventory.config;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.repository.CategoryClosureRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills the category closure table from the parent links when a category is
+ * missing from it, as for categories created before the table existed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryHierarchyInitializer {
+
+  private final CategoryClosureRepository categoryClosureRepository;
+
+  @Transactional
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    long missing = categoryClosureRepository.countMissing();
+    if (missing == 0) {
+      return;
+    }
+    categoryClosureRepository.deleteAllRows();
+    int rows = categoryClosureRepository.insertFromParentLinks();
+    log.info("Rebuilt category closure for {} missing categories, {} rows", missing, rows);
+  }
+}
@@ -0,0 +1,88 @@
+package com.kartoffan.labinventory.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hibernate second-level cache for the reference entities resolved on every
+ * stock operation. Regions live in a Caffeine-backed JCache manager owned by
+ * the session factory, which closes it on shutdown. The cache is switched off
+ * in the base properties, as Hibernate would otherwise enable it on its own
+ * with a JVM-wide manager, and switched on here. Each region is bounded by
+ * {@code app.cache.<region>.max-size} and {@code app.cache.<region>.ttl},
+ * falling back to {@code app.cache.l2.max-size} and {@code app.cache.l2.ttl};
+ * an entity mapped to a region not declared here fails the startup.
+ * Entities use read-write concurrency, so a reader never sees an entry that
+ * another transaction is still changing. Changes made on other nodes are
+ * evicted by {@link com.kartoffan.labinventory.cache.SecondLevelCacheInvalidator}.
+ * Hits, misses and puts per region are exported under
+ * {@code hibernate.second.level.cache.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+  public static final String ITEMS = "l2.items";
+  public static final String LABS = "l2.labs";
+  public static final String CATEGORIES = "l2.categories";
+  public static final String SUPPLIERS = "l2.suppliers";
+  public static final String USERS = "l2.users";
+  public static final String ITEM_NATURAL_IDS = "l2.item-natural-ids";
+  public static final String USER_NATURAL_IDS = "l2.user-natural-ids";
+
+  private static final List<String> REGIONS = List.of(
+      ITEMS, LABS, CATEGORIES, SUPPLIERS, USERS, ITEM_NATURAL_IDS, USER_NATURAL_IDS);
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(Environment environment) {
+    return hibernateProperties -> {
+      hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager(environment));
+      hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  /**
+   * Creates a cache manager of its own, so that application contexts sharing
+   * the JVM never share or close each other's regions
+   */
+  private static CacheManager cacheManager(Environment environment) {
+    Duration defaultTtl = environment.getProperty("app.cache.l2.ttl", Duration.class, Duration.ofHours(1));
+    long defaultMaxSize = environment.getProperty("app.cache.l2.max-size", Long.class, 10_000L);
+
+    CacheManager cacheManager = Caching
+        .getCachingProvider(CaffeineCachingProvider.class.getName())
+        .getCacheManager(URI.create("urn:lab-inventory:l2:" + UUID.randomUUID()),
+            HibernateCacheConfig.class.getClassLoader());
+
+    for (String region : REGIONS) {
+      Duration ttl = environment.getProperty("app.cache." + region + ".ttl", Duration.class, defaultTtl);
+      long maxSize = environment.getProperty("app.cache." + region + ".max-size", Long.class, defaultMaxSize);
+
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setStoreByValue(false);
+      configuration.setMaximumSize(OptionalLong.of(maxSize));
+      configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+      cacheManager.createCache(region, configuration);
+    }
+    return cacheManager;
+  }
+}
@@ -0,0 +1,35 @@
+package com.kartoffan.labinventory.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the pg_trgm extension and the GIN trigram indexes used by item
+ * search. They also make the leading-wildcard LIKE of the item filter indexable.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.item-search.engine", havingValue = "postgres", matchIfMissing = true)
+public class ItemSearchIndexInitializer {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    try {
+      jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+      jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (lower(name) gin_trgm_ops)");
+      jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_items_code_trgm ON items USING gin (lower(code) gin_trgm_ops)");
+    } catch (DataAccessException exception) {
+      log.warn("Could not create trigram indexes for item search, searches will scan: {}", exception.getMessage());
+    }
+  }
+}
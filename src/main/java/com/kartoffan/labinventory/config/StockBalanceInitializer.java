@@ -0,0 +1,50 @@
+package com.kartoffan.labinventory.config;
+
+import java.time.LocalDateTime;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills the materialized balances from the movement ledger when the table is
+ * empty but movements exist, as on the first start after upgrading. Stock
+ * outs are checked against the balances only, so without this every existing
+ * item would read as out of stock. Runs before the stock alerts are loaded,
+ * which are derived from the balances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockBalanceInitializer {
+
+  private final StockBalanceService stockBalanceService;
+  private final StockBalanceRepository stockBalanceRepository;
+  private final StockMovementRepository stockMovementRepository;
+
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    if (stockBalanceRepository.count() > 0
+        || stockMovementRepository.findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(LocalDateTime.now()).isEmpty()) {
+      return;
+    }
+    try {
+      BalanceReconciliationReport report = stockBalanceService.rebuild();
+      log.info("Backfilled {} stock balances from the movement ledger", report.getDrifts().size());
+    } catch (DataIntegrityViolationException exception) {
+      log.info("Stock balances were backfilled concurrently by another node");
+    }
+  }
+}
@@ -21,6 +21,8 @@ public class SuperAdminInitializer {
   public void init() {
     if (!userRepository.existsByRole(Role.SUPER_ADMIN)) {
       User superAdmin = User.builder()
+          .firstName("Super")
+          .lastName("Admin")
           .email("superadmin@system.com")
           .passwordHash(passwordEncoder.encode("ChangeMe123!"))
           .role(Role.SUPER_ADMIN)
@@ -1,5 +1,6 @@
 package com.kartoffan.labinventory.controller;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -44,6 +45,20 @@ public class ItemController {
         .body(items.map(item -> ItemResponse.fromEntity(item)));
   }
 
+  @Operation(summary = "Search items by name or code, ranked by similarity")
+  @GetMapping("/search")
+  @PreAuthorize("hasAuthority('ITEM_READ')")
+  public ResponseEntity<List<ItemResponse>> search(
+      @RequestParam String query,
+      @RequestParam(required = false) UUID labId,
+      @RequestParam(defaultValue = "20") int limit
+  ) {
+
+    List<Item> items = itemService.search(query, labId, limit);
+    return ResponseEntity.ok()
+        .body(items.stream().map(ItemResponse::fromEntity).toList());
+  }
+
   @Operation(summary = "Get item by ID")
   @GetMapping("/{itemId}")
   @PreAuthorize("hasAuthority('ITEM_READ')")
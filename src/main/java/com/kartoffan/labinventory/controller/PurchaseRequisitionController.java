@@ -0,0 +1,37 @@
+package com.kartoffan.labinventory.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.kartoffan.labinventory.dto.purchaseRequisition.PurchaseRequisitionResponse;
+import com.kartoffan.labinventory.service.purchaseRequisition.PurchaseRequisitionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+
+@Tag(name = "Purchase requisitions", description = "Endpoints for draft purchase requisitions generated from reorder levels")
+@RestController
+@RequestMapping("/api/v1/requisitions")
+@RequiredArgsConstructor
+public class PurchaseRequisitionController {
+  private final PurchaseRequisitionService purchaseRequisitionService;
+
+  @Operation(summary = "Get the draft purchase requisitions of a lab, one per supplier")
+  @GetMapping
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<List<PurchaseRequisitionResponse>> getDrafts(@RequestParam UUID labId) {
+    return ResponseEntity.ok(purchaseRequisitionService.getDrafts(labId));
+  }
+
+  @Operation(summary = "Regenerate the draft purchase requisitions of a lab")
+  @PostMapping("/generate")
+  @PreAuthorize("hasAuthority('STOCK_WRITE')")
+  public ResponseEntity<List<PurchaseRequisitionResponse>> generateDrafts(@RequestParam UUID labId) {
+    return ResponseEntity.ok(purchaseRequisitionService.generateDrafts(labId));
+  }
+}
@@ -1,18 +1,29 @@
 package com.kartoffan.labinventory.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.kartoffan.labinventory.dto.stock.*;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
 import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.service.lab.LabService;
 import com.kartoffan.labinventory.service.stock.StockService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockStream.StockStreamService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 @Tag(name = "Stock", description = "Endpoints for managing inventory stock movements, adjustments, and quantity tracking")
@@ -23,6 +34,9 @@ import lombok.RequiredArgsConstructor;
 public class StockController {
   
   private final StockService stockService;
+  private final StockBalanceService stockBalanceService;
+  private final StockStreamService stockStreamService;
+  private final LabService labService;
 
   @Operation(summary = "Add stock")
   @PostMapping("/in")
@@ -56,6 +70,14 @@ public class StockController {
     return ResponseEntity.ok("Stock transferred successfully");
   }
 
+  @Operation(summary = "Apply a batch of stock operations")
+  @PostMapping("/batch")
+  @PreAuthorize("hasAuthority('STOCK_WRITE')")
+  public ResponseEntity<List<StockBatchLineResult>> processBatch(@Valid @RequestBody StockBatchRequest request) {
+    List<StockBatchLineResult> results = stockService.processBatch(request);
+    return ResponseEntity.ok(results);
+  }
+
   @Operation(summary = "Get item quantity by lab")
   @GetMapping("/{itemId}/quantity")
   @PreAuthorize("hasAuthority('STOCK_READ')")
@@ -69,6 +91,51 @@ public class StockController {
         .body(quantity);
   }
 
+  @Operation(summary = "Get item quantity by lab at a point in time")
+  @GetMapping("/{itemId}/quantity/as-of")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<StockQuantity> getQuantityAsOf(
+      @PathVariable UUID itemId,
+      @RequestParam UUID labId,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at
+  ) {
+
+    StockQuantity quantity = stockService.getQuantityAsOf(itemId, labId, at);
+    return ResponseEntity.ok()
+        .body(quantity);
+  }
+
+  @Operation(summary = "Get the open lots of an item in a lab, first to expire first")
+  @GetMapping("/{itemId}/lots")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<List<StockLotQuantity>> getLots(
+      @PathVariable UUID itemId,
+      @RequestParam UUID labId
+  ) {
+    List<StockLotQuantity> lots = stockService.getLots(itemId, labId);
+    return ResponseEntity.ok(lots);
+  }
+
+  @Operation(summary = "Forecast the consumption of an item in a lab and the days until it runs out")
+  @GetMapping("/{itemId}/forecast")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<StockForecastResponse> getForecast(
+      @PathVariable UUID itemId,
+      @RequestParam UUID labId
+  ) {
+    return ResponseEntity.ok(stockService.getForecast(itemId, labId));
+  }
+
+  @Operation(summary = "Get the items of a lab that run out soonest at their current consumption")
+  @GetMapping("/running-out")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<List<StockForecastResponse>> getRunningOutSoonest(
+      @RequestParam UUID labId,
+      @RequestParam(defaultValue = "10") int limit
+  ) {
+    return ResponseEntity.ok(stockService.getRunningOutSoonest(labId, limit));
+  }
+
   @Operation(summary = "Get all item quantities in a lab")
   @GetMapping("/quantities")
   @PreAuthorize("hasAuthority('STOCK_READ')")
@@ -77,6 +144,17 @@ public class StockController {
     return ResponseEntity.ok(quantities);
   }
 
+  @Operation(summary = "Stream balance changes and alerts of a lab as Server-Sent Events")
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public SseEmitter streamChanges(
+      @RequestParam UUID labId,
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+  ) {
+    labService.getById(labId);
+    return stockStreamService.subscribe(labId, lastEventId);
+  }
+
   @Operation(summary = "Get low stock items")
   @GetMapping("/low-stock")
   @PreAuthorize("hasAuthority('STOCK_READ')")
@@ -92,4 +170,18 @@ public class StockController {
     List<Item> items = stockService.getOutOfStockItems(labId);
     return ResponseEntity.ok(items);
   }
+
+  @Operation(summary = "Verify stock balances against the movement ledger")
+  @GetMapping("/balances/verify")
+  @PreAuthorize("hasAnyRole('ROLE_SUPER_ADMIN')")
+  public ResponseEntity<BalanceReconciliationReport> verifyBalances() {
+    return ResponseEntity.ok(stockBalanceService.verify());
+  }
+
+  @Operation(summary = "Rebuild stock balances from the movement ledger")
+  @PostMapping("/balances/rebuild")
+  @PreAuthorize("hasAnyRole('ROLE_SUPER_ADMIN')")
+  public ResponseEntity<BalanceReconciliationReport> rebuildBalances() {
+    return ResponseEntity.ok(stockBalanceService.rebuild());
+  }
 }
@@ -4,14 +4,20 @@ import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.kartoffan.labinventory.dto.stockMovement.*;
 import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.service.stockArchive.StockArchiveService;
+import com.kartoffan.labinventory.service.stockMovement.StockMovementExportService;
 import com.kartoffan.labinventory.service.stockMovement.StockMovementService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,6 +31,8 @@ import lombok.RequiredArgsConstructor;
 public class StockMovementController {
   
   private final StockMovementService stockMovementService;
+  private final StockMovementExportService stockMovementExportService;
+  private final StockArchiveService stockArchiveService;
 
   @Operation(summary = "Get stock movement by ID")
   @GetMapping("/{movementId}")
@@ -52,6 +60,58 @@ public class StockMovementController {
         .body(movements.map(movement -> StockMovementResponse.fromEntity(movement)));
   }
   
+  @Operation(summary = "Get stock movements by cursor")
+  @GetMapping("/cursor")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<StockMovementSliceResponse> getAllByCursor(
+      @ModelAttribute StockMovementFilter filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size
+  ) {
+
+    Slice<StockMovement> movements = stockMovementService.getAll(filter, cursor, size);
+    return ResponseEntity.ok()
+        .body(StockMovementSliceResponse.fromSlice(movements));
+  }
+
+  @Operation(summary = "Export stock movements as CSV or NDJSON")
+  @GetMapping("/export")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<StreamingResponseBody> export(
+      @ModelAttribute StockMovementFilter filter,
+      @RequestParam(defaultValue = "CSV") StockMovementExportFormat format
+  ) {
+
+    StreamingResponseBody body = output -> stockMovementExportService.export(filter, format, output);
+    ContentDisposition disposition = ContentDisposition.attachment()
+        .filename("stock-movements." + format.getExtension())
+        .build();
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+        .contentType(format.getMediaType())
+        .body(body);
+  }
+
+  @Operation(summary = "Export archived stock movements as CSV or NDJSON")
+  @GetMapping("/archive")
+  @PreAuthorize("hasAuthority('STOCK_READ')")
+  public ResponseEntity<StreamingResponseBody> exportArchive(
+      @ModelAttribute StockMovementFilter filter,
+      @RequestParam(defaultValue = "CSV") StockMovementExportFormat format
+  ) {
+
+    StreamingResponseBody body = output -> stockArchiveService.export(filter, format, output);
+    ContentDisposition disposition = ContentDisposition.attachment()
+        .filename("stock-movements-archive." + format.getExtension())
+        .build();
+
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+        .contentType(format.getMediaType())
+        .body(body);
+  }
+
   @Operation(summary = "Delete stock movements")
   @DeleteMapping("/{movementId}")
   @PreAuthorize("hasAuthority('STOCK_READ')")
@@ -10,5 +10,6 @@ public class ItemFilter {
   private Boolean active;
   private UUID labId;
   private UUID categoryId;
+  private Boolean includeDescendants;
   private String search;
 }
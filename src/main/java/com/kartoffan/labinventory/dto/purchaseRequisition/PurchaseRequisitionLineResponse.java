@@ -0,0 +1,28 @@
+package com.kartoffan.labinventory.dto.purchaseRequisition;
+
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.PurchaseRequisitionLine;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PurchaseRequisitionLineResponse {
+  private UUID itemId;
+  private String itemName;
+  private String unit;
+  private Double balance;
+  private Double quantity;
+
+  public static PurchaseRequisitionLineResponse fromEntity(PurchaseRequisitionLine line) {
+    return PurchaseRequisitionLineResponse.builder()
+        .itemId(line.getItem().getId())
+        .itemName(line.getItem().getName())
+        .unit(line.getItem().getUnit())
+        .balance(line.getBalance())
+        .quantity(line.getQuantity())
+        .build();
+  }
+}
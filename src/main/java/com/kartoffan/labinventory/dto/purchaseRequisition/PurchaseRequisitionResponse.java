@@ -0,0 +1,36 @@
+package com.kartoffan.labinventory.dto.purchaseRequisition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.PurchaseRequisition;
+import com.kartoffan.labinventory.model.PurchaseRequisition.Status;
+import com.kartoffan.labinventory.model.PurchaseRequisitionLine;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PurchaseRequisitionResponse {
+  private UUID id;
+  private UUID labId;
+  private UUID supplierId;
+  private String supplierName;
+  private Status status;
+  private LocalDateTime createdAt;
+  private List<PurchaseRequisitionLineResponse> lines;
+
+  public static PurchaseRequisitionResponse fromEntity(PurchaseRequisition requisition, List<PurchaseRequisitionLine> lines) {
+    return PurchaseRequisitionResponse.builder()
+        .id(requisition.getId())
+        .labId(requisition.getLab().getId())
+        .supplierId(requisition.getSupplier() != null ? requisition.getSupplier().getId() : null)
+        .supplierName(requisition.getSupplier() != null ? requisition.getSupplier().getName() : null)
+        .status(requisition.getStatus())
+        .createdAt(requisition.getCreatedAt())
+        .lines(lines.stream().map(PurchaseRequisitionLineResponse::fromEntity).toList())
+        .build();
+  }
+}
@@ -0,0 +1,21 @@
+package com.kartoffan.labinventory.dto.purchaseRequisition;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReplenishmentNeed {
+  private UUID itemId;
+  private Double quantity;
+  private Integer maxQuantity;
+
+  /**
+   * Quantity that brings the balance back up to the maximum
+   */
+  public double getOrderQuantity() {
+    return maxQuantity - quantity;
+  }
+}
@@ -0,0 +1,16 @@
+package com.kartoffan.labinventory.dto.purchaseRequisition;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SupplierReceipts {
+  private UUID itemId;
+  private UUID supplierId;
+  private Long receipts;
+  private LocalDateTime lastReceivedAt;
+}
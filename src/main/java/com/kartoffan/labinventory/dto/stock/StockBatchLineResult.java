@@ -0,0 +1,39 @@
+package com.kartoffan.labinventory.dto.stock;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockBatchLineResult {
+  private int index;
+  private Status status;
+  private String message;
+  private List<UUID> movementIds;
+
+  public static StockBatchLineResult applied(int index, List<UUID> movementIds) {
+    return StockBatchLineResult.builder()
+        .index(index)
+        .status(Status.APPLIED)
+        .movementIds(movementIds)
+        .build();
+  }
+
+  public static StockBatchLineResult rejected(int index, String message) {
+    return StockBatchLineResult.builder()
+        .index(index)
+        .status(Status.REJECTED)
+        .message(message)
+        .build();
+  }
+
+  public enum Status {
+    APPLIED,
+    REJECTED
+  }
+}
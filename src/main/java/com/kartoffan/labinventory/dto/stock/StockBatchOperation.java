@@ -0,0 +1,53 @@
+package com.kartoffan.labinventory.dto.stock;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchOperation {
+
+  @NotNull
+  private OperationType type;
+
+  @NotNull
+  private UUID itemId;
+
+  @NotNull
+  private UUID labId;
+
+  private UUID toLabId; // for TRANSFER
+
+  @NotNull
+  private Double quantity; // signed for ADJUST, positive otherwise
+
+  private UUID supplierId; // for IN
+
+  @Size(max = 50)
+  private String batchNumber;
+
+  private LocalDate expirationDate;
+
+  @Size(max = 255)
+  private String reference;
+
+  @Size(max = 255)
+  private String reason;
+
+  @NotNull
+  private UUID performedBy;
+
+  public enum OperationType {
+    IN,
+    OUT,
+    ADJUST,
+    TRANSFER
+  }
+}
@@ -0,0 +1,20 @@
+package com.kartoffan.labinventory.dto.stock;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockBatchRequest {
+
+  @NotEmpty
+  @Size(max = 10000)
+  private List<@Valid StockBatchOperation> operations;
+}
@@ -13,4 +13,9 @@ public class StockQuantity {
   private UUID itemId;
   private String itemName;
   private Double quantity;
+  private String unit;
+  private Integer lowStockThreshold;
+  private Integer reorderLevel;
+  private Integer minQuantity;
+  private Integer maxQuantity;
 }
@@ -0,0 +1,17 @@
+package com.kartoffan.labinventory.dto.stockAlert;
+
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.StockAlert.Level;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ActiveStockAlert {
+  private UUID alertId;
+  private UUID itemId;
+  private UUID labId;
+  private Level level;
+}
@@ -0,0 +1,21 @@
+package com.kartoffan.labinventory.dto.stockBalance;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class BalanceDrift {
+  private UUID itemId;
+  private UUID labId;
+  private double balanceQuantity;
+  private double ledgerQuantity;
+
+  public double getDrift() {
+    return balanceQuantity - ledgerQuantity;
+  }
+}
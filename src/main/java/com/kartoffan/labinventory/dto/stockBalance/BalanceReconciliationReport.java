@@ -0,0 +1,18 @@
+package com.kartoffan.labinventory.dto.stockBalance;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class BalanceReconciliationReport {
+  private int checkedBalances;
+  private List<BalanceDrift> drifts;
+  private boolean repaired;
+  private LocalDateTime checkedAt;
+}
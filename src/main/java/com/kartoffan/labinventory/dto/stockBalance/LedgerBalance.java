@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.dto.stockBalance;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LedgerBalance {
+  private UUID itemId;
+  private UUID labId;
+  private Double quantity;
+}
@@ -0,0 +1,25 @@
+package com.kartoffan.labinventory.dto.stockForecast;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Balance of an item in a lab joined with its consumption model, which is
+ * null where nothing has been issued yet
+ */
+@Data
+@AllArgsConstructor
+public class StockConsumption {
+  private UUID itemId;
+  private String itemName;
+  private String unit;
+  private Double quantity;
+  private Double dailyRate;
+  private Double dailyVariance;
+  private Double weight;
+  private LocalDate openDay;
+  private Double openDayQuantity;
+}
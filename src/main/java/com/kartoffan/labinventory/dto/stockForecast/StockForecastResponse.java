@@ -0,0 +1,20 @@
+package com.kartoffan.labinventory.dto.stockForecast;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockForecastResponse {
+  private UUID itemId;
+  private String itemName;
+  private String unit;
+  private Double quantity;
+  private Double dailyRate;
+  private Double dailyRateStdDev;
+  private Double daysUntilStockout;
+}
@@ -0,0 +1,16 @@
+package com.kartoffan.labinventory.dto.stockLot;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockLotQuantity {
+  private String batchNumber;
+  private LocalDate expirationDate;
+  private Double quantity;
+}
@@ -0,0 +1,39 @@
+package com.kartoffan.labinventory.dto.stockMovement;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.exception.BadRequestException;
+import com.kartoffan.labinventory.model.StockMovement;
+
+/**
+ * Position in the movement history, ordered by (timestamp, id) descending.
+ * Serialized as an opaque URL-safe token so clients cannot depend on its shape.
+ */
+public record StockMovementCursor(LocalDateTime timestamp, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  public static StockMovementCursor of(StockMovement movement) {
+    return new StockMovementCursor(movement.getTimestamp(), movement.getId());
+  }
+
+  public String encode() {
+    String raw = timestamp + SEPARATOR + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static StockMovementCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      return new StockMovementCursor(
+          LocalDateTime.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (RuntimeException exception) {
+      throw new BadRequestException("Invalid cursor");
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.kartoffan.labinventory.dto.stockMovement;
+
+import org.springframework.http.MediaType;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum StockMovementExportFormat {
+  CSV(MediaType.parseMediaType("text/csv"), "csv"),
+  NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson");
+
+  private final MediaType mediaType;
+  private final String extension;
+}
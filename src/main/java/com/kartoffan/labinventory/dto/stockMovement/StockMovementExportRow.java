@@ -0,0 +1,68 @@
+package com.kartoffan.labinventory.dto.stockMovement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat, unmanaged projection of a stock movement used by exports and archives,
+ * so that streamed rows never accumulate in the persistence context.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementExportRow {
+
+  public static final String CSV_HEADER = "id,timestamp,type,quantity,itemId,itemName,labId,performedBy,"
+      + "supplierId,batchNumber,expirationDate,reference,reason";
+
+  private UUID id;
+  private LocalDateTime timestamp;
+  private MovementType type;
+  private Double quantity;
+  private UUID itemId;
+  private String itemName;
+  private UUID labId;
+  private UUID performedBy;
+  private UUID supplierId;
+  private String batchNumber;
+  private LocalDate expirationDate;
+  private String reference;
+  private String reason;
+
+  public String toCsv() {
+    return String.join(",",
+        csv(id),
+        csv(timestamp),
+        csv(type),
+        csv(quantity),
+        csv(itemId),
+        csv(itemName),
+        csv(labId),
+        csv(performedBy),
+        csv(supplierId),
+        csv(batchNumber),
+        csv(expirationDate),
+        csv(reference),
+        csv(reason));
+  }
+
+  private static String csv(Object value) {
+    if (value == null) {
+      return "";
+    }
+
+    String text = Objects.toString(value);
+    if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+      return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+    return text;
+  }
+}
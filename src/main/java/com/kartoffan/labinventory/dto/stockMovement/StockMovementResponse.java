@@ -19,6 +19,7 @@ public class StockMovementResponse {
   private MovementType type;
   private double quantity;
   private String reason;
+  private UUID transferId;
   private LocalDateTime timestamp;
 
   public static StockMovementResponse fromEntity(StockMovement movement) {
@@ -29,6 +30,7 @@ public class StockMovementResponse {
         .type(movement.getType())
         .quantity(movement.getQuantity())
         .reason(movement.getReason())
+        .transferId(movement.getTransferId())
         .timestamp(movement.getTimestamp())
         .build();
   }
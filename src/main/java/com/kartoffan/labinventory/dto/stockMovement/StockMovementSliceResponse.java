@@ -0,0 +1,36 @@
+package com.kartoffan.labinventory.dto.stockMovement;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+import com.kartoffan.labinventory.model.StockMovement;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockMovementSliceResponse {
+
+  private List<StockMovementResponse> content;
+  private int size;
+  private boolean hasNext;
+  private String nextCursor;
+
+  public static StockMovementSliceResponse fromSlice(Slice<StockMovement> slice) {
+    List<StockMovement> movements = slice.getContent();
+    String nextCursor = slice.hasNext() && !movements.isEmpty()
+        ? StockMovementCursor.of(movements.get(movements.size() - 1)).encode()
+        : null;
+
+    return StockMovementSliceResponse.builder()
+        .content(movements.stream().map(StockMovementResponse::fromEntity).toList())
+        .size(slice.getSize())
+        .hasNext(slice.hasNext())
+        .nextCursor(nextCursor)
+        .build();
+  }
+}
@@ -0,0 +1,34 @@
+package com.kartoffan.labinventory.dto.stockStream;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@Builder
+public class StockDelta {
+  private UUID movementId;
+  private UUID itemId;
+  private UUID labId;
+  private MovementType type;
+  private Double delta;
+  private LocalDateTime timestamp;
+
+  public static StockDelta of(StockMovement movement) {
+    return StockDelta.builder()
+        .movementId(movement.getId())
+        .itemId(movement.getItem().getId())
+        .labId(movement.getLab().getId())
+        .type(movement.getType())
+        .delta(movement.getQuantity())
+        .timestamp(movement.getTimestamp())
+        .build();
+  }
+}
@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyInUseException extends ApiException {
+
+  public IdempotencyKeyInUseException(String message) {
+    super(
+      "IDEMPOTENCY_KEY_IN_USE",
+      message,
+      HttpStatus.CONFLICT
+    );
+  }
+}
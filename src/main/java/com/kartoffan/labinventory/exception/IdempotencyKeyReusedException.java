@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReusedException extends ApiException {
+
+  public IdempotencyKeyReusedException(String message) {
+    super(
+      "IDEMPOTENCY_KEY_REUSED",
+      message,
+      HttpStatus.UNPROCESSABLE_ENTITY
+    );
+  }
+}
@@ -0,0 +1,22 @@
+package com.kartoffan.labinventory.exception;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends ApiException {
+
+  private final Duration retryAfter;
+
+  public ServiceUnavailableException(String message, Duration retryAfter) {
+    super(
+      "SERVICE_UNAVAILABLE",
+      message,
+      HttpStatus.SERVICE_UNAVAILABLE
+    );
+    this.retryAfter = retryAfter;
+  }
+}
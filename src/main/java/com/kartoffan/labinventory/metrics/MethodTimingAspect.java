@@ -0,0 +1,53 @@
+package com.kartoffan.labinventory.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Times every public service method and every stock movement repository call,
+ * tagged with the class, method and the exception thrown, if any. Calls a
+ * service makes to itself are not proxied and therefore not timed.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MethodTimingAspect {
+
+  public static final String SERVICE_TIMER = "app.service.calls";
+  public static final String REPOSITORY_TIMER = "app.repository.calls";
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * com.kartoffan.labinventory.service..*Impl.*(..))")
+  public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(SERVICE_TIMER, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+  }
+
+  @Around("execution(* com.kartoffan.labinventory.repository.StockMovementRepository.*(..))")
+  public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+    return time(REPOSITORY_TIMER, "StockMovementRepository", joinPoint);
+  }
+
+  private Object time(String name, String className, ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable throwable) {
+      exception = throwable.getClass().getSimpleName();
+      throw throwable;
+    } finally {
+      sample.stop(Timer.builder(name)
+          .tag("class", className)
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("exception", exception)
+          .register(meterRegistry));
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.kartoffan.labinventory.metrics;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records how many SQL statements each request issued, tagged like
+ * {@code http.server.requests}. Work done on async threads, such as streamed
+ * exports, is not counted.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  public static final String QUERIES_SUMMARY = "app.db.queries";
+
+  private final QueryCounter queryCounter;
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    queryCounter.start();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      int queries = queryCounter.stop();
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+      DistributionSummary.builder(QUERIES_SUMMARY)
+          .description("SQL statements issued per request")
+          .tag("method", request.getMethod())
+          .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+          .publishPercentileHistogram()
+          .register(meterRegistry)
+          .record(queries);
+    }
+  }
+}
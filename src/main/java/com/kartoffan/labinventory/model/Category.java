@@ -3,6 +3,12 @@ package com.kartoffan.labinventory.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+import com.kartoffan.labinventory.config.HibernateCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +16,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CATEGORIES)
 @Table(name = "categories", uniqueConstraints = {
   @UniqueConstraint(columnNames = "name")
 })
@@ -0,0 +1,44 @@
+package com.kartoffan.labinventory.model;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One ancestor-descendant pair of the category tree, at the given distance.
+ * Every category is also paired with itself at depth 0, so the subtree of a
+ * category is all rows with it as the ancestor. Maintained with set-based
+ * statements by {@link com.kartoffan.labinventory.repository.CategoryClosureRepository}.
+ */
+@Entity
+@IdClass(CategoryClosure.Key.class)
+@Table(name = "category_closure", indexes = {
+  @Index(name = "idx_category_closure_descendant", columnList = "descendant_id, ancestor_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryClosure {
+  @Id
+  @Column(name = "ancestor_id", nullable = false)
+  private UUID ancestorId;
+
+  @Id
+  @Column(name = "descendant_id", nullable = false)
+  private UUID descendantId;
+
+  @Column(name = "depth", nullable = false)
+  private Integer depth;
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Key implements Serializable {
+    private UUID ancestorId;
+    private UUID descendantId;
+  }
+}
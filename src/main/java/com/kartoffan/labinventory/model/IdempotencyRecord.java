@@ -0,0 +1,63 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a write request sent with an {@code Idempotency-Key}. The row is
+ * inserted before the request runs, which makes the unique key the arbiter
+ * between concurrent duplicates, and holds the response once it succeeded.
+ */
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+  @UniqueConstraint(columnNames = {"principal", "idempotency_key"})
+}, indexes = {
+  @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @Column(name = "principal", nullable = false, updatable = false, length = 150)
+  private String principal;
+
+  @Column(name = "idempotency_key", nullable = false, updatable = false, length = 255)
+  private String idempotencyKey;
+
+  @Column(name = "request_hash", nullable = false, updatable = false, length = 64)
+  private String requestHash;
+
+  @Column(name = "response_status")
+  private Integer responseStatus;
+
+  @Column(name = "response_content_type", length = 100)
+  private String responseContentType;
+
+  @Column(name = "response_body", columnDefinition = "TEXT")
+  private String responseBody;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  /**
+   * Whether the request finished and its response can be replayed
+   */
+  public boolean isCompleted() {
+    return responseStatus != null;
+  }
+}
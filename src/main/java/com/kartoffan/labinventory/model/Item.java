@@ -3,6 +3,14 @@ package com.kartoffan.labinventory.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+import com.kartoffan.labinventory.config.HibernateCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.Builder;
 import lombok.AllArgsConstructor;
@@ -10,8 +18,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEMS)
+@NaturalIdCache(region = HibernateCacheConfig.ITEM_NATURAL_IDS)
 @Table(name = "items", uniqueConstraints = {
   @UniqueConstraint(columnNames = {"name", "lab_id"})
+}, indexes = {
+  @Index(name = "idx_items_category", columnList = "category_id")
 })
 @Data
 @NoArgsConstructor
@@ -23,12 +36,14 @@ public class Item {
   @Column(name = "id", updatable = false, nullable = false)
   private UUID id;
 
+  @NaturalId(mutable = true)
   @Column(name = "name", nullable = false, length = 150)
   private String name;
 
   @Column(name = "code", length = 50)
   private String code;
 
+  @NaturalId(mutable = true)
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "lab_id", nullable = false)
   private Lab lab;
@@ -0,0 +1,55 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order proposal of a lab to one supplier. Drafts are generated by the
+ * replenishment job and replaced as a whole on every run; the supplier is
+ * null for items that have no recent receipt to infer one from.
+ */
+@Entity
+@Table(name = "purchase_requisitions", indexes = {
+  @Index(name = "idx_purchase_requisitions_lab_status", columnList = "lab_id, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurchaseRequisition {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "supplier_id", updatable = false)
+  private Supplier supplier;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  @Builder.Default
+  private Status status = Status.DRAFT;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  public void prePersist() {
+    createdAt = LocalDateTime.now();
+  }
+
+  public enum Status {
+    DRAFT
+  }
+}
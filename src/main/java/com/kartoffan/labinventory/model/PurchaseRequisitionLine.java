@@ -0,0 +1,42 @@
+package com.kartoffan.labinventory.model;
+
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantity of one item on a purchase requisition, with the balance it was
+ * computed from
+ */
+@Entity
+@Table(name = "purchase_requisition_lines", indexes = {
+  @Index(name = "idx_purchase_requisition_lines_requisition", columnList = "requisition_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PurchaseRequisitionLine {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "requisition_id", nullable = false, updatable = false)
+  private PurchaseRequisition requisition;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @Column(name = "balance", nullable = false)
+  private Double balance;
+
+  @Column(name = "quantity", nullable = false)
+  private Double quantity;
+}
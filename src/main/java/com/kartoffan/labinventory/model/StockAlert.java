@@ -0,0 +1,77 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Active stock alert of an item in a lab. At most one row exists per item and
+ * lab, holding the most severe level the balance currently breaches; the row
+ * is removed once the balance recovers.
+ */
+@Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Table(name = "stock_alerts", uniqueConstraints = {
+  @UniqueConstraint(columnNames = {"item_id", "lab_id"})
+}, indexes = {
+  @Index(name = "idx_stock_alerts_lab_level", columnList = "lab_id, level")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockAlert {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "level", nullable = false, length = 20)
+  private Level level;
+
+  @Column(name = "quantity", nullable = false)
+  private Double quantity;
+
+  @Column(name = "raised_at", nullable = false, updatable = false)
+  private LocalDateTime raisedAt;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  public void prePersist() {
+    raisedAt = LocalDateTime.now();
+    updatedAt = raisedAt;
+  }
+
+  @PreUpdate
+  public void preUpdate() {
+    updatedAt = LocalDateTime.now();
+  }
+
+  /**
+   * Alert levels, most severe first
+   */
+  public enum Level {
+    OUT_OF_STOCK,
+    BELOW_MINIMUM,
+    REORDER,
+    LOW_STOCK
+  }
+}
@@ -0,0 +1,51 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized running balance of an item within a lab.
+ * Kept in sync with the stock movement ledger on every write so that
+ * balance reads never have to re-aggregate the movement history.
+ */
+@Entity
+@Table(name = "stock_balances", uniqueConstraints = {
+  @UniqueConstraint(columnNames = {"item_id", "lab_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBalance {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @Column(name = "quantity", nullable = false)
+  @Builder.Default
+  private Double quantity = 0.0;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  public void touch() {
+    updatedAt = LocalDateTime.now();
+  }
+}
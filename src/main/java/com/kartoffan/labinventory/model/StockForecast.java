@@ -0,0 +1,71 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Consumption model of an item within a lab, folded forward on every issue
+ * so that forecasts never have to read the OUT movements back. Issues are
+ * bucketed per day: the open day accumulates until a later day is recorded,
+ * then enters the exponentially weighted daily rate and variance.
+ */
+@Entity
+@Table(name = "stock_forecasts", uniqueConstraints = {
+  @UniqueConstraint(columnNames = {"item_id", "lab_id"})
+}, indexes = {
+  @Index(name = "idx_stock_forecasts_lab", columnList = "lab_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockForecast {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @Column(name = "daily_rate", nullable = false)
+  @Builder.Default
+  private Double dailyRate = 0.0;
+
+  @Column(name = "daily_variance", nullable = false)
+  @Builder.Default
+  private Double dailyVariance = 0.0;
+
+  /** Total weight of the days folded in so far, below 1 while history is short */
+  @Column(name = "weight", nullable = false)
+  @Builder.Default
+  private Double weight = 0.0;
+
+  @Column(name = "open_day")
+  private LocalDate openDay;
+
+  @Column(name = "open_day_quantity", nullable = false)
+  @Builder.Default
+  private Double openDayQuantity = 0.0;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  public void touch() {
+    updatedAt = LocalDateTime.now();
+  }
+}
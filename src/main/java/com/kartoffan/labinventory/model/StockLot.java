@@ -0,0 +1,60 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Open quantity of one batch of an item within a lab. Only stock received
+ * with a batch number or an expiration date is tracked in lots; a lot is
+ * removed once it is used up, so the FEFO index only ever holds open lots.
+ */
+@Entity
+@Table(name = "stock_lots", uniqueConstraints = {
+  @UniqueConstraint(columnNames = {"item_id", "lab_id", "batch_number", "expiration_date"})
+}, indexes = {
+  @Index(name = "idx_stock_lots_fefo", columnList = "item_id, lab_id, expiration_date, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLot {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @Column(name = "batch_number", updatable = false)
+  private String batchNumber;
+
+  @Column(name = "expiration_date", updatable = false)
+  private LocalDate expirationDate;
+
+  @Column(name = "quantity", nullable = false)
+  @Builder.Default
+  private Double quantity = 0.0;
+
+  @Column(name = "updated_at")
+  private LocalDateTime updatedAt;
+
+  @PrePersist
+  @PreUpdate
+  public void touch() {
+    updatedAt = LocalDateTime.now();
+  }
+}
@@ -4,6 +4,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,7 +13,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "stock_movements")
+@EntityListeners(CacheInvalidationListener.class)
+@Table(name = "stock_movements", indexes = {
+  @Index(name = "idx_stock_movements_lab_timestamp", columnList = "lab_id, timestamp, id"),
+  @Index(name = "idx_stock_movements_item_timestamp", columnList = "item_id, timestamp, id"),
+  @Index(name = "idx_stock_movements_transfer", columnList = "transfer_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -49,6 +56,9 @@ public class StockMovement {
 
   private String reference;
 
+  @Column(name = "transfer_id", updatable = false)
+  private UUID transferId; // shared by the TRANSFER_OUT and TRANSFER_IN rows of one transfer
+
   @Column(name = "reason", nullable = false, length = 500)
   private String reason;
 
@@ -64,7 +74,7 @@ public class StockMovement {
     IN, // Stock added (delivery, purchase)
     OUT, // Stock consumed / removed
     ADJUST, // Manual adjustment (inventory recount, correction)
-    TRANSFER_IN,
-    TRANSFER_OUT
+    TRANSFER_IN, // Received from another lab, linked to its TRANSFER_OUT by transferId
+    TRANSFER_OUT // Sent to another lab
   }
 }
@@ -0,0 +1,56 @@
+package com.kartoffan.labinventory.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Checkpoint of an item's quantity in a lab at a point in time. Quantities as
+ * of any later instant are derived from the nearest prior snapshot plus the
+ * movements recorded after it.
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+  @Index(name = "idx_stock_snapshots_item_lab_as_of", columnList = "item_id, lab_id, as_of"),
+  @Index(name = "idx_stock_snapshots_as_of", columnList = "as_of")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  @Column(name = "id", updatable = false, nullable = false)
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false, updatable = false)
+  private Item item;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lab_id", nullable = false, updatable = false)
+  private Lab lab;
+
+  @Column(name = "quantity", nullable = false)
+  private Double quantity;
+
+  @Column(name = "as_of", nullable = false, updatable = false)
+  private LocalDateTime asOf;
+
+  @Column(name = "last_movement_id")
+  private UUID lastMovementId; // newest ledger movement covered by the snapshot run
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  public void prePersist() {
+    createdAt = LocalDateTime.now();
+  }
+}
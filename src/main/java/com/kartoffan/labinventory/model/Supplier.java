@@ -4,6 +4,12 @@ import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+import com.kartoffan.labinventory.config.HibernateCacheConfig;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -11,6 +17,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.SUPPLIERS)
 @Table(name = "suppliers", uniqueConstraints = {
   @UniqueConstraint(columnNames = "name")
 })
@@ -3,12 +3,22 @@ package com.kartoffan.labinventory.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationListener;
+import com.kartoffan.labinventory.config.HibernateCacheConfig;
 import com.kartoffan.labinventory.security.role.Role;
 
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
+@NaturalIdCache(region = HibernateCacheConfig.USER_NATURAL_IDS)
 @Table(name = "users", uniqueConstraints = {
   @UniqueConstraint(columnNames = "email")
 })
@@ -28,6 +38,7 @@ public class User {
   @Column(name = "last_name", nullable = false, length = 100)
   private String lastName;
 
+  @NaturalId
   @Column(name = "email", nullable = false, unique = true)
   private String email;
 
@@ -0,0 +1,119 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.model.CategoryClosure;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * The statements below are native because they insert from a select. Each
+ * declares the closure table as the only table it touches, otherwise Hibernate
+ * would empty the whole second-level cache after running it.
+ */
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+  boolean existsByAncestorIdAndDescendantId(UUID ancestorId, UUID descendantId);
+
+  /**
+   * Locks the category rows of a subtree, in primary key order. Two moves
+   * that could close a cycle together both lock a category of the other's
+   * subtree, so the second waits and then sees the first one's closure.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("""
+      SELECT c.id FROM Category c
+      WHERE c.id IN (
+        SELECT cc.descendantId FROM CategoryClosure cc WHERE cc.ancestorId = :categoryId)
+      ORDER BY c.id
+  """)
+  List<UUID> lockSubtree(UUID categoryId);
+
+  /**
+   * Adds a new leaf category below the given parent, which may be null
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_closure"))
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT CAST(:categoryId AS uuid), CAST(:categoryId AS uuid), 0
+      UNION ALL
+      SELECT ancestor_id, CAST(:categoryId AS uuid), depth + 1
+      FROM category_closure
+      WHERE descendant_id = :parentId
+  """)
+  int insertLeaf(UUID categoryId, UUID parentId);
+
+  /**
+   * Cuts the subtree of a category loose from all of its former ancestors
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_closure"))
+  @Query(nativeQuery = true, value = """
+      DELETE FROM category_closure
+      WHERE descendant_id IN (
+        SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId)
+      AND ancestor_id NOT IN (
+        SELECT descendant_id FROM category_closure WHERE ancestor_id = :categoryId)
+  """)
+  int detachSubtree(UUID categoryId);
+
+  /**
+   * Links every node of a detached subtree to the new parent and all of its
+   * ancestors, in one statement whatever the size of the subtree
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_closure"))
+  @Query(nativeQuery = true, value = """
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1
+      FROM category_closure above
+      CROSS JOIN category_closure below
+      WHERE above.descendant_id = :parentId
+      AND below.ancestor_id = :categoryId
+  """)
+  int attachSubtree(UUID categoryId, UUID parentId);
+
+  @Query(nativeQuery = true, value = """
+      SELECT COUNT(*) FROM categories c
+      WHERE NOT EXISTS (
+        SELECT 1 FROM category_closure cc
+        WHERE cc.ancestor_id = c.id AND cc.descendant_id = c.id)
+  """)
+  long countMissing();
+
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_closure"))
+  @Query(nativeQuery = true, value = "DELETE FROM category_closure")
+  int deleteAllRows();
+
+  /**
+   * Derives the whole closure from the parent links of the categories
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "category_closure"))
+  @Query(nativeQuery = true, value = """
+      WITH RECURSIVE tree (ancestor_id, descendant_id, depth) AS (
+        SELECT id, id, 0 FROM categories
+        UNION ALL
+        SELECT c.parent_category_id, tree.descendant_id, tree.depth + 1
+        FROM tree
+        JOIN categories c ON c.id = tree.ancestor_id
+        WHERE c.parent_category_id IS NOT NULL
+      )
+      INSERT INTO category_closure (ancestor_id, descendant_id, depth)
+      SELECT ancestor_id, descendant_id, depth FROM tree
+  """)
+  int insertFromParentLinks();
+}
@@ -15,9 +15,16 @@ import com.kartoffan.labinventory.model.Category;
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
   boolean existsByName(String name);
 
-  Optional<Category> findByIdAndIsActiveTrue(UUID categoryId);
+  /**
+   * Resolved by primary key, a cached category costs no query
+   */
+  default Optional<Category> findByIdAndIsActiveTrue(UUID categoryId) {
+    return findById(categoryId).filter(Category::getIsActive);
+  }
 
-  Optional<Category> findByIdAndIsActiveFalse(UUID categoryId);
+  default Optional<Category> findByIdAndIsActiveFalse(UUID categoryId) {
+    return findById(categoryId).filter(found -> !found.getIsActive());
+  }
 
   @Query("""
       SELECT c FROM Category c
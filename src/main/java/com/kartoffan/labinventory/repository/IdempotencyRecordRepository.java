@@ -0,0 +1,38 @@
+package com.kartoffan.labinventory.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.model.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+  Optional<IdempotencyRecord> findByPrincipalAndIdempotencyKey(String principal, String idempotencyKey);
+
+  @Modifying
+  @Query("""
+      UPDATE IdempotencyRecord r
+      SET r.responseStatus = :status, r.responseContentType = :contentType, r.responseBody = :body
+      WHERE r.id = :id AND r.responseStatus IS NULL
+      """)
+  int complete(UUID id, int status, String contentType, String body);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.responseStatus IS NULL")
+  int deleteClaim(UUID id);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id")
+  int deleteRecord(UUID id);
+
+  @Modifying
+  @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+  int deleteAllExpired(LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.Item;
+
+public interface ItemNaturalIdRepository {
+
+  /**
+   * Looks an item up by its natural id, the name together with the lab,
+   * through the second-level natural-id cache
+   */
+  Optional<Item> findByNaturalId(String name, UUID labId);
+}
@@ -0,0 +1,29 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+class ItemNaturalIdRepositoryImpl implements ItemNaturalIdRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Item> findByNaturalId(String name, UUID labId) {
+    Session session = entityManager.unwrap(Session.class);
+    return session.byNaturalId(Item.class)
+        .using("name", name)
+        .using("lab", session.getReference(Lab.class, labId))
+        .loadOptional();
+  }
+}
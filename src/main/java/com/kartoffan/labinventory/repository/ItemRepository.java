@@ -10,11 +10,22 @@ import org.springframework.stereotype.Repository;
 import com.kartoffan.labinventory.model.Item;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, UUID>, JpaSpecificationExecutor<Item> {
+public interface ItemRepository
+    extends JpaRepository<Item, UUID>, JpaSpecificationExecutor<Item>, ItemNaturalIdRepository {
   
-  boolean existsByNameAndLabId(String name, UUID labId);
+  default boolean existsByNameAndLabId(String name, UUID labId) {
+    return findByNaturalId(name, labId).isPresent();
+  }
 
-  Optional<Item> findByIdAndIsActiveTrue(UUID itemId);
+  /**
+   * Goes through {@link #findById} rather than a query, so the second-level
+   * cache can answer it
+   */
+  default Optional<Item> findByIdAndIsActiveTrue(UUID itemId) {
+    return findById(itemId).filter(Item::getIsActive);
+  }
 
-  Optional<Item> findByIdAndIsActiveFalse(UUID itemId);
+  default Optional<Item> findByIdAndIsActiveFalse(UUID itemId) {
+    return findById(itemId).filter(found -> !found.getIsActive());
+  }
 }
@@ -1,24 +1,45 @@
 package com.kartoffan.labinventory.repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.kartoffan.labinventory.model.Lab;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface LabRepository extends JpaRepository<Lab, UUID> {
   
   boolean existsByNameAndLocationAndIsActiveTrue(String name, String location);
 
-  Optional<Lab> findByIdAndIsActiveTrue(UUID labId);
+  /**
+   * Resolved by primary key, a cached lab costs no query
+   */
+  default Optional<Lab> findByIdAndIsActiveTrue(UUID labId) {
+    return findById(labId).filter(Lab::getIsActive);
+  }
+
+  default Optional<Lab> findByIdAndIsActiveFalse(UUID labId) {
+    return findById(labId).filter(found -> !found.getIsActive());
+  }
+
+  @Query("SELECT l.id FROM Lab l WHERE l.isActive = true")
+  List<UUID> findActiveIds();
 
-  Optional<Lab> findByIdAndIsActiveFalse(UUID labId);
+  /**
+   * Locks a lab row, serializing work that replaces per-lab data across nodes
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT l FROM Lab l WHERE l.id = :labId")
+  Optional<Lab> findByIdForUpdate(UUID labId);
 
   @Query("""
       SELECT l FROM Lab l
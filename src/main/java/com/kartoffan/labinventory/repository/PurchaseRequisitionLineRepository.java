@@ -0,0 +1,40 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.model.PurchaseRequisition.Status;
+import com.kartoffan.labinventory.model.PurchaseRequisitionLine;
+
+@Repository
+public interface PurchaseRequisitionLineRepository extends JpaRepository<PurchaseRequisitionLine, UUID> {
+
+    /**
+     * Retrieves the lines of the requisitions of a lab in a status, together
+     * with their requisition, supplier and item, in a single query.
+     */
+    @Query("""
+        SELECT l FROM PurchaseRequisitionLine l
+        JOIN FETCH l.requisition r
+        LEFT JOIN FETCH r.supplier
+        JOIN FETCH l.item i
+        WHERE r.lab.id = :labId AND r.status = :status
+        ORDER BY r.id, i.name
+        """)
+    List<PurchaseRequisitionLine> findAllByLabIdAndStatus(UUID labId, Status status);
+
+    @Modifying
+    @Query("""
+        DELETE FROM PurchaseRequisitionLine l
+        WHERE l.requisition.id IN (
+            SELECT r.id FROM PurchaseRequisition r
+            WHERE r.lab.id = :labId AND r.status = :status
+        )
+        """)
+    int deleteByLabIdAndStatus(UUID labId, Status status);
+}
@@ -0,0 +1,28 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.model.PurchaseRequisition;
+import com.kartoffan.labinventory.model.PurchaseRequisition.Status;
+
+@Repository
+public interface PurchaseRequisitionRepository extends JpaRepository<PurchaseRequisition, UUID> {
+
+    /**
+     * Deletes the requisitions of a lab in a status. Their lines have to be
+     * deleted first.
+     *
+     * @return The number of requisitions deleted.
+     */
+    @Modifying
+    @Query("""
+        DELETE FROM PurchaseRequisition r
+        WHERE r.lab.id = :labId AND r.status = :status
+        """)
+    int deleteByLabIdAndStatus(UUID labId, Status status);
+}
@@ -0,0 +1,33 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.dto.stockAlert.ActiveStockAlert;
+import com.kartoffan.labinventory.model.StockAlert;
+
+@Repository
+public interface StockAlertRepository extends JpaRepository<StockAlert, UUID> {
+
+    Optional<StockAlert> findByItemIdAndLabId(UUID itemId, UUID labId);
+
+    List<StockAlert> findAllByItemId(UUID itemId);
+
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockAlert.ActiveStockAlert(a.id, a.item.id, a.lab.id, a.level)
+        FROM StockAlert a
+        """)
+    List<ActiveStockAlert> findAllActive();
+
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockAlert.ActiveStockAlert(a.id, a.item.id, a.lab.id, a.level)
+        FROM StockAlert a
+        WHERE a.id = :alertId
+        """)
+    Optional<ActiveStockAlert> findActiveById(UUID alertId);
+}
@@ -0,0 +1,174 @@
+package com.kartoffan.labinventory.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.dto.purchaseRequisition.ReplenishmentNeed;
+import com.kartoffan.labinventory.dto.stock.StockQuantity;
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.model.StockBalance;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface StockBalanceRepository extends JpaRepository<StockBalance, UUID> {
+
+    Optional<StockBalance> findByItemIdAndLabId(UUID itemId, UUID labId);
+
+    @Query("SELECT b FROM StockBalance b JOIN FETCH b.item")
+    List<StockBalance> findAllWithItems();
+
+    /**
+     * Retrieves the balance of every item held in a lab together with the item
+     * details and thresholds, in a single query.
+     * * @param labId The unique identifier of the lab.
+     *
+     * @return One typed projection per item with a balance in the lab.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stock.StockQuantity(
+            i.id, i.name, b.quantity, i.unit,
+            i.lowStockThreshold, i.reorderLevel, i.minQuantity, i.maxQuantity
+        )
+        FROM StockBalance b
+        JOIN b.item i
+        WHERE b.lab.id = :labId
+        """)
+    List<StockQuantity> findItemQuantitiesByLab(UUID labId);
+
+    /**
+     * Retrieves the quantity of every balance row, without loading the rows into
+     * the persistence context where a later locking read would find them stale.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockBalance.LedgerBalance(b.item.id, b.lab.id, b.quantity)
+        FROM StockBalance b
+        """)
+    List<LedgerBalance> findAllQuantities();
+
+    /**
+     * Retrieves every active item of a lab whose balance is at or below its
+     * reorder level and short of its maximum quantity, in a single query.
+     * Items without a reorder level or a maximum quantity are never reordered.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.purchaseRequisition.ReplenishmentNeed(
+            i.id, b.quantity, i.maxQuantity
+        )
+        FROM StockBalance b
+        JOIN b.item i
+        WHERE b.lab.id = :labId
+        AND i.isActive = true
+        AND b.quantity <= i.reorderLevel
+        AND b.quantity < i.maxQuantity
+        """)
+    List<ReplenishmentNeed> findReplenishmentNeeds(UUID labId);
+
+    /**
+     * Retrieves the id of every balance row of the given items in the given
+     * labs, without loading the rows into the persistence context where a
+     * later locking read would find them stale. The item and lab sets span
+     * more pairs than a caller usually needs; the rows are only read, so
+     * callers narrow them down before locking.
+     *
+     * @return A list of Object arrays where [0] is the balance UUID, [1] the
+     *         item UUID and [2] the lab UUID.
+     */
+    @Query("""
+        SELECT b.id, b.item.id, b.lab.id FROM StockBalance b
+        WHERE b.item.id IN :itemIds AND b.lab.id IN :labIds
+        """)
+    List<Object[]> findKeysByItemIdsAndLabIds(Collection<UUID> itemIds, Collection<UUID> labIds);
+
+    /**
+     * Locks the balance of an item in a lab, so that concurrent alert
+     * evaluations of it run one after the other on the latest quantity.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT b FROM StockBalance b
+        WHERE b.item.id = :itemId AND b.lab.id = :labId
+        """)
+    Optional<StockBalance> findByItemIdAndLabIdForUpdate(UUID itemId, UUID labId);
+
+    /**
+     * Locks every balance of an item, in primary key order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT b FROM StockBalance b
+        WHERE b.item.id = :itemId
+        ORDER BY b.id
+        """)
+    List<StockBalance> findAllByItemIdForUpdate(UUID itemId);
+
+    /**
+     * Locks the given balance rows. Rows are locked in primary key order so
+     * that overlapping batches cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT b FROM StockBalance b
+        WHERE b.id IN :ids
+        ORDER BY b.id
+        """)
+    List<StockBalance> findAllByIdsForUpdate(Collection<UUID> ids);
+
+    /**
+     * Atomically adds a signed quantity to a balance row. The row lock taken by
+     * the UPDATE is held only until the surrounding transaction commits.
+     *
+     * @return The number of rows updated, 0 if the balance row does not exist yet.
+     */
+    @Modifying
+    @Query("""
+        UPDATE StockBalance b
+        SET b.quantity = b.quantity + :delta, b.updatedAt = :now
+        WHERE b.item.id = :itemId AND b.lab.id = :labId
+        """)
+    int increment(UUID itemId, UUID labId, double delta, LocalDateTime now);
+
+    /**
+     * Atomically decrements a balance row only if it holds at least the requested
+     * quantity. Concurrent callers serialize on the row lock and re-evaluate the
+     * condition against the committed value, so the balance can never go negative.
+     *
+     * @return 1 if the quantity was reserved, 0 if stock was insufficient.
+     */
+    @Modifying
+    @Query("""
+        UPDATE StockBalance b
+        SET b.quantity = b.quantity - :quantity, b.updatedAt = :now
+        WHERE b.item.id = :itemId AND b.lab.id = :labId
+        AND b.quantity >= :quantity
+        """)
+    int decrementIfAvailable(UUID itemId, UUID labId, double quantity, LocalDateTime now);
+
+    /**
+     * Inserts an empty balance row unless one exists. Runs in the caller's
+     * transaction: a concurrent insert of the same row makes it wait for that
+     * transaction and then do nothing, so no second connection is needed.
+     *
+     * @return 1 if the row was inserted, 0 if it already existed.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "stock_balances"))
+    @Query(nativeQuery = true, value = """
+        INSERT INTO stock_balances (id, item_id, lab_id, quantity, updated_at)
+        VALUES (:id, :itemId, :labId, 0, :now)
+        ON CONFLICT DO NOTHING
+        """)
+    int insertIfAbsent(UUID id, UUID itemId, UUID labId, LocalDateTime now);
+}
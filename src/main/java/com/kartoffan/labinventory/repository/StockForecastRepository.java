@@ -0,0 +1,51 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.dto.stockForecast.StockConsumption;
+import com.kartoffan.labinventory.model.StockForecast;
+
+@Repository
+public interface StockForecastRepository extends JpaRepository<StockForecast, UUID> {
+
+    Optional<StockForecast> findByItemIdAndLabId(UUID itemId, UUID labId);
+
+    /**
+     * Retrieves the balance of an item in a lab together with its consumption
+     * model, if any, in a single query.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockForecast.StockConsumption(
+            i.id, i.name, i.unit, b.quantity,
+            f.dailyRate, f.dailyVariance, f.weight, f.openDay, f.openDayQuantity
+        )
+        FROM StockBalance b
+        JOIN b.item i
+        LEFT JOIN StockForecast f ON f.item.id = i.id AND f.lab.id = b.lab.id
+        WHERE i.id = :itemId AND b.lab.id = :labId
+        """)
+    Optional<StockConsumption> findConsumption(UUID itemId, UUID labId);
+
+    /**
+     * Retrieves the balance and consumption model of every item ever issued in
+     * a lab, in a single query. Items never issued cannot run out and are left
+     * out.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockForecast.StockConsumption(
+            i.id, i.name, i.unit, b.quantity,
+            f.dailyRate, f.dailyVariance, f.weight, f.openDay, f.openDayQuantity
+        )
+        FROM StockForecast f
+        JOIN f.item i
+        JOIN StockBalance b ON b.item.id = f.item.id AND b.lab.id = f.lab.id
+        WHERE f.lab.id = :labId
+        """)
+    List<StockConsumption> findConsumptionsByLab(UUID labId);
+}
@@ -0,0 +1,53 @@
+package com.kartoffan.labinventory.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
+import com.kartoffan.labinventory.model.StockLot;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface StockLotRepository extends JpaRepository<StockLot, UUID> {
+
+    Optional<StockLot> findByItemIdAndLabIdAndBatchNumberAndExpirationDate(
+        UUID itemId, UUID labId, String batchNumber, LocalDate expirationDate);
+
+    /**
+     * Locks the open lots of an item in a lab that expire first, in the order of
+     * idx_stock_lots_fefo. Lots without an expiration date come last.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT l FROM StockLot l
+        WHERE l.item.id = :itemId AND l.lab.id = :labId
+        ORDER BY l.expirationDate ASC NULLS LAST, l.id
+        """)
+    List<StockLot> findFirstExpiringForUpdate(UUID itemId, UUID labId, Pageable pageable);
+
+    @Query("""
+        SELECT COALESCE(SUM(l.quantity), 0.0)
+        FROM StockLot l
+        WHERE l.item.id = :itemId AND l.lab.id = :labId
+        """)
+    double sumQuantity(UUID itemId, UUID labId);
+
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockLot.StockLotQuantity(
+            l.batchNumber, l.expirationDate, l.quantity
+        )
+        FROM StockLot l
+        WHERE l.item.id = :itemId AND l.lab.id = :labId
+        ORDER BY l.expirationDate ASC NULLS LAST, l.id
+        """)
+    List<StockLotQuantity> findQuantities(UUID itemId, UUID labId);
+}
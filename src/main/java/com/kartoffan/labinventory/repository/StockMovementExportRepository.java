@@ -0,0 +1,21 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.model.StockMovement;
+
+public interface StockMovementExportRepository {
+
+    /**
+     * Opens a forward-only stream of export rows matching the specification, in
+     * chronological order. Must be consumed and closed inside a transaction.
+     * * @param spec      The filter to apply.
+     * * @param fetchSize The number of rows the driver fetches per round trip.
+     *
+     * @return A lazily populated stream of rows.
+     */
+    Stream<StockMovementExportRow> streamForExport(Specification<StockMovement> spec, int fetchSize);
+}
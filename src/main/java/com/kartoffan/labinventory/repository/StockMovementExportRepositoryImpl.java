@@ -0,0 +1,60 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.Supplier;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class StockMovementExportRepositoryImpl implements StockMovementExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<StockMovementExportRow> streamForExport(Specification<StockMovement> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StockMovementExportRow> query = cb.createQuery(StockMovementExportRow.class);
+        Root<StockMovement> root = query.from(StockMovement.class);
+        Join<StockMovement, Item> item = root.join("item");
+        Join<StockMovement, Supplier> supplier = root.join("supplier", JoinType.LEFT);
+
+        query.select(cb.construct(StockMovementExportRow.class,
+            root.get("id"),
+            root.get("timestamp"),
+            root.get("type"),
+            root.get("quantity"),
+            item.get("id"),
+            item.get("name"),
+            root.get("lab").get("id"),
+            root.get("performedBy").get("id"),
+            supplier.get("id"),
+            root.get("batchNumber"),
+            root.get("expirationDate"),
+            root.get("reference"),
+            root.get("reason")));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("timestamp")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .getResultStream();
+    }
+}
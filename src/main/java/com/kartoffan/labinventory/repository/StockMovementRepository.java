@@ -1,102 +1,159 @@
 package com.kartoffan.labinventory.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.dto.purchaseRequisition.SupplierReceipts;
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
 import com.kartoffan.labinventory.model.StockMovement;
 
 @Repository
-public interface StockMovementRepository extends JpaRepository<StockMovement, UUID>, JpaSpecificationExecutor<StockMovement> {
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID>, JpaSpecificationExecutor<StockMovement>,
+    StockMovementExportRepository {
 
     /**
      * Calculates the current total quantity of a specific item within a specific
-     * lab.
+     * lab. Quantities are stored signed, so every movement type, transfers
+     * included, is summed as is.
      * * @param itemId The unique identifier of the item
      * * @param labId  The unique identifier of the lab.
      *
      * @return The aggregated quantity, or 0 if no movements are found.
      */
     @Query("""
-        SELECT COALESCE(SUM(
-            CASE
-                WHEN sm.type = 'IN' THEN sm.quantity
-                WHEN sm.type = 'OUT' THEN sm.quantity
-                WHEN sm.type = 'ADJUST' THEN sm.quantity
-            END
-        ), 0)
+        SELECT COALESCE(SUM(sm.quantity), 0)
         FROM StockMovement sm
         WHERE sm.item.id = :itemId AND sm.lab.id = :labId
         """)
     double getCurrentQuantityByLab(UUID itemId, UUID labId);
-    
+
     /**
-     * Retrieves stock levels for all items currently or previously held in a
-     * specific lab.
+     * Counts the receipts of every item in a lab per active supplier since a
+     * point in time, in a single query over the lab's recent movements.
      * * @param labId The unique identifier of the lab.
+     * * @param since Start of the window, inclusive.
      *
-     * @return A list of Object arrays where [0] is the Item UUID and [1] is the
-     *         Double quantity.
+     * @return One row per (item, supplier) with the receipt count and the
+     *         time of the latest receipt.
      */
     @Query("""
-        SELECT sm.item.id, COALESCE(SUM(
-            CASE
-                WHEN sm.type = 'IN' THEN sm.quantity
-                WHEN sm.type = 'OUT' THEN sm.quantity
-                WHEN sm.type = 'ADJUST' THEN sm.quantity
-            END
-        ), 0)
+        SELECT new com.kartoffan.labinventory.dto.purchaseRequisition.SupplierReceipts(
+            sm.item.id, s.id, COUNT(sm), MAX(sm.timestamp)
+        )
         FROM StockMovement sm
+        JOIN sm.supplier s
         WHERE sm.lab.id = :labId
-        GROUP BY sm.item.id
+        AND sm.type = com.kartoffan.labinventory.model.StockMovement.MovementType.IN
+        AND sm.timestamp >= :since
+        AND s.isActive = true
+        GROUP BY sm.item.id, s.id
         """)
-    List<Object[]> getAllItemQuantitiesByLab(UUID labId);
-
+    List<SupplierReceipts> findSupplierReceiptsByLab(UUID labId, LocalDateTime since);
+    
     /**
-     * Identifies items that are at or below their specific 'lowStockThreshold'.
-     * * @param labId The lab to check.
+     * Aggregates the full movement ledger per item and lab. Used to rebuild and
+     * verify the materialized balances in {@code stock_balances}.
      *
-     * @return List of Items requiring replenishment.
+     * @return One entry per (item, lab) pair that has at least one movement.
      */
     @Query("""
-                SELECT i FROM Item i
-                JOIN StockMovement sm ON sm.item.id = i.id
-                WHERE sm.lab.id = :labId
-                GROUP BY i.id
-                HAVING COALESCE(SUM(
-                    CASE
-                        WHEN sm.type = 'IN' THEN sm.quantity
-                        WHEN sm.type = 'OUT' THEN sm.quantity
-                        WHEN sm.type = 'ADJUST' THEN sm.quantity
-                    END
-                ), 0) <= i.lowStockThreshold
-                """)
-    List<Item> findLowStockItemsByLab(UUID labId);
+        SELECT new com.kartoffan.labinventory.dto.stockBalance.LedgerBalance(
+            sm.item.id, sm.lab.id, SUM(sm.quantity)
+        )
+        FROM StockMovement sm
+        GROUP BY sm.item.id, sm.lab.id
+        """)
+    List<LedgerBalance> sumQuantitiesByItemAndLab();
 
     /**
-     * Identifies items that have reached zero or negative stock levels.
-     * * @param labId The lab to check.
-     *
-     * @return List of Items that are currently unavailable.
+     * Aggregates the movement ledger per item and lab up to and including the
+     * given instant.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockBalance.LedgerBalance(
+            sm.item.id, sm.lab.id, SUM(sm.quantity)
+        )
+        FROM StockMovement sm
+        WHERE sm.timestamp <= :to
+        GROUP BY sm.item.id, sm.lab.id
+        """)
+    List<LedgerBalance> sumQuantitiesByItemAndLabUpTo(LocalDateTime to);
+
+    /**
+     * Aggregates the movements per item and lab recorded after {@code from} and up
+     * to and including {@code to}.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockBalance.LedgerBalance(
+            sm.item.id, sm.lab.id, SUM(sm.quantity)
+        )
+        FROM StockMovement sm
+        WHERE sm.timestamp > :from AND sm.timestamp <= :to
+        GROUP BY sm.item.id, sm.lab.id
+        """)
+    List<LedgerBalance> sumQuantitiesByItemAndLabBetween(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Aggregates the movements per item and lab recorded after the given instant.
+     */
+    @Query("""
+        SELECT new com.kartoffan.labinventory.dto.stockBalance.LedgerBalance(
+            sm.item.id, sm.lab.id, SUM(sm.quantity)
+        )
+        FROM StockMovement sm
+        WHERE sm.timestamp > :from
+        GROUP BY sm.item.id, sm.lab.id
+        """)
+    List<LedgerBalance> sumQuantitiesByItemAndLabSince(LocalDateTime from);
+
+    /**
+     * Sums the movements of an item in a lab up to and including the given instant.
+     */
+    @Query("""
+        SELECT COALESCE(SUM(sm.quantity), 0)
+        FROM StockMovement sm
+        WHERE sm.item.id = :itemId AND sm.lab.id = :labId
+        AND sm.timestamp <= :to
+        """)
+    double sumQuantityUpTo(UUID itemId, UUID labId, LocalDateTime to);
+
+    /**
+     * Sums the movements of an item in a lab recorded after {@code from} and up to
+     * and including {@code to}.
      */
     @Query("""
-        SELECT i FROM Item i
-        JOIN StockMovement sm ON sm.item.id = i.id
+        SELECT COALESCE(SUM(sm.quantity), 0)
+        FROM StockMovement sm
+        WHERE sm.item.id = :itemId AND sm.lab.id = :labId
+        AND sm.timestamp > :from AND sm.timestamp <= :to
+        """)
+    double sumQuantityBetween(UUID itemId, UUID labId, LocalDateTime from, LocalDateTime to);
+
+    Optional<StockMovement> findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(LocalDateTime timestamp);
+
+    /**
+     * Retrieves the movements of a lab recorded since a point in time, oldest
+     * first, leaving out one the caller already has. Used to replay what a
+     * stream subscriber may have missed.
+     */
+    @Query("""
+        SELECT sm FROM StockMovement sm
         WHERE sm.lab.id = :labId
-        GROUP BY i.id
-        HAVING COALESCE(SUM(
-            CASE
-                WHEN sm.type = 'IN' THEN sm.quantity
-                WHEN sm.type = 'OUT' THEN sm.quantity
-                WHEN sm.type = 'ADJUST' THEN sm.quantity
-            END
-        ), 0) <= 0
+        AND sm.timestamp >= :since
+        AND sm.id <> :excludedId
+        ORDER BY sm.timestamp, sm.id
         """)
-    List<Item> findOutOfStockItemsByLab(UUID labId);
-        
+    List<StockMovement> findAllByLabSince(UUID labId, LocalDateTime since, UUID excludedId, Pageable pageable);
+
+    Optional<StockMovement> findFirstByLabIdOrderByTimestampDescIdDesc(UUID labId);
+
+    List<StockMovement> findAllByTransferId(UUID transferId);
 }
@@ -0,0 +1,47 @@
+package com.kartoffan.labinventory.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.kartoffan.labinventory.model.StockSnapshot;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, UUID> {
+
+    /**
+     * Finds the most recent snapshot of an item in a lab taken at or before the
+     * given instant.
+     */
+    Optional<StockSnapshot> findFirstByItemIdAndLabIdAndAsOfLessThanEqualOrderByAsOfDesc(
+        UUID itemId, UUID labId, LocalDateTime asOf);
+
+    @Query("SELECT MAX(s.asOf) FROM StockSnapshot s")
+    Optional<LocalDateTime> findLatestAsOf();
+
+    List<StockSnapshot> findAllByAsOf(LocalDateTime asOf);
+
+    /**
+     * Shifts every snapshot of an item in a lab taken at or after the given
+     * instant, used when a movement is removed from the ledger retroactively.
+     *
+     * @return The number of snapshots adjusted.
+     */
+    @Modifying
+    @Query("""
+        UPDATE StockSnapshot s
+        SET s.quantity = s.quantity + :delta
+        WHERE s.item.id = :itemId AND s.lab.id = :labId AND s.asOf >= :from
+        """)
+    int shiftFrom(UUID itemId, UUID labId, LocalDateTime from, double delta);
+
+    @Modifying
+    @Query("DELETE FROM StockSnapshot s WHERE s.asOf < :cutoff")
+    int deleteAllTakenBefore(LocalDateTime cutoff);
+}
@@ -15,9 +15,13 @@ import com.kartoffan.labinventory.model.Supplier;
 public interface SupplierRepository extends JpaRepository<Supplier, UUID> {
   boolean existsByNameIgnoreCase(String name);
 
-  Optional<Supplier> findByIdAndIsActiveTrue(UUID supplierId);
+  default Optional<Supplier> findByIdAndIsActiveTrue(UUID supplierId) {
+    return findById(supplierId).filter(Supplier::getIsActive);
+  }
 
-  Optional<Supplier> findByIdAndIsActiveFalse(UUID supplierId);
+  default Optional<Supplier> findByIdAndIsActiveFalse(UUID supplierId) {
+    return findById(supplierId).filter(found -> !found.getIsActive());
+  }
 
   @Query("""
       SELECT s FROM Supplier s
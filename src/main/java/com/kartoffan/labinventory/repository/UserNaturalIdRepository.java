@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.repository;
+
+import java.util.Optional;
+
+import com.kartoffan.labinventory.model.User;
+
+public interface UserNaturalIdRepository {
+
+  /**
+   * Looks a user up by email, active or not, through the second-level
+   * natural-id cache
+   */
+  Optional<User> findByNaturalId(String email);
+}
@@ -10,15 +10,25 @@ import com.kartoffan.labinventory.model.User;
 import com.kartoffan.labinventory.security.role.Role;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserNaturalIdRepository {
   
-  Optional<User> findByIdAndIsActiveTrue(UUID userId);
-
-  Optional<User> findByEmailAndIsActiveTrue(String email);
+  /**
+   * Lookups by id and by email resolve through the second-level cache
+   * instead of running a query
+   */
+  default Optional<User> findByIdAndIsActiveTrue(UUID userId) {
+    return findById(userId).filter(User::getIsActive);
+  }
+
+  default Optional<User> findByEmailAndIsActiveTrue(String email) {
+    return findByNaturalId(email).filter(User::getIsActive);
+  }
 
   Optional<User> findByIdAndRole(UUID userId, Role role);
 
-  boolean existsByEmail(String email);
+  default boolean existsByEmail(String email) {
+    return findByNaturalId(email).isPresent();
+  }
 
   boolean existsByRole(Role role);
 }
@@ -1,10 +1,16 @@
 package com.kartoffan.labinventory.repository.spec;
 
+import java.util.UUID;
+
 import org.springframework.data.jpa.domain.Specification;
 
 import com.kartoffan.labinventory.dto.item.ItemFilter;
+import com.kartoffan.labinventory.model.CategoryClosure;
 import com.kartoffan.labinventory.model.Item;
 
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
 public final class ItemSpecifications {
   
   public static Specification<Item> fromFilter(ItemFilter filter) {
@@ -16,7 +22,9 @@ public final class ItemSpecifications {
     if (filter.getLabId() != null)
       spec = spec.and((root, query, criteria) -> criteria.equal(root.get("lab").get("id"), filter.getLabId()));
 
-    if (filter.getCategoryId() != null)
+    if (filter.getCategoryId() != null && Boolean.TRUE.equals(filter.getIncludeDescendants()))
+      spec = spec.and(inCategorySubtree(filter.getCategoryId()));
+    else if (filter.getCategoryId() != null)
       spec = spec.and((root, query, criteria) -> criteria.equal(root.get("category").get("id"), filter.getCategoryId()));
 
     if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
@@ -28,4 +36,18 @@ public final class ItemSpecifications {
     
     return spec;
   }
+
+  /**
+   * Items of the category or any category below it, resolved against the
+   * closure table's primary key in one semi-join
+   */
+  private static Specification<Item> inCategorySubtree(UUID categoryId) {
+    return (root, query, criteria) -> {
+      Subquery<UUID> subtree = query.subquery(UUID.class);
+      Root<CategoryClosure> closure = subtree.from(CategoryClosure.class);
+      subtree.select(closure.get("descendantId"))
+          .where(criteria.equal(closure.get("ancestorId"), categoryId));
+      return root.get("category").get("id").in(subtree);
+    };
+  }
 }
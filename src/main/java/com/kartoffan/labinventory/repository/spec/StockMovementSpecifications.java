@@ -1,7 +1,10 @@
 package com.kartoffan.labinventory.repository.spec;
 
+import java.time.LocalDateTime;
+
 import org.springframework.data.jpa.domain.Specification;
 
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementCursor;
 import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
 import com.kartoffan.labinventory.model.StockMovement;
 
@@ -28,13 +31,38 @@ public final class StockMovementSpecifications {
     }
 
     if (filter.getFrom() != null) {
-      spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getFrom()));
+      spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), filter.getFrom()));
     }
 
     if (filter.getTo() != null) {
-      spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("createdAt"), filter.getTo()));
+      spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("timestamp"), filter.getTo()));
     }
 
     return spec;
   }
+
+  /**
+   * Keyset predicate selecting movements strictly after the cursor in
+   * (timestamp DESC, id DESC) order. The redundant upper bound on the timestamp
+   * lets PostgreSQL prune the monthly partitions newer than the cursor.
+   */
+  public static Specification<StockMovement> after(StockMovementCursor cursor) {
+    return (root, query, cb) -> cb.and(
+        cb.lessThanOrEqualTo(root.get("timestamp"), cursor.timestamp()),
+        cb.or(
+            cb.lessThan(root.get("timestamp"), cursor.timestamp()),
+            cb.and(
+                cb.equal(root.get("timestamp"), cursor.timestamp()),
+                cb.lessThan(root.get("id"), cursor.id()))));
+  }
+
+  /**
+   * Movements recorded in the half-open range [from, to), matching the bounds
+   * of a monthly partition
+   */
+  public static Specification<StockMovement> recordedBetween(LocalDateTime from, LocalDateTime to) {
+    return (root, query, cb) -> cb.and(
+        cb.greaterThanOrEqualTo(root.get("timestamp"), from),
+        cb.lessThan(root.get("timestamp"), to));
+  }
 }
@@ -0,0 +1,122 @@
+package com.kartoffan.labinventory.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt on a small dedicated pool so a burst of logins cannot take every
+ * request thread's CPU. The pool's queue is bounded; once it is full, or a hash
+ * waits too long, callers get a 503 with a Retry-After instead of piling up.
+ */
+@Component
+public class PasswordHasher {
+
+  public static final String EXECUTOR_NAME = "password-hashing";
+  public static final String HASH_TIMER = "app.password.hash";
+  public static final String REJECTED_COUNTER = "app.password.hash.rejected";
+
+  private final BCryptPasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final Duration timeout;
+  private final Duration retryAfter;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+
+  public PasswordHasher(
+      BCryptPasswordEncoder passwordEncoder,
+      @Value("${app.security.hashing.threads:0}") int threads,
+      @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+      @Value("${app.security.hashing.timeout:5s}") Duration timeout,
+      @Value("${app.security.hashing.retry-after:2s}") Duration retryAfter,
+      MeterRegistry meterRegistry) {
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    AtomicInteger sequence = new AtomicInteger();
+
+    this.passwordEncoder = passwordEncoder;
+    this.timeout = timeout;
+    this.retryAfter = retryAfter;
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          Thread thread = new Thread(runnable, EXECUTOR_NAME + "-" + sequence.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+    this.encodeTimer = Timer.builder(HASH_TIMER).tag("operation", "encode").register(meterRegistry);
+    this.matchesTimer = Timer.builder(HASH_TIMER).tag("operation", "matches").register(meterRegistry);
+    this.rejected = Counter.builder(REJECTED_COUNTER).register(meterRegistry);
+  }
+
+  /**
+   * Hashes a raw password on the hashing pool
+   */
+  public String encode(CharSequence rawPassword) {
+    return submit(() -> encodeTimer.recordCallable(() -> passwordEncoder.encode(rawPassword)));
+  }
+
+  /**
+   * Checks a raw password against a stored hash on the hashing pool
+   */
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(() -> matchesTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> T submit(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (RejectedExecutionException exception) {
+      throw overloaded();
+    }
+
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException exception) {
+      future.cancel(true);
+      throw overloaded();
+    } catch (InterruptedException exception) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw overloaded();
+    } catch (ExecutionException exception) {
+      if (exception.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(exception.getCause());
+    }
+  }
+
+  private ServiceUnavailableException overloaded() {
+    rejected.increment();
+    return new ServiceUnavailableException("Too many authentication requests, try again shortly", retryAfter);
+  }
+}
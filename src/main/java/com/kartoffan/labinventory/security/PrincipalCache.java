@@ -0,0 +1,92 @@
+package com.kartoffan.labinventory.security;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.model.User;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by JWT subject.
+ * Spares the authentication filter a user lookup on every request. Entries are
+ * evicted whenever a user's role or active flag changes, on this node or another,
+ * and the TTL bounds how long any other change can go unnoticed.
+ */
+@Component
+public class PrincipalCache {
+
+  public static final String CACHE_NAME = "principals";
+
+  private final AsyncCache<String, UserDetailsImpl> cache;
+
+  public PrincipalCache(
+      @Value("${app.security.principal-cache.ttl:60s}") Duration ttl,
+      @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(maxSize)
+        .recordStats()
+        .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+  }
+
+  /**
+   * Returns the cached principal for a subject, loading it on a miss. Only a
+   * pending future is created under the cache's compute lock; the loader runs
+   * afterwards on the calling thread, so a virtual thread is not pinned for the
+   * user query. Concurrent misses wait for the same load, and an eviction while
+   * it runs drops the pending entry so its possibly stale result is not cached.
+   */
+  public UserDetailsImpl get(String subject, Function<String, UserDetailsImpl> loader) {
+    CompletableFuture<UserDetailsImpl> loading = new CompletableFuture<>();
+    CompletableFuture<UserDetailsImpl> cached = cache.get(subject, (key, executor) -> loading);
+    if (cached != loading) {
+      return cached.join();
+    }
+
+    try {
+      UserDetailsImpl loaded = loader.apply(subject);
+      loading.complete(loaded);
+      return loaded;
+    } catch (RuntimeException exception) {
+      loading.completeExceptionally(exception);
+      throw exception;
+    }
+  }
+
+  /**
+   * Drops the cached principal for a subject
+   */
+  public void evict(String subject) {
+    cache.synchronous().invalidate(subject);
+  }
+
+  /**
+   * Drops every cached principal
+   */
+  public void evictAll() {
+    cache.synchronous().invalidateAll();
+  }
+
+  /**
+   * Drops every cached principal when another node changed a user. Entries are
+   * keyed by email, which the invalidation does not carry.
+   */
+  @EventListener
+  public void onInvalidation(EntityInvalidation invalidation) {
+    if (invalidation.isFor(User.class)) {
+      evictAll();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.kartoffan.labinventory.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,7 +14,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.kartoffan.labinventory.security.jwt.JwtAuthenticationEntryPoint;
 import com.kartoffan.labinventory.security.jwt.JwtAuthenticationFilter;
+import com.kartoffan.labinventory.security.role.Authority;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -31,7 +34,10 @@ public class SecurityConfig {
         .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
         .authorizeHttpRequests(auth -> auth
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers("/api/v1/auth/**").permitAll()
+            .requestMatchers("/actuator/health").permitAll()
+            .requestMatchers("/actuator/**").hasAuthority(Authority.METRICS_READ.name())
             .requestMatchers(
                 "/swagger-ui/**",
                 "/v3/api-docs/**",
@@ -46,8 +52,8 @@ public class SecurityConfig {
   }
   
   @Bean
-  public BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public BCryptPasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+    return new BCryptPasswordEncoder(strength);
   }
 
   @Bean
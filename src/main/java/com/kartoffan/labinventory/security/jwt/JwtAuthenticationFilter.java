@@ -7,8 +7,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.kartoffan.labinventory.security.CustomUserDetailsService;
+import com.kartoffan.labinventory.security.PrincipalCache;
 import com.kartoffan.labinventory.security.UserDetailsImpl;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -17,6 +19,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
@@ -26,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
   
   private final JwtUtil jwtUtil;
   private final CustomUserDetailsService userDetailsService;
+  private final PrincipalCache principalCache;
 
   @Override
   protected void doFilterInternal(
@@ -38,11 +42,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
       try {
-        String email = jwtUtil.getUserIdFromJwt(token);
-        UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(email);
+        Optional<Claims> claims = jwtUtil.parseValidClaims(token);
 
+        if (claims.isPresent()) {
+          UserDetailsImpl userDetails = principalCache.get(claims.get().getSubject(),
+              email -> (UserDetailsImpl) userDetailsService.loadUserByUsername(email));
 
-        if (jwtUtil.validateToken(token)) {
           UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
               userDetails,
               null,
@@ -3,11 +3,14 @@ package com.kartoffan.labinventory.security.jwt;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -24,9 +27,12 @@ public class JwtUtil {
 
   private Key key;
 
+  private JwtParser parser;
+
   @PostConstruct
   public void init() {
       key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+      parser = Jwts.parserBuilder().setSigningKey(key).build();
   }
 
   public String generateToken(String userId) {
@@ -39,16 +45,22 @@ public class JwtUtil {
   }
 
   public String getUserIdFromJwt(String token) {
-    return Jwts.parserBuilder().setSigningKey(key).build()
-        .parseClaimsJws(token).getBody().getSubject();
+    return parser.parseClaimsJws(token).getBody().getSubject();
   }
 
   public boolean validateToken(String token) {
+    return parseValidClaims(token).isPresent();
+  }
+
+  /**
+   * Verifies the token and returns its claims in a single parse, or empty if
+   * the token is malformed, expired or carries an invalid signature.
+   */
+  public Optional<Claims> parseValidClaims(String token) {
     try {
-      Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-      return true;
+      return Optional.of(parser.parseClaimsJws(token).getBody());
     } catch (JwtException | IllegalArgumentException exception) {
-      return false;
+      return Optional.empty();
     }
   }
 }
@@ -18,5 +18,7 @@ public enum Authority {
   USER_WRITE,
       
   SUPPLIER_READ,
-  SUPPLIER_WRITE
+  SUPPLIER_WRITE,
+
+  METRICS_READ
 }
@@ -15,7 +15,8 @@ public enum Role {
     Authority.USER_READ,
     Authority.USER_WRITE,
     Authority.SUPPLIER_READ,
-    Authority.SUPPLIER_WRITE
+    Authority.SUPPLIER_WRITE,
+    Authority.METRICS_READ
   )),
       
   LAB_ADMIN(Set.of(
@@ -4,7 +4,6 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.kartoffan.labinventory.dto.auth.*;
@@ -13,6 +12,7 @@ import com.kartoffan.labinventory.exception.ResourceAlreadyExistsException;
 import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.model.User;
 import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.PasswordHasher;
 import com.kartoffan.labinventory.security.jwt.JwtUtil;
 import com.kartoffan.labinventory.security.role.Role;
 
@@ -25,7 +25,7 @@ public class AuthServiceImpl implements AuthService {
   private final String ACCESS_TOKEN_COOKIE = "ACCESS_TOKEN";
   
   private final UserRepository userRepository;
-  private final BCryptPasswordEncoder passwordEncoder;
+  private final PasswordHasher passwordHasher;
   private final JwtUtil jwtUtil;
 
   /**
@@ -36,7 +36,7 @@ public class AuthServiceImpl implements AuthService {
     User user = userRepository.findByEmailAndIsActiveTrue(loginRequest.getEmail())
         .orElseThrow(() -> new InvalidCredentialsException("Invalid credentials"));
 
-    if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash())) {
+    if (!passwordHasher.matches(loginRequest.getPassword(), user.getPasswordHash())) {
       throw new InvalidCredentialsException("Invalid credentials");
     }
 
@@ -64,7 +64,7 @@ public class AuthServiceImpl implements AuthService {
         .firstName(request.getFirstName())
         .lastName(request.getLastName())
         .email(request.getEmail())
-        .passwordHash(passwordEncoder.encode(request.getPassword()))
+        .passwordHash(passwordHasher.encode(request.getPassword()))
         .role(userRole)
         .isActive(true)
         .build();
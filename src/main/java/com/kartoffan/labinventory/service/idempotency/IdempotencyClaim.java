@@ -0,0 +1,18 @@
+package com.kartoffan.labinventory.service.idempotency;
+
+import com.kartoffan.labinventory.model.IdempotencyRecord;
+
+/**
+ * Result of claiming an idempotency key: either the caller now owns the key
+ * and runs the request, or the record of the earlier request holding it
+ */
+public record IdempotencyClaim(IdempotencyRecord record, boolean acquired) {
+
+  public static IdempotencyClaim acquired(IdempotencyRecord record) {
+    return new IdempotencyClaim(record, true);
+  }
+
+  public static IdempotencyClaim existing(IdempotencyRecord record) {
+    return new IdempotencyClaim(record, false);
+  }
+}
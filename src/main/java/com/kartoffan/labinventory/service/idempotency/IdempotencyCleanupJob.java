@@ -0,0 +1,27 @@
+package com.kartoffan.labinventory.service.idempotency;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes idempotency keys past {@code app.idempotency.ttl}, which keeps the
+ * table bounded by the write volume of one retention window
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCleanupJob {
+
+  private final IdempotencyService idempotencyService;
+
+  @Scheduled(cron = "${app.idempotency.cleanup-cron:0 0 * * * *}")
+  public void run() {
+    int deleted = idempotencyService.purgeExpired();
+    if (deleted > 0) {
+      log.info("Deleted {} expired idempotency keys", deleted);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.kartoffan.labinventory.service.idempotency;
+
+import com.kartoffan.labinventory.model.IdempotencyRecord;
+
+public interface IdempotencyService {
+
+  /**
+   * Claims a key for a request, or returns the earlier request holding it
+   */
+  IdempotencyClaim claim(String principal, String idempotencyKey, String requestHash);
+
+  /**
+   * Stores the response of a claimed request for replay
+   */
+  void complete(IdempotencyRecord claim, int status, String contentType, String body);
+
+  /**
+   * Gives up a claimed key so the request can be sent again
+   */
+  void release(IdempotencyRecord claim);
+
+  /**
+   * Deletes the keys past their retention, returns how many were removed
+   */
+  int purgeExpired();
+}
@@ -0,0 +1,148 @@
+package com.kartoffan.labinventory.service.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kartoffan.labinventory.model.IdempotencyRecord;
+import com.kartoffan.labinventory.repository.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps idempotency keys in the database, where the unique key on principal
+ * and key decides which of several concurrent duplicates runs. Completed
+ * records are also kept in a bounded local cache, so a retry seen by the same
+ * node is answered without a query. Each step runs in its own transaction,
+ * independent of the request's.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+  public static final String CACHE_NAME = "idempotency";
+
+  private static final int MAX_ATTEMPTS = 3;
+
+  private final IdempotencyRecordRepository idempotencyRecordRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Cache<String, IdempotencyRecord> completed;
+  private final Duration ttl;
+  private final Duration claimTimeout;
+
+  public IdempotencyServiceImpl(
+      IdempotencyRecordRepository idempotencyRecordRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.idempotency.ttl:24h}") Duration ttl,
+      @Value("${app.idempotency.claim-timeout:5m}") Duration claimTimeout,
+      @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+      MeterRegistry meterRegistry) {
+    this.idempotencyRecordRepository = idempotencyRecordRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.ttl = ttl;
+    this.claimTimeout = claimTimeout;
+    this.completed = Caffeine.newBuilder()
+        .expireAfterWrite(ttl)
+        .maximumSize(cacheSize)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, completed, CACHE_NAME);
+  }
+
+  /**
+   * Inserts the claim straight away, a single statement when the key is new.
+   * On a conflict the existing record is returned, unless it expired or its
+   * request never finished within the claim timeout, in which case it is
+   * removed and the claim retried.
+   */
+  @Override
+  public IdempotencyClaim claim(String principal, String idempotencyKey, String requestHash) {
+    IdempotencyRecord cached = completed.getIfPresent(cacheKey(principal, idempotencyKey));
+    if (cached != null) {
+      return IdempotencyClaim.existing(cached);
+    }
+
+    IdempotencyRecord existing = null;
+    for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+      LocalDateTime now = LocalDateTime.now();
+      try {
+        IdempotencyRecord claim = transactionTemplate.execute(status ->
+            idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                .principal(principal)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .createdAt(now)
+                .expiresAt(now.plus(ttl))
+                .build()));
+        return IdempotencyClaim.acquired(claim);
+      } catch (DataIntegrityViolationException exception) {
+        // The key is taken, by a finished request or one still running
+      }
+
+      Optional<IdempotencyRecord> found =
+          idempotencyRecordRepository.findByPrincipalAndIdempotencyKey(principal, idempotencyKey);
+      if (found.isEmpty()) {
+        // Released in the meantime
+        continue;
+      }
+
+      existing = found.get();
+      boolean expired = existing.getExpiresAt().isBefore(now);
+      boolean abandoned = !existing.isCompleted() && existing.getCreatedAt().isBefore(now.minus(claimTimeout));
+      if (!expired && !abandoned) {
+        if (existing.isCompleted()) {
+          completed.put(cacheKey(principal, idempotencyKey), existing);
+        }
+        return IdempotencyClaim.existing(existing);
+      }
+
+      UUID staleId = existing.getId();
+      transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteRecord(staleId));
+    }
+
+    // Keeps losing to concurrent claims, report the key as still in use
+    return IdempotencyClaim.existing(existing != null ? existing : IdempotencyRecord.builder()
+        .principal(principal)
+        .idempotencyKey(idempotencyKey)
+        .requestHash(requestHash)
+        .build());
+  }
+
+  @Override
+  public void complete(IdempotencyRecord claim, int status, String contentType, String body) {
+    transactionTemplate.executeWithoutResult(transaction ->
+        idempotencyRecordRepository.complete(claim.getId(), status, contentType, body));
+
+    claim.setResponseStatus(status);
+    claim.setResponseContentType(contentType);
+    claim.setResponseBody(body);
+    completed.put(cacheKey(claim.getPrincipal(), claim.getIdempotencyKey()), claim);
+  }
+
+  @Override
+  public void release(IdempotencyRecord claim) {
+    transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteClaim(claim.getId()));
+  }
+
+  @Override
+  public int purgeExpired() {
+    Integer deleted = transactionTemplate.execute(status ->
+        idempotencyRecordRepository.deleteAllExpired(LocalDateTime.now()));
+    return deleted != null ? deleted : 0;
+  }
+
+  private static String cacheKey(String principal, String idempotencyKey) {
+    return principal + '\u0000' + idempotencyKey;
+  }
+}
@@ -0,0 +1,23 @@
+package com.kartoffan.labinventory.service.item;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.Item;
+
+/**
+ * Ranked fuzzy lookup of active items by name or code. Selected with the
+ * {@code app.item-search.engine} property.
+ */
+public interface ItemSearchEngine {
+
+  /**
+   * Returns the ids of the best matching active items, most similar first
+   */
+  List<UUID> search(String query, UUID labId, int limit);
+
+  /**
+   * Makes the latest state of an item visible to subsequent searches
+   */
+  void index(Item item);
+}
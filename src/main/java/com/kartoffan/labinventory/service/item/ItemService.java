@@ -1,5 +1,7 @@
 package com.kartoffan.labinventory.service.item;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -18,6 +20,10 @@ public interface ItemService {
 
   Item getById(UUID itemId);
 
+  List<Item> getAllByIds(Collection<UUID> itemIds);
+
+  List<Item> search(String query, UUID labId, int limit);
+
   Item update(UUID itemId, UpdateItemRequest request);
 
   void archive(UUID itemId);
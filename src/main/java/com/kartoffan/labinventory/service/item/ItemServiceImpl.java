@@ -1,13 +1,21 @@
 package com.kartoffan.labinventory.service.item;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.kartoffan.labinventory.dto.item.*;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.ResourceAlreadyExistsException;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.Category;
@@ -17,6 +25,7 @@ import com.kartoffan.labinventory.repository.ItemRepository;
 import com.kartoffan.labinventory.repository.spec.ItemSpecifications;
 import com.kartoffan.labinventory.service.category.CategoryService;
 import com.kartoffan.labinventory.service.lab.LabService;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,11 +33,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+
+  private static final int MAX_SEARCH_RESULTS = 100;
   
   private final ItemRepository itemRepository;
+  private final ItemSearchEngine itemSearchEngine;
 
   private final LabService labService;
   private final CategoryService categoryService;
+  private final ApplicationEventPublisher eventPublisher;
 
   /**
    * Creates a new item in the lab
@@ -52,7 +65,9 @@ public class ItemServiceImpl implements ItemService {
         .storageCondition(request.getStorageCondition())
         .build();
 
-    return itemRepository.save(item);
+    Item saved = itemRepository.save(item);
+    itemSearchEngine.index(saved);
+    return saved;
   }
 
   /**
@@ -64,6 +79,14 @@ public class ItemServiceImpl implements ItemService {
         .orElseThrow(() -> new ResourceNotFoundException("No item found with id " + itemId));
   }
 
+  /**
+   * Fetches all items matching the given IDs in a single query
+   */
+  @Override
+  public List<Item> getAllByIds(Collection<UUID> itemIds) {
+    return itemRepository.findAllById(itemIds);
+  }
+
   /**
    * Returns a paginated list of all items with optional filtering
    */
@@ -72,6 +95,29 @@ public class ItemServiceImpl implements ItemService {
     return itemRepository.findAll(ItemSpecifications.fromFilter(filter), pageable);
   }
 
+  /**
+   * Returns the active items whose name or code best match the query, ranked by similarity
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<Item> search(String query, UUID labId, int limit) {
+    if (query == null || query.isBlank()) {
+      throw new BadRequestException("Search query must not be blank");
+    }
+    if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+      throw new BadRequestException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+    }
+
+    List<UUID> rankedIds = itemSearchEngine.search(query.trim().toLowerCase(), labId, limit);
+    Map<UUID, Item> items = itemRepository.findAllById(rankedIds).stream()
+        .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+    return rankedIds.stream()
+        .map(items::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
   /**
    * Updates an existing item's details
    */
@@ -88,6 +134,8 @@ public class ItemServiceImpl implements ItemService {
     item.setLocation(request.getLocation());
     item.setStorageCondition(request.getStorageCondition());
 
+    itemSearchEngine.index(item);
+    eventPublisher.publishEvent(StockChangedEvent.ofItem(itemId));
     return item;
   }
 
@@ -98,6 +146,8 @@ public class ItemServiceImpl implements ItemService {
   public void archive(UUID itemId) {
     Item item = this.getById(itemId);
     item.setIsActive(false);
+    itemSearchEngine.index(item);
+    eventPublisher.publishEvent(StockChangedEvent.ofItem(itemId));
   }
 
   /**
@@ -107,6 +157,8 @@ public class ItemServiceImpl implements ItemService {
   public void unarchive(UUID itemId) {
     Item item = this.getById(itemId);
     item.setIsActive(true);
+    itemSearchEngine.index(item);
+    eventPublisher.publishEvent(StockChangedEvent.ofItem(itemId));
   }
 
   private void validateUniqueItem(String name, UUID labId) {
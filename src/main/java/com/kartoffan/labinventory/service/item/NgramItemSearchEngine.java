@@ -0,0 +1,197 @@
+package com.kartoffan.labinventory.service.item;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.repository.ItemRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-process trigram index for databases without pg_trgm, such as H2 in tests.
+ * Trigrams and similarity follow pg_trgm so both engines rank alike. The index
+ * is loaded on first use and kept current by {@link #index(Item)} and by item
+ * invalidations from other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.item-search.engine", havingValue = "memory")
+public class NgramItemSearchEngine implements ItemSearchEngine {
+
+  private static final double SIMILARITY_THRESHOLD = 0.3;
+
+  private final ItemRepository itemRepository;
+
+  private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, Set<UUID>> postings = new ConcurrentHashMap<>();
+  // A lock rather than synchronized so the initial load does not pin a virtual thread's carrier
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile boolean loaded;
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<UUID> search(String query, UUID labId, int limit) {
+    ensureLoaded();
+    Set<String> queryGrams = trigrams(query);
+
+    Set<UUID> candidates = new HashSet<>();
+    for (String gram : queryGrams) {
+      candidates.addAll(postings.getOrDefault(gram, Set.of()));
+    }
+
+    return candidates.stream()
+        .map(entries::get)
+        .filter(entry -> entry != null && entry.active())
+        .filter(entry -> labId == null || labId.equals(entry.labId()))
+        .map(entry -> new Match(entry, score(entry, query, queryGrams)))
+        .filter(match -> match.score() >= SIMILARITY_THRESHOLD || match.entry().contains(query))
+        .sorted(Comparator.comparingDouble(Match::score).reversed()
+            .thenComparing(match -> match.entry().name()))
+        .limit(limit)
+        .map(match -> match.entry().id())
+        .toList();
+  }
+
+  @Override
+  public void index(Item item) {
+    if (!loaded) {
+      return;
+    }
+    put(item);
+  }
+
+  /**
+   * Re-reads an item changed on another node, or drops the index on a reset
+   */
+  @EventListener
+  public void onInvalidation(EntityInvalidation invalidation) {
+    if (!invalidation.isFor(Item.class)) {
+      return;
+    }
+    if (invalidation.isReset()) {
+      reset();
+      return;
+    }
+    if (loaded) {
+      itemRepository.findById(invalidation.id()).ifPresentOrElse(this::put, () -> remove(invalidation.id()));
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    lock.lock();
+    try {
+      if (!loaded) {
+        itemRepository.findAll().forEach(this::put);
+        loaded = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void reset() {
+    lock.lock();
+    try {
+      loaded = false;
+      entries.clear();
+      postings.clear();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void remove(UUID itemId) {
+    lock.lock();
+    try {
+      Entry previous = entries.remove(itemId);
+      if (previous != null) {
+        previous.grams().forEach(gram -> postings.computeIfPresent(gram, (key, ids) -> {
+          ids.remove(itemId);
+          return ids.isEmpty() ? null : ids;
+        }));
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void put(Item item) {
+    String name = item.getName().toLowerCase();
+    String code = item.getCode() == null ? "" : item.getCode().toLowerCase();
+    Entry entry = new Entry(item.getId(), item.getLab().getId(), item.getIsActive(),
+        name, code, trigrams(name), trigrams(code));
+
+    lock.lock();
+    try {
+      remove(item.getId());
+      entries.put(entry.id(), entry);
+      entry.grams().forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(entry.id()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static double score(Entry entry, String query, Set<String> queryGrams) {
+    return Math.max(similarity(entry.nameGrams(), queryGrams), similarity(entry.codeGrams(), queryGrams));
+  }
+
+  private static double similarity(Set<String> left, Set<String> right) {
+    if (left.isEmpty() || right.isEmpty()) {
+      return 0;
+    }
+
+    long shared = left.stream().filter(right::contains).count();
+    return (double) shared / (left.size() + right.size() - shared);
+  }
+
+  /**
+   * Splits text into alphanumeric words, pads each with two leading and one
+   * trailing space and collects its three-character windows, like pg_trgm
+   */
+  static Set<String> trigrams(String text) {
+    Set<String> grams = new HashSet<>();
+    for (String word : text.toLowerCase().split("[^\\p{Alnum}]+")) {
+      if (word.isEmpty()) {
+        continue;
+      }
+      String padded = "  " + word + " ";
+      for (int i = 0; i + 3 <= padded.length(); i++) {
+        grams.add(padded.substring(i, i + 3));
+      }
+    }
+    return grams;
+  }
+
+  private record Entry(UUID id, UUID labId, boolean active, String name, String code,
+      Set<String> nameGrams, Set<String> codeGrams) {
+
+    Set<String> grams() {
+      Set<String> grams = new HashSet<>(nameGrams);
+      grams.addAll(codeGrams);
+      return grams;
+    }
+
+    boolean contains(String query) {
+      return name.contains(query) || code.contains(query);
+    }
+  }
+
+  private record Match(Entry entry, double score) {
+  }
+}
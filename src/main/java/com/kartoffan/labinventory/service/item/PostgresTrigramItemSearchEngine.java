@@ -0,0 +1,62 @@
+package com.kartoffan.labinventory.service.item;
+
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.model.Item;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Item search backed by pg_trgm. The similarity operator and the LIKE fallback
+ * are both served by the GIN trigram indexes on lower(name) and lower(code).
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.item-search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresTrigramItemSearchEngine implements ItemSearchEngine {
+
+  private static final String SEARCH_SQL = """
+      SELECT i.id
+      FROM items i
+      WHERE i.is_active = true
+        AND (CAST(:labId AS uuid) IS NULL OR i.lab_id = CAST(:labId AS uuid))
+        AND (lower(i.name) % :query OR lower(i.code) % :query
+          OR lower(i.name) LIKE :pattern OR lower(i.code) LIKE :pattern)
+      ORDER BY GREATEST(
+          similarity(lower(i.name), :query),
+          similarity(lower(coalesce(i.code, '')), :query)) DESC,
+        i.name
+      LIMIT :limit
+      """;
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  @Override
+  public List<UUID> search(String query, UUID labId, int limit) {
+    MapSqlParameterSource params = new MapSqlParameterSource()
+        .addValue("query", query)
+        .addValue("pattern", "%" + escapeLike(query) + "%")
+        .addValue("labId", labId, Types.OTHER)
+        .addValue("limit", limit);
+
+    return jdbcTemplate.queryForList(SEARCH_SQL, params, UUID.class);
+  }
+
+  /**
+   * No-op, the database indexes are maintained by PostgreSQL itself
+   */
+  @Override
+  public void index(Item item) {
+  }
+
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -1,5 +1,7 @@
 package com.kartoffan.labinventory.service.lab;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -15,6 +17,8 @@ public interface LabService {
 
   Lab getById(UUID labId);
 
+  List<Lab> getAllByIds(Collection<UUID> labIds);
+
   Lab update(UUID labId, LabRequest request);
 
   void archive(UUID labId);
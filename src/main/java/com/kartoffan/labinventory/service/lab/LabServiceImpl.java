@@ -1,5 +1,7 @@
 package com.kartoffan.labinventory.service.lab;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -68,6 +70,16 @@ public class LabServiceImpl implements LabService {
         .orElseThrow(() -> new ResourceNotFoundException("No active lab found with id " + labId));
   }
 
+  /**
+   * Fetches all active labs matching the given IDs in a single query
+   */
+  @Override
+  public List<Lab> getAllByIds(Collection<UUID> labIds) {
+    return labRepository.findAllById(labIds).stream()
+        .filter(Lab::getIsActive)
+        .toList();
+  }
+
   /**
    * Updates an existing lab's details
    */
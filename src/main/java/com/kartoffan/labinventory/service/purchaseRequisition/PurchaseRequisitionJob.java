@@ -0,0 +1,27 @@
+package com.kartoffan.labinventory.service.purchaseRequisition;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically regenerates the draft purchase requisitions of every lab.
+ * Frequency, parallelism and the supplier lookback are configured under
+ * {@code app.replenishment}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PurchaseRequisitionJob {
+
+  private final PurchaseRequisitionService purchaseRequisitionService;
+
+  @Scheduled(cron = "${app.replenishment.cron:0 0 6 * * *}")
+  public void run() {
+    long started = System.nanoTime();
+    int drafted = purchaseRequisitionService.generateAllDrafts();
+    log.info("Purchase requisitions drafted: {} in {} ms", drafted, (System.nanoTime() - started) / 1_000_000);
+  }
+}
@@ -0,0 +1,15 @@
+package com.kartoffan.labinventory.service.purchaseRequisition;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.dto.purchaseRequisition.PurchaseRequisitionResponse;
+
+public interface PurchaseRequisitionService {
+
+  int generateAllDrafts();
+
+  List<PurchaseRequisitionResponse> generateDrafts(UUID labId);
+
+  List<PurchaseRequisitionResponse> getDrafts(UUID labId);
+}
@@ -0,0 +1,197 @@
+package com.kartoffan.labinventory.service.purchaseRequisition;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kartoffan.labinventory.dto.purchaseRequisition.PurchaseRequisitionResponse;
+import com.kartoffan.labinventory.dto.purchaseRequisition.ReplenishmentNeed;
+import com.kartoffan.labinventory.dto.purchaseRequisition.SupplierReceipts;
+import com.kartoffan.labinventory.exception.ResourceNotFoundException;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.PurchaseRequisition;
+import com.kartoffan.labinventory.model.PurchaseRequisition.Status;
+import com.kartoffan.labinventory.model.PurchaseRequisitionLine;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.PurchaseRequisitionLineRepository;
+import com.kartoffan.labinventory.repository.PurchaseRequisitionRepository;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.SupplierRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Proposes purchases for items at or below their reorder level. A lab is
+ * handled with a fixed number of set-based queries: one for the items to
+ * reorder, one for the receipts per supplier to infer each item's preferred
+ * supplier from, and batched writes for the drafts. The preferred supplier is
+ * the one that delivered the item most often within
+ * {@code app.replenishment.supplier-lookback}, the latest delivery breaking
+ * ties.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PurchaseRequisitionServiceImpl implements PurchaseRequisitionService {
+
+  private static final Comparator<SupplierReceipts> PREFERENCE = Comparator
+      .comparing(SupplierReceipts::getReceipts)
+      .thenComparing(SupplierReceipts::getLastReceivedAt);
+
+  private final PurchaseRequisitionRepository purchaseRequisitionRepository;
+  private final PurchaseRequisitionLineRepository purchaseRequisitionLineRepository;
+  private final StockBalanceRepository stockBalanceRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final ItemRepository itemRepository;
+  private final LabRepository labRepository;
+  private final SupplierRepository supplierRepository;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${app.replenishment.supplier-lookback:180d}")
+  private Duration supplierLookback = Duration.ofDays(180);
+
+  @Value("${app.replenishment.workers:4}")
+  private int workers = 4;
+
+  /**
+   * Regenerates the drafts of every active lab. Labs are independent, so
+   * each is handled by a worker of a fixed pool in a transaction of its own;
+   * a lab that fails keeps its previous drafts without affecting the others.
+   * The pool should stay below the connection pool size.
+   *
+   * @return The number of requisitions drafted.
+   */
+  @Override
+  public int generateAllDrafts() {
+    List<UUID> labIds = labRepository.findActiveIds();
+    if (labIds.isEmpty()) {
+      return 0;
+    }
+
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    List<Future<Integer>> results = new ArrayList<>(labIds.size());
+    try (ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, labIds.size())))) {
+      for (UUID labId : labIds) {
+        results.add(pool.submit(() -> {
+          try {
+            return transaction.execute(status -> generate(labId));
+          } catch (RuntimeException exception) {
+            log.warn("Replenishment of lab {} failed", labId, exception);
+            return 0;
+          }
+        }));
+      }
+    }
+    return results.stream().mapToInt(Future::resultNow).sum();
+  }
+
+  /**
+   * Regenerates the drafts of a single lab
+   */
+  @Override
+  @Transactional
+  public List<PurchaseRequisitionResponse> generateDrafts(UUID labId) {
+    requireActiveLab(labId);
+    generate(labId);
+    return getDrafts(labId);
+  }
+
+  /**
+   * Lists the draft requisitions of a lab with their lines
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<PurchaseRequisitionResponse> getDrafts(UUID labId) {
+    requireActiveLab(labId);
+    Map<UUID, List<PurchaseRequisitionLine>> linesByRequisition = new LinkedHashMap<>();
+    for (PurchaseRequisitionLine line : purchaseRequisitionLineRepository.findAllByLabIdAndStatus(labId, Status.DRAFT)) {
+      linesByRequisition.computeIfAbsent(line.getRequisition().getId(), id -> new ArrayList<>()).add(line);
+    }
+    return linesByRequisition.values().stream()
+        .map(lines -> PurchaseRequisitionResponse.fromEntity(lines.get(0).getRequisition(), lines))
+        .toList();
+  }
+
+  /**
+   * Replaces the drafts of a lab with one requisition per preferred supplier,
+   * plus one without a supplier for items never received recently. The lab
+   * row is locked first, so runs for the same lab on several nodes, or a
+   * manual run during the scheduled one, replace the drafts one after the
+   * other instead of both inserting a set.
+   */
+  private int generate(UUID labId) {
+    Optional<Lab> locked = labRepository.findByIdForUpdate(labId);
+    if (locked.isEmpty()) {
+      return 0;
+    }
+    Lab lab = locked.get();
+
+    purchaseRequisitionLineRepository.deleteByLabIdAndStatus(labId, Status.DRAFT);
+    purchaseRequisitionRepository.deleteByLabIdAndStatus(labId, Status.DRAFT);
+
+    List<ReplenishmentNeed> needs = stockBalanceRepository.findReplenishmentNeeds(labId);
+    if (needs.isEmpty()) {
+      return 0;
+    }
+    Map<UUID, UUID> preferredSuppliers = preferredSuppliers(
+        stockMovementRepository.findSupplierReceiptsByLab(labId, LocalDateTime.now().minus(supplierLookback)));
+
+    Map<UUID, PurchaseRequisition> requisitions = new HashMap<>();
+    List<PurchaseRequisitionLine> lines = new ArrayList<>(needs.size());
+    for (ReplenishmentNeed need : needs) {
+      PurchaseRequisition requisition = requisitions.computeIfAbsent(preferredSuppliers.get(need.getItemId()),
+          supplierId -> PurchaseRequisition.builder()
+              .lab(lab)
+              .supplier(supplierId != null ? supplierRepository.getReferenceById(supplierId) : null)
+              .build());
+      lines.add(PurchaseRequisitionLine.builder()
+          .requisition(requisition)
+          .item(itemRepository.getReferenceById(need.getItemId()))
+          .balance(need.getQuantity())
+          .quantity(need.getOrderQuantity())
+          .build());
+    }
+
+    purchaseRequisitionRepository.saveAll(requisitions.values());
+    purchaseRequisitionLineRepository.saveAll(lines);
+    return requisitions.size();
+  }
+
+  private static Map<UUID, UUID> preferredSuppliers(List<SupplierReceipts> receipts) {
+    Map<UUID, SupplierReceipts> preferred = new HashMap<>();
+    for (SupplierReceipts candidate : receipts) {
+      preferred.merge(candidate.getItemId(), candidate,
+          (current, other) -> PREFERENCE.compare(other, current) > 0 ? other : current);
+    }
+    Map<UUID, UUID> supplierByItem = new HashMap<>(preferred.size());
+    preferred.forEach((itemId, best) -> supplierByItem.put(itemId, best.getSupplierId()));
+    return supplierByItem;
+  }
+
+  private void requireActiveLab(UUID labId) {
+    labRepository.findByIdAndIsActiveTrue(labId)
+        .orElseThrow(() -> new ResourceNotFoundException("No active lab found with id " + labId));
+  }
+}
@@ -1,13 +1,18 @@
 package com.kartoffan.labinventory.service.stock;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import com.kartoffan.labinventory.dto.stock.StockAdjustRequest;
+import com.kartoffan.labinventory.dto.stock.StockBatchLineResult;
+import com.kartoffan.labinventory.dto.stock.StockBatchRequest;
 import com.kartoffan.labinventory.dto.stock.StockInRequest;
 import com.kartoffan.labinventory.dto.stock.StockOutRequest;
 import com.kartoffan.labinventory.dto.stock.StockQuantity;
 import com.kartoffan.labinventory.dto.stock.StockTransferRequest;
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
 import com.kartoffan.labinventory.model.Item;
 
 public interface StockService {
@@ -20,12 +25,22 @@ public interface StockService {
 
   void transferStock(StockTransferRequest request);
 
+  List<StockBatchLineResult> processBatch(StockBatchRequest request);
+
   StockQuantity getCurrentQuantityByLab(UUID itemId, UUID labId);
 
+  StockQuantity getQuantityAsOf(UUID itemId, UUID labId, LocalDateTime asOf);
+
+  List<StockLotQuantity> getLots(UUID itemId, UUID labId);
+
   List<StockQuantity> getAllItemQuantities(UUID labId);
 
   List<Item> getLowStockItems(UUID labId);
 
   List<Item> getOutOfStockItems(UUID labId);
 
+  StockForecastResponse getForecast(UUID itemId, UUID labId);
+
+  List<StockForecastResponse> getRunningOutSoonest(UUID labId, int limit);
+
 }
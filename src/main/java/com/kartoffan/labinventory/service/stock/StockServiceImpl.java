@@ -1,19 +1,47 @@
 package com.kartoffan.labinventory.service.stock;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.kartoffan.labinventory.dto.stock.*;
+import com.kartoffan.labinventory.dto.stock.StockBatchOperation.OperationType;
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
+import com.kartoffan.labinventory.dto.stockStream.StockDelta;
+import com.kartoffan.labinventory.exception.ApiException;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.*;
 import com.kartoffan.labinventory.model.StockMovement.MovementType;
 import com.kartoffan.labinventory.repository.StockMovementRepository;
 import com.kartoffan.labinventory.service.item.ItemService;
 import com.kartoffan.labinventory.service.lab.LabService;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertService;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockForecast.StockForecastService;
+import com.kartoffan.labinventory.service.stockLot.StockLotAllocation;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransfer;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransferService;
+import com.kartoffan.labinventory.service.stockStream.StockMovementsRecordedEvent;
 import com.kartoffan.labinventory.service.supplier.SupplierService;
 import com.kartoffan.labinventory.service.user.UserService;
 
@@ -25,6 +53,13 @@ import lombok.RequiredArgsConstructor;
 public class StockServiceImpl implements StockService {
   
   private final StockMovementRepository stockMovementRepository;
+  private final StockBalanceService stockBalanceService;
+  private final StockLotService stockLotService;
+  private final StockTransferService stockTransferService;
+  private final StockSnapshotService stockSnapshotService;
+  private final StockAlertService stockAlertService;
+  private final StockForecastService stockForecastService;
+  private final ApplicationEventPublisher eventPublisher;
   
   private final ItemService itemService;
   private final LabService labService;
@@ -60,11 +95,18 @@ public class StockServiceImpl implements StockService {
         .build();
 
     stockMovementRepository.save(movement);
+    stockBalanceService.apply(item, lab, movement.getQuantity());
+    stockLotService.apply(item, lab, request.getBatchNumber(), request.getExpirationDate(), request.getQuantity());
+    eventPublisher.publishEvent(new StockChangedEvent(item.getId(), lab.getId()));
+    eventPublisher.publishEvent(new StockMovementsRecordedEvent(List.of(StockDelta.of(movement))));
   }
 
   /**
    * Decreases stock levels for an item
-   * Validates that sufficient stock exists before committing the movement
+   * The balance is decremented atomically before the movement is recorded,
+   * so concurrent issues from the same lab can never oversell
+   * The issue is taken from the lots first-expired-first-out and recorded as
+   * one movement per lot, then folded into the consumption forecast
    */
   @Override
   public void stockOut(StockOutRequest request) {
@@ -72,22 +114,26 @@ public class StockServiceImpl implements StockService {
     Lab lab = labService.getById(request.getLabId());
     User performedBy = userService.getById(request.getPerformedBy());
 
-    double available = getCurrentQuantityByLab(item.getId(), lab.getId()).getQuantity();
-    if (available < request.getQuantity()) {
-      throw new InsufficientStockException(item.getName());
-    }
+    stockBalanceService.withdraw(item, lab, request.getQuantity());
+    stockForecastService.record(item, lab, request.getQuantity(), LocalDate.now());
 
-    StockMovement movement = StockMovement.builder()
-        .item(item)
-        .lab(lab)
-        .type(MovementType.OUT)
-        .quantity(-request.getQuantity())
-        .reference(request.getPurpose())
-        .reason(request.getReason())
-        .performedBy(performedBy)
-        .build();
+    List<StockMovement> movements = allocate(item, lab, request.getQuantity()).stream()
+        .map(allocation -> StockMovement.builder()
+            .item(item)
+            .lab(lab)
+            .type(MovementType.OUT)
+            .quantity(-allocation.quantity())
+            .batchNumber(allocation.batchNumber())
+            .expirationDate(allocation.expirationDate())
+            .reference(request.getPurpose())
+            .reason(request.getReason())
+            .performedBy(performedBy)
+            .build())
+        .toList();
 
-    stockMovementRepository.save(movement);
+    stockMovementRepository.saveAll(movements);
+    eventPublisher.publishEvent(new StockChangedEvent(item.getId(), lab.getId()));
+    eventPublisher.publishEvent(new StockMovementsRecordedEvent(movements.stream().map(StockDelta::of).toList()));
   }
 
   /**
@@ -109,89 +155,342 @@ public class StockServiceImpl implements StockService {
         .build();
 
     stockMovementRepository.save(movement);
+    stockBalanceService.apply(item, lab, movement.getQuantity());
+    if (movement.getQuantity() < 0) {
+      stockLotService.trim(item, lab, stockBalanceService.getQuantity(item.getId(), lab.getId()));
+    }
+    eventPublisher.publishEvent(new StockChangedEvent(item.getId(), lab.getId()));
+    eventPublisher.publishEvent(new StockMovementsRecordedEvent(List.of(StockDelta.of(movement))));
   }
 
   /**
    * Transfers stock from one lab to another
+   * Every entity is resolved once and the transfer is recorded as a linked
+   * TRANSFER_OUT/TRANSFER_IN pair, see {@link StockTransferService}
    */
   @Override
   public void transferStock(StockTransferRequest request) {
-    stockOut(
-      new StockOutRequest(
-        request.getItemId(),
-        request.getFromLabId(),
-        request.getQuantity(),
-        "Transfer to lab " + request.getToLabId(),
-        request.getReason(),
-        request.getPerformedBy()
-      )
-    );
-
-    stockIn(
-      new StockInRequest(
-        request.getItemId(),
-        request.getToLabId(),
+    stockTransferService.transfer(new StockTransfer(
+        itemService.getById(request.getItemId()),
+        labService.getById(request.getFromLabId()),
+        labService.getById(request.getToLabId()),
         request.getQuantity(),
-        null,
         request.getBatchNumber(),
         request.getExpirationDate(),
-        "Transfer from lab " + request.getFromLabId(),
         request.getReason(),
-        request.getPerformedBy()
-      )
-    );
+        userService.getById(request.getPerformedBy())));
   }
   
   /**
-   * Calculates the current balance for a specific item in a specific lab
+   * Applies a list of stock operations in a single transaction
+   * Referenced entities are resolved with one query per type, the affected
+   * balances are locked once, and all movements are written as a JDBC batch
+   * Invalid lines are rejected individually without affecting the others
+   */
+  @Override
+  public List<StockBatchLineResult> processBatch(StockBatchRequest request) {
+    List<StockBatchOperation> operations = request.getOperations();
+
+    Set<UUID> labIds = collectIds(operations, StockBatchOperation::getLabId);
+    labIds.addAll(collectIds(operations, StockBatchOperation::getToLabId));
+
+    Map<UUID, Item> items = indexById(
+        itemService.getAllByIds(collectIds(operations, StockBatchOperation::getItemId)), Item::getId);
+    Map<UUID, Lab> labs = indexById(labService.getAllByIds(labIds), Lab::getId);
+
+    BatchContext context = new BatchContext(
+        items,
+        labs,
+        indexById(userService.getAllByIds(collectIds(operations, StockBatchOperation::getPerformedBy)), User::getId),
+        indexById(supplierService.getAllByIds(collectIds(operations, StockBatchOperation::getSupplierId)), Supplier::getId),
+        lockBatchBalances(operations, items, labs));
+
+    StockBatchLineResult[] results = new StockBatchLineResult[operations.size()];
+    List<List<StockMovement>> applied = new ArrayList<>(operations.size());
+    List<StockMovement> movements = new ArrayList<>();
+
+    for (int i = 0; i < operations.size(); i++) {
+      try {
+        List<StockMovement> lineMovements = toMovements(operations.get(i), context);
+        movements.addAll(lineMovements);
+        applied.add(lineMovements);
+      } catch (ApiException | InsufficientStockException exception) {
+        results[i] = StockBatchLineResult.rejected(i, exception.getMessage());
+        applied.add(List.of());
+      }
+    }
+
+    stockMovementRepository.saveAll(movements);
+    movements.stream()
+        .map(movement -> new StockChangedEvent(movement.getItem().getId(), movement.getLab().getId()))
+        .distinct()
+        .forEach(eventPublisher::publishEvent);
+    if (!movements.isEmpty()) {
+      eventPublisher.publishEvent(new StockMovementsRecordedEvent(movements.stream().map(StockDelta::of).toList()));
+    }
+
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = StockBatchLineResult.applied(i, applied.get(i).stream().map(StockMovement::getId).toList());
+      }
+    }
+    return List.of(results);
+  }
+
+  /**
+   * Reads the current balance for a specific item in a specific lab
    */
   @Override
   public StockQuantity getCurrentQuantityByLab(UUID itemId, UUID labId) {
     Item item = itemService.getById(itemId);
-    double quantity = stockMovementRepository.getCurrentQuantityByLab(itemId, labId);
+    double quantity = stockBalanceService.getQuantity(itemId, labId);
+    return toStockQuantity(item, quantity);
+  }
+
+  /**
+   * Retrieves the quantity of an item in a lab at a point in time
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public StockQuantity getQuantityAsOf(UUID itemId, UUID labId, LocalDateTime asOf) {
+    Item item = itemService.getById(itemId);
+    double quantity = stockSnapshotService.getQuantityAsOf(itemId, labId, asOf);
+    return toStockQuantity(item, quantity);
+  }
+
+  private static StockQuantity toStockQuantity(Item item, double quantity) {
     return StockQuantity.builder()
-        .itemId(itemId)
+        .itemId(item.getId())
         .itemName(item.getName())
         .quantity(quantity)
+        .unit(item.getUnit())
+        .lowStockThreshold(item.getLowStockThreshold())
+        .reorderLevel(item.getReorderLevel())
+        .minQuantity(item.getMinQuantity())
+        .maxQuantity(item.getMaxQuantity())
         .build();
   }
 
+  /**
+   * Lists the open lots of an item in a lab, first to expire first
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockLotQuantity> getLots(UUID itemId, UUID labId) {
+    itemService.getById(itemId);
+    return stockLotService.getLots(itemId, labId);
+  }
+
   /**
    * Retrieves a list of all item quantities for a specific lab
    */
   @Override
   public List<StockQuantity> getAllItemQuantities(UUID labId) {
-    List<Object[]> results = stockMovementRepository.getAllItemQuantitiesByLab(labId);
-    List<StockQuantity> quantities = new ArrayList<>();
-
-    for (Object[] row : results) {
-      Item item = itemService.getById((UUID) row[0]);
-      StockQuantity quantity = StockQuantity.builder()
-          .itemId((UUID) row[0])
-          .itemName(item.getName())
-          .quantity(((Double) row[1]).doubleValue())
-          .build();
-      quantities.add(quantity);
-    }
-    return quantities;
+    return stockBalanceService.getItemQuantities(labId);
   }
   
   /**
-   * Identifies items whose stock levels have fallen below their defined minimum
-   * threshold
+   * Identifies items whose stock levels have fallen below their low stock
+   * threshold, reorder level or minimum quantity, from the active alerts
    */
   @Override
   public List<Item> getLowStockItems(UUID labId) {
     labService.getById(labId);
-    return stockMovementRepository.findLowStockItemsByLab(labId);
+    return itemService.getAllByIds(stockAlertService.getLowStockItemIds(labId));
   }
 
   /**
-   * Identifies items that have a balance of zero or less in the specified lab
+   * Identifies items that have a balance of zero or less in the specified lab,
+   * from the active alerts
    */
   @Override
   public List<Item> getOutOfStockItems(UUID labId) {
     labService.getById(labId);
-    return stockMovementRepository.findOutOfStockItemsByLab(labId);
+    return itemService.getAllByIds(stockAlertService.getOutOfStockItemIds(labId));
   }
+
+  /**
+   * Forecasts the daily consumption of an item in a lab and the days until
+   * its stock runs out
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public StockForecastResponse getForecast(UUID itemId, UUID labId) {
+    Item item = itemService.getById(itemId);
+    labService.getById(labId);
+    return stockForecastService.getForecast(item, labId);
+  }
+
+  /**
+   * Lists the items of a lab that run out soonest at their current consumption
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockForecastResponse> getRunningOutSoonest(UUID labId, int limit) {
+    labService.getById(labId);
+    return stockForecastService.getRunningOutSoonest(labId, limit);
+  }
+
+  private Map<StockBalanceKey, StockBalance> lockBatchBalances(
+      List<StockBatchOperation> operations,
+      Map<UUID, Item> items,
+      Map<UUID, Lab> labs
+  ) {
+    Set<StockBalanceKey> touched = new HashSet<>();
+    Set<StockBalanceKey> deposits = new HashSet<>();
+
+    for (StockBatchOperation operation : operations) {
+      if (!items.containsKey(operation.getItemId()) || !labs.containsKey(operation.getLabId())) {
+        continue;
+      }
+      StockBalanceKey source = new StockBalanceKey(operation.getItemId(), operation.getLabId());
+      touched.add(source);
+
+      if (operation.getType() == OperationType.TRANSFER && labs.containsKey(operation.getToLabId())) {
+        StockBalanceKey destination = new StockBalanceKey(operation.getItemId(), operation.getToLabId());
+        touched.add(destination);
+        deposits.add(destination);
+      } else if (operation.getType() == OperationType.IN || operation.getType() == OperationType.ADJUST) {
+        deposits.add(source);
+      }
+    }
+
+    stockBalanceService.ensureBalances(deposits);
+    return stockBalanceService.lockBalances(touched);
+  }
+
+  private List<StockMovement> toMovements(StockBatchOperation operation, BatchContext context) {
+    Item item = require(context.items(), operation.getItemId(), "item");
+    Lab lab = require(context.labs(), operation.getLabId(), "active lab");
+    User performedBy = require(context.users(), operation.getPerformedBy(), "active user");
+    double quantity = operation.getQuantity();
+
+    if (operation.getType() != OperationType.ADJUST && quantity <= 0) {
+      throw new BadRequestException("Quantity must be positive");
+    }
+
+    return switch (operation.getType()) {
+      case IN -> {
+        Supplier supplier = operation.getSupplierId() != null
+            ? require(context.suppliers(), operation.getSupplierId(), "supplier")
+            : null;
+        deposit(context, item, lab, quantity);
+        stockLotService.apply(item, lab, operation.getBatchNumber(), operation.getExpirationDate(), quantity);
+        yield List.of(StockMovement.builder()
+            .item(item)
+            .lab(lab)
+            .type(MovementType.IN)
+            .quantity(quantity)
+            .supplier(supplier)
+            .batchNumber(operation.getBatchNumber())
+            .expirationDate(operation.getExpirationDate())
+            .reason(operation.getReason())
+            .reference(operation.getReference())
+            .performedBy(performedBy)
+            .build());
+      }
+      case OUT -> {
+        withdraw(context, item, lab, quantity);
+        stockForecastService.record(item, lab, quantity, LocalDate.now());
+        yield allocate(item, lab, quantity).stream()
+            .map(allocation -> StockMovement.builder()
+                .item(item)
+                .lab(lab)
+                .type(MovementType.OUT)
+                .quantity(-allocation.quantity())
+                .batchNumber(allocation.batchNumber())
+                .expirationDate(allocation.expirationDate())
+                .reference(operation.getReference())
+                .reason(operation.getReason())
+                .performedBy(performedBy)
+                .build())
+            .toList();
+      }
+      case ADJUST -> {
+        double balance = deposit(context, item, lab, quantity);
+        if (quantity < 0) {
+          stockLotService.trim(item, lab, balance);
+        }
+        yield List.of(StockMovement.builder()
+            .item(item)
+            .lab(lab)
+            .type(MovementType.ADJUST)
+            .quantity(quantity)
+            .reason(operation.getReason())
+            .performedBy(performedBy)
+            .build());
+      }
+      case TRANSFER -> {
+        Lab toLab = require(context.labs(), operation.getToLabId(), "destination lab");
+        if (lab.getId().equals(toLab.getId())) {
+          throw new BadRequestException("Source and destination labs must differ");
+        }
+        StockBalance source = context.balances().get(new StockBalanceKey(item.getId(), lab.getId()));
+        requireAvailable(item, source, quantity);
+        yield stockTransferService.transfer(
+            new StockTransfer(item, lab, toLab, quantity,
+                operation.getBatchNumber(), operation.getExpirationDate(), operation.getReason(), performedBy),
+            source,
+            context.balances().get(new StockBalanceKey(item.getId(), toLab.getId())));
+      }
+    };
+  }
+
+  /**
+   * Allocates an issue to the lots first-expired-first-out. The part the lots
+   * do not cover comes from stock not tracked per lot.
+   */
+  private List<StockLotAllocation> allocate(Item item, Lab lab, double quantity) {
+    return StockLotAllocation.withRemainder(stockLotService.allocate(item, lab, quantity), quantity);
+  }
+
+  private double deposit(BatchContext context, Item item, Lab lab, double quantity) {
+    StockBalance balance = context.balances().get(new StockBalanceKey(item.getId(), lab.getId()));
+    balance.setQuantity(balance.getQuantity() + quantity);
+    return balance.getQuantity();
+  }
+
+  private void withdraw(BatchContext context, Item item, Lab lab, double quantity) {
+    StockBalance balance = context.balances().get(new StockBalanceKey(item.getId(), lab.getId()));
+    requireAvailable(item, balance, quantity);
+    balance.setQuantity(balance.getQuantity() - quantity);
+  }
+
+  /**
+   * Rejects a line before it reaches another transactional service, whose
+   * exception would mark the whole batch rollback-only
+   */
+  private static void requireAvailable(Item item, StockBalance balance, double quantity) {
+    double available = balance != null ? balance.getQuantity() : 0.0;
+    if (available < quantity) {
+      throw new InsufficientStockException(item.getName(), available, quantity);
+    }
+  }
+
+  private static <T> T require(Map<UUID, T> entities, UUID id, String label) {
+    T entity = id != null ? entities.get(id) : null;
+    if (entity == null) {
+      throw new ResourceNotFoundException("No " + label + " found with id " + id);
+    }
+    return entity;
+  }
+
+  private static Set<UUID> collectIds(List<StockBatchOperation> operations, Function<StockBatchOperation, UUID> getter) {
+    return operations.stream()
+        .map(getter)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  private static <T> Map<UUID, T> indexById(Collection<T> entities, Function<T, UUID> getId) {
+    return entities.stream().collect(Collectors.toMap(getId, Function.identity()));
+  }
+
+  private record BatchContext(
+      Map<UUID, Item> items,
+      Map<UUID, Lab> labs,
+      Map<UUID, User> users,
+      Map<UUID, Supplier> suppliers,
+      Map<StockBalanceKey, StockBalance> balances
+  ) {}
 }
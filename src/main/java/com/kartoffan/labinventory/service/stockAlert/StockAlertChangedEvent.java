@@ -0,0 +1,12 @@
+package com.kartoffan.labinventory.service.stockAlert;
+
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.StockAlert.Level;
+
+/**
+ * Published after an alert was raised, changed level or cleared, on this node
+ * or on another one. A null level means the alert was cleared.
+ */
+public record StockAlertChangedEvent(UUID itemId, UUID labId, Level level) {
+}
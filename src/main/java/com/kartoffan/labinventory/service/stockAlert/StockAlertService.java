@@ -0,0 +1,15 @@
+package com.kartoffan.labinventory.service.stockAlert;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface StockAlertService {
+
+  void onStockChanged(StockChangedEvent event);
+
+  void rebuild();
+
+  List<UUID> getLowStockItemIds(UUID labId);
+
+  List<UUID> getOutOfStockItemIds(UUID labId);
+}
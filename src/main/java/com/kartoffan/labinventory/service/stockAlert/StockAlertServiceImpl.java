@@ -0,0 +1,268 @@
+package com.kartoffan.labinventory.service.stockAlert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.dto.stockAlert.ActiveStockAlert;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.StockAlert;
+import com.kartoffan.labinventory.model.StockAlert.Level;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.repository.StockAlertRepository;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the set of active stock alerts current by re-evaluating only the
+ * (item, lab) pairs touched by a committed change. Alerts are persisted and
+ * mirrored in memory, so listing them never touches the balances or the
+ * ledger. Other nodes pick up changes through the cache invalidation bus.
+ * Every raised, escalated or cleared alert is announced as a
+ * {@link StockAlertChangedEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAlertServiceImpl implements StockAlertService {
+
+  private final StockAlertRepository stockAlertRepository;
+  private final StockBalanceRepository stockBalanceRepository;
+  private final PlatformTransactionManager transactionManager;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final Map<UUID, ActiveStockAlert> alertsById = new ConcurrentHashMap<>();
+  private final Map<UUID, Map<UUID, ActiveStockAlert>> alertsByLab = new ConcurrentHashMap<>();
+
+  /**
+   * Re-evaluates the alerts of the changed item once the change has committed
+   */
+  @Override
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStockChanged(StockChangedEvent event) {
+    try {
+      evaluate(event);
+    } catch (DataIntegrityViolationException exception) {
+      // A concurrent evaluation raised the same alert first, evaluate against it
+      evaluate(event);
+    }
+  }
+
+  /**
+   * Re-evaluates every balance and replaces the active alerts, used to backfill
+   * and to recover from missed events
+   */
+  @Override
+  public void rebuild() {
+    requiresNew().executeWithoutResult(status -> {
+      Map<StockBalanceKey, StockAlert> existing = new HashMap<>();
+      for (StockAlert alert : stockAlertRepository.findAll()) {
+        existing.put(new StockBalanceKey(alert.getItem().getId(), alert.getLab().getId()), alert);
+      }
+
+      for (StockBalance balance : stockBalanceRepository.findAllWithItems()) {
+        StockBalanceKey key = new StockBalanceKey(balance.getItem().getId(), balance.getLab().getId());
+        apply(balance, existing.remove(key));
+      }
+      stockAlertRepository.deleteAll(existing.values());
+    });
+    load();
+  }
+
+  /**
+   * Returns the items with any active alert in a lab
+   */
+  @Override
+  public List<UUID> getLowStockItemIds(UUID labId) {
+    return alertsByLab.getOrDefault(labId, Map.of()).values().stream()
+        .map(ActiveStockAlert::getItemId)
+        .toList();
+  }
+
+  /**
+   * Returns the items with an out-of-stock alert in a lab
+   */
+  @Override
+  public List<UUID> getOutOfStockItemIds(UUID labId) {
+    return alertsByLab.getOrDefault(labId, Map.of()).values().stream()
+        .filter(alert -> alert.getLevel() == Level.OUT_OF_STOCK)
+        .map(ActiveStockAlert::getItemId)
+        .toList();
+  }
+
+  /**
+   * Loads the persisted alerts, backfilling them on the first start
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    if (stockAlertRepository.count() == 0 && stockBalanceRepository.count() > 0) {
+      try {
+        rebuild();
+        return;
+      } catch (DataIntegrityViolationException exception) {
+        log.info("Stock alerts were backfilled concurrently by another node");
+      }
+    }
+    load();
+  }
+
+  /**
+   * Applies an alert change made by another node
+   */
+  @EventListener
+  public void onInvalidation(EntityInvalidation invalidation) {
+    if (!invalidation.isFor(StockAlert.class)) {
+      return;
+    }
+    if (invalidation.isReset()) {
+      load();
+      return;
+    }
+    stockAlertRepository.findActiveById(invalidation.id())
+        .ifPresentOrElse(this::raise, () -> clear(invalidation.id()));
+  }
+
+  /**
+   * Evaluates the changed balances under a row lock. Evaluations after
+   * concurrent commits would otherwise read different quantities, and the one
+   * that read the older quantity could write its alert last.
+   */
+  private void evaluate(StockChangedEvent event) {
+    List<StockAlert> changed = requiresNew().execute(status -> {
+      List<StockBalance> balances = event.labId() == null
+          ? stockBalanceRepository.findAllByItemIdForUpdate(event.itemId())
+          : stockBalanceRepository.findByItemIdAndLabIdForUpdate(event.itemId(), event.labId()).stream().toList();
+
+      List<StockAlert> results = new ArrayList<>();
+      for (StockBalance balance : balances) {
+        Optional<StockAlert> current = stockAlertRepository
+            .findByItemIdAndLabId(balance.getItem().getId(), balance.getLab().getId());
+        results.add(apply(balance, current.orElse(null)));
+      }
+      return results;
+    });
+
+    for (StockAlert alert : changed) {
+      if (alert.getLevel() == null) {
+        clear(alert.getId());
+      } else {
+        raise(new ActiveStockAlert(alert.getId(), alert.getItem().getId(), alert.getLab().getId(), alert.getLevel()));
+      }
+    }
+  }
+
+  /**
+   * Indexes an active alert and announces it if it is new or changed level
+   */
+  private void raise(ActiveStockAlert alert) {
+    ActiveStockAlert previous = index(alert);
+    if (previous == null || previous.getLevel() != alert.getLevel()) {
+      eventPublisher.publishEvent(new StockAlertChangedEvent(alert.getItemId(), alert.getLabId(), alert.getLevel()));
+    }
+  }
+
+  /**
+   * Drops a cleared alert from the index and announces it if it was active
+   */
+  private void clear(UUID alertId) {
+    ActiveStockAlert previous = unindex(alertId);
+    if (previous != null) {
+      eventPublisher.publishEvent(new StockAlertChangedEvent(previous.getItemId(), previous.getLabId(), null));
+    }
+  }
+
+  /**
+   * Raises, updates or clears the alert of one balance. A cleared alert is
+   * returned with no level.
+   */
+  private StockAlert apply(StockBalance balance, StockAlert current) {
+    Level level = levelOf(balance.getItem(), balance.getQuantity());
+
+    if (level == null) {
+      if (current == null) {
+        return StockAlert.builder().item(balance.getItem()).lab(balance.getLab()).build();
+      }
+      stockAlertRepository.delete(current);
+      current.setLevel(null);
+      return current;
+    }
+
+    StockAlert alert = current != null
+        ? current
+        : StockAlert.builder().item(balance.getItem()).lab(balance.getLab()).build();
+    alert.setLevel(level);
+    alert.setQuantity(balance.getQuantity());
+    return stockAlertRepository.saveAndFlush(alert);
+  }
+
+  static Level levelOf(Item item, double quantity) {
+    if (!Boolean.TRUE.equals(item.getIsActive())) {
+      return null;
+    }
+    if (quantity <= 0) {
+      return Level.OUT_OF_STOCK;
+    }
+    if (item.getMinQuantity() != null && quantity < item.getMinQuantity()) {
+      return Level.BELOW_MINIMUM;
+    }
+    if (item.getReorderLevel() != null && quantity <= item.getReorderLevel()) {
+      return Level.REORDER;
+    }
+    if (item.getLowStockThreshold() != null && quantity <= item.getLowStockThreshold()) {
+      return Level.LOW_STOCK;
+    }
+    return null;
+  }
+
+  private void load() {
+    List<ActiveStockAlert> alerts = stockAlertRepository.findAllActive();
+    alertsById.clear();
+    alertsByLab.clear();
+    alerts.forEach(this::index);
+  }
+
+  private ActiveStockAlert index(ActiveStockAlert alert) {
+    ActiveStockAlert previous = unindex(alert.getAlertId());
+    alertsById.put(alert.getAlertId(), alert);
+    alertsByLab.computeIfAbsent(alert.getLabId(), key -> new ConcurrentHashMap<>()).put(alert.getItemId(), alert);
+    return previous;
+  }
+
+  private ActiveStockAlert unindex(UUID alertId) {
+    if (alertId == null) {
+      return null;
+    }
+    ActiveStockAlert previous = alertsById.remove(alertId);
+    if (previous != null) {
+      alertsByLab.computeIfPresent(previous.getLabId(), (labId, alerts) -> {
+        alerts.remove(previous.getItemId(), previous);
+        return alerts.isEmpty() ? null : alerts;
+      });
+    }
+    return previous;
+  }
+
+  private TransactionTemplate requiresNew() {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    return template;
+  }
+}
@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.service.stockAlert;
+
+import java.util.UUID;
+
+/**
+ * Published whenever the balance or thresholds of an item may have changed. A
+ * null lab stands for every lab holding the item.
+ */
+public record StockChangedEvent(UUID itemId, UUID labId) {
+
+  public static StockChangedEvent ofItem(UUID itemId) {
+    return new StockChangedEvent(itemId, null);
+  }
+}
@@ -0,0 +1,19 @@
+package com.kartoffan.labinventory.service.stockArchive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+
+public interface StockArchiveService {
+
+  Path archive(YearMonth month) throws IOException;
+
+  List<YearMonth> getArchivedMonths() throws IOException;
+
+  void export(StockMovementFilter filter, StockMovementExportFormat format, OutputStream output) throws IOException;
+}
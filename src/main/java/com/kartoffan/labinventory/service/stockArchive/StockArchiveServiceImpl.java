@@ -0,0 +1,171 @@
+package com.kartoffan.labinventory.service.stockArchive;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.spec.StockMovementSpecifications;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores the movements of a month as one gzipped NDJSON file, in the same row
+ * shape as the exports, and serves them back filtered. Only the files of the
+ * months overlapping the requested range are read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockArchiveServiceImpl implements StockArchiveService {
+
+  private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final Pattern FILE_NAME = Pattern.compile("stock_movements_(\\d{4})_(\\d{2})\\.ndjson\\.gz");
+
+  private final StockMovementRepository stockMovementRepository;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.stock.movement.archive.dir:archive/stock-movements}")
+  private Path directory = Path.of("archive", "stock-movements");
+
+  @Value("${app.stock.movement.export.fetch-size:1000}")
+  private int fetchSize = 1000;
+
+  /**
+   * Writes every movement recorded in a month to its archive file. The file is
+   * synced to disk and moved into place only once complete.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Path archive(YearMonth month) throws IOException {
+    Files.createDirectories(directory);
+    Path target = fileOf(month);
+    Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+    LocalDateTime from = month.atDay(1).atStartOfDay();
+    int rows = 0;
+
+    try {
+      try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+              new GZIPOutputStream(Files.newOutputStream(temporary)), StandardCharsets.UTF_8));
+          Stream<StockMovementExportRow> movements = stockMovementRepository.streamForExport(
+              StockMovementSpecifications.recordedBetween(from, from.plusMonths(1)), fetchSize)) {
+        Iterator<StockMovementExportRow> iterator = movements.iterator();
+        while (iterator.hasNext()) {
+          writer.write(objectMapper.writeValueAsString(iterator.next()));
+          writer.write('\n');
+          rows++;
+        }
+      }
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException exception) {
+      Files.deleteIfExists(temporary);
+      throw exception;
+    }
+
+    log.info("Archived {} stock movements of {} to {}", rows, month, target);
+    return target;
+  }
+
+  /**
+   * Lists the archived months, oldest first
+   */
+  @Override
+  public List<YearMonth> getArchivedMonths() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(file -> FILE_NAME.matcher(file.getFileName().toString()))
+          .filter(Matcher::matches)
+          .map(matcher -> YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * Writes every archived movement matching the filter to the output, oldest first
+   */
+  @Override
+  public void export(StockMovementFilter filter, StockMovementExportFormat format, OutputStream output)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+    if (format == StockMovementExportFormat.CSV) {
+      writer.write(StockMovementExportRow.CSV_HEADER);
+      writer.write('\n');
+    }
+
+    for (YearMonth month : getArchivedMonths()) {
+      if (!overlaps(month, filter)) {
+        continue;
+      }
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+          new GZIPInputStream(Files.newInputStream(fileOf(month))), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          StockMovementExportRow row = objectMapper.readValue(line, StockMovementExportRow.class);
+          if (matches(row, filter)) {
+            writer.write(format == StockMovementExportFormat.CSV ? row.toCsv() : line);
+            writer.write('\n');
+          }
+        }
+      }
+    }
+
+    writer.flush();
+  }
+
+  private Path fileOf(YearMonth month) {
+    return directory.resolve("stock_movements_" + month.format(FILE_MONTH) + ".ndjson.gz");
+  }
+
+  private static boolean overlaps(YearMonth month, StockMovementFilter filter) {
+    LocalDateTime start = month.atDay(1).atStartOfDay();
+    LocalDateTime end = start.plusMonths(1);
+    return (filter.getFrom() == null || filter.getFrom().isBefore(end))
+        && (filter.getTo() == null || !filter.getTo().isBefore(start));
+  }
+
+  private static boolean matches(StockMovementExportRow row, StockMovementFilter filter) {
+    return (filter.getItemId() == null || filter.getItemId().equals(row.getItemId()))
+        && (filter.getLabId() == null || filter.getLabId().equals(row.getLabId()))
+        && (filter.getSupplierId() == null || filter.getSupplierId().equals(row.getSupplierId()))
+        && (filter.getType() == null || filter.getType() == row.getType())
+        && (filter.getFrom() == null || !row.getTimestamp().isBefore(filter.getFrom()))
+        && (filter.getTo() == null || !row.getTimestamp().isAfter(filter.getTo()));
+  }
+}
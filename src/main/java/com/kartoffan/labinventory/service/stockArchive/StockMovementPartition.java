@@ -0,0 +1,14 @@
+package com.kartoffan.labinventory.service.stockArchive;
+
+import java.time.LocalDateTime;
+
+/**
+ * A partition of stock_movements covering [from, to). The partition holding
+ * the rows written before partitioning was enabled has no lower bound.
+ */
+public record StockMovementPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+  public boolean isEndedBy(LocalDateTime cutoff) {
+    return to != null && !to.isAfter(cutoff);
+  }
+}
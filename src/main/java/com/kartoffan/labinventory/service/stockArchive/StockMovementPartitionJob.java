@@ -0,0 +1,91 @@
+package com.kartoffan.labinventory.service.stockArchive;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the upcoming stock movement partitions and moves the ones past their
+ * retention to the archive. A partition is only archived once the latest
+ * snapshot run is newer than its end, so the ledger totals keep starting from
+ * a checkpoint that does not need the archived rows. Point-in-time quantities
+ * older than the oldest kept snapshot no longer see archived movements.
+ * Only one node runs the job at a time, the others skip it. The archive
+ * directory must be storage shared by every node, the archive endpoint reads
+ * it on whichever node serves the request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stock.movement.partitioning.enabled", havingValue = "true")
+public class StockMovementPartitionJob {
+
+  private final StockMovementPartitionManager partitionManager;
+  private final StockArchiveService stockArchiveService;
+  private final StockSnapshotService stockSnapshotService;
+
+  @Value("${app.stock.movement.partitioning.retention-months:24}")
+  private int retentionMonths = 24;
+
+  @Scheduled(cron = "${app.stock.movement.partitioning.cron:0 0 2 * * *}")
+  public void run() {
+    if (!partitionManager.runExclusively(this::maintain)) {
+      log.info("Stock movement partitions are maintained by another node, skipping");
+    }
+  }
+
+  private void maintain() {
+    partitionManager.ensurePartitions();
+    if (retentionMonths <= 0) {
+      return;
+    }
+
+    Optional<LocalDateTime> checkpoint = stockSnapshotService.getLatestAsOf();
+    if (checkpoint.isEmpty()) {
+      log.info("No stock snapshot taken yet, keeping every stock movement partition");
+      return;
+    }
+
+    LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+    if (checkpoint.get().isBefore(cutoff)) {
+      cutoff = checkpoint.get();
+    }
+
+    for (StockMovementPartition partition : partitionManager.getPartitions()) {
+      if (!partition.isEndedBy(cutoff)) {
+        continue;
+      }
+      try {
+        archive(partition);
+        partitionManager.drop(partition);
+      } catch (IOException exception) {
+        log.error("Could not archive stock movement partition {}, keeping it", partition.name(), exception);
+        return;
+      }
+    }
+  }
+
+  private void archive(StockMovementPartition partition) throws IOException {
+    LocalDateTime from = partition.from() != null
+        ? partition.from()
+        : partitionManager.getOldestTimestamp(partition);
+    if (from == null) {
+      return;
+    }
+    for (YearMonth month = YearMonth.from(from); month.atDay(1).atStartOfDay().isBefore(partition.to());
+        month = month.plusMonths(1)) {
+      stockArchiveService.archive(month);
+    }
+  }
+}
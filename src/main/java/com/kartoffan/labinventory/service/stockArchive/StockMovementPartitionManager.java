@@ -0,0 +1,233 @@
+package com.kartoffan.labinventory.service.stockArchive;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Turns stock_movements into a table range-partitioned by month on
+ * {@code timestamp} and keeps its partitions. The table Hibernate created is
+ * kept as is and attached as the partition holding every row written before
+ * the conversion. PostgreSQL only.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.stock.movement.partitioning.enabled", havingValue = "true")
+public class StockMovementPartitionManager {
+
+  static final String TABLE = "stock_movements";
+  static final String LEGACY_PARTITION = TABLE + "_legacy";
+
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+  private static final Pattern BOUNDS = Pattern.compile(
+      "FROM \\((?:MINVALUE|'([^']+)')\\) TO \\((?:MAXVALUE|'([^']+)')\\)");
+  private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss[.SSSSSS]");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final int premadeMonths;
+
+  public StockMovementPartitionManager(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.stock.movement.partitioning.premade-months:3}") int premadeMonths) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.premadeMonths = premadeMonths;
+  }
+
+  /**
+   * Converts the table on the first start with partitioning enabled and makes
+   * sure the upcoming partitions exist
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void init() {
+    if (!isPartitioned()) {
+      transactionTemplate.executeWithoutResult(status -> convert());
+    }
+    ensurePartitions();
+  }
+
+  /**
+   * Creates the monthly partitions from the current month up to the configured
+   * number of months ahead, so inserts never hit a missing range
+   */
+  public void ensurePartitions() {
+    LocalDateTime legacyEnd = getPartitions().stream()
+        .filter(partition -> partition.from() == null)
+        .map(StockMovementPartition::to)
+        .findFirst()
+        .orElse(LocalDateTime.MIN);
+
+    YearMonth current = YearMonth.now();
+    for (int i = 0; i <= premadeMonths; i++) {
+      YearMonth month = current.plusMonths(i);
+      if (!month.atDay(1).atStartOfDay().isBefore(legacyEnd)) {
+        createPartition(month);
+      }
+    }
+  }
+
+  /**
+   * Runs the task unless another node is already maintaining the partitions.
+   * The advisory lock is held by the session, so it stays on one connection
+   * for the whole run and is released with it if the node dies.
+   *
+   * @return false if the lock was held elsewhere and the task skipped
+   */
+  public boolean runExclusively(Runnable task) {
+    return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+      if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+        return false;
+      }
+      try {
+        task.run();
+      } finally {
+        advisoryLock(connection, "pg_advisory_unlock");
+      }
+      return true;
+    }));
+  }
+
+  /**
+   * Lists the partitions of the table, oldest first
+   */
+  public List<StockMovementPartition> getPartitions() {
+    return jdbcTemplate.query("""
+        SELECT c.relname, pg_get_expr(c.relpartbound, c.oid)
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(?)
+        """,
+        (rs, rowNum) -> toPartition(rs.getString(1), rs.getString(2)),
+        TABLE).stream()
+        .filter(Objects::nonNull)
+        .sorted((left, right) -> left.to().compareTo(right.to()))
+        .toList();
+  }
+
+  /**
+   * Returns the timestamp of the oldest row of a partition, null if it is empty
+   */
+  public LocalDateTime getOldestTimestamp(StockMovementPartition partition) {
+    return jdbcTemplate.queryForObject(
+        "SELECT MIN(timestamp) FROM " + quote(partition.name()), LocalDateTime.class);
+  }
+
+  /**
+   * Detaches a partition and drops it together with its rows
+   */
+  public void drop(StockMovementPartition partition) {
+    transactionTemplate.executeWithoutResult(status -> {
+      jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + quote(partition.name()));
+      jdbcTemplate.execute("DROP TABLE " + quote(partition.name()));
+    });
+    log.info("Dropped stock movement partition {}", partition.name());
+  }
+
+  private boolean isPartitioned() {
+    String kind = jdbcTemplate.queryForObject(
+        "SELECT relkind::text FROM pg_class WHERE oid = to_regclass(?)", String.class, TABLE);
+    return "p".equals(kind);
+  }
+
+  /**
+   * Renames the existing table, creates the partitioned table in its place and
+   * attaches the old one below the first month boundary after its newest row.
+   * Primary keys of a partitioned table must include the partition key, hence
+   * (id, timestamp).
+   */
+  private void convert() {
+    jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+    if (isPartitioned()) {
+      // Another node converted the table while this one waited for the lock
+      return;
+    }
+    LocalDateTime newest = jdbcTemplate.queryForObject("SELECT MAX(timestamp) FROM " + TABLE, LocalDateTime.class);
+    YearMonth firstMonth = newest != null ? YearMonth.from(newest).plusMonths(1) : YearMonth.now();
+
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+    jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " RENAME CONSTRAINT " + TABLE + "_pkey TO "
+        + LEGACY_PARTITION + "_pkey");
+    jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_stock_movements_lab_timestamp RENAME TO "
+        + "idx_stock_movements_legacy_lab_timestamp");
+    jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_stock_movements_item_timestamp RENAME TO "
+        + "idx_stock_movements_legacy_item_timestamp");
+    jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_stock_movements_transfer RENAME TO "
+        + "idx_stock_movements_legacy_transfer");
+
+    jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION
+        + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (timestamp)");
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, timestamp)");
+    jdbcTemplate.execute("CREATE INDEX idx_stock_movements_lab_timestamp ON " + TABLE + " (lab_id, timestamp, id)");
+    jdbcTemplate.execute("CREATE INDEX idx_stock_movements_item_timestamp ON " + TABLE + " (item_id, timestamp, id)");
+    jdbcTemplate.execute("CREATE INDEX idx_stock_movements_transfer ON " + TABLE + " (transfer_id)");
+
+    if (newest == null) {
+      jdbcTemplate.execute("DROP TABLE " + LEGACY_PARTITION);
+    } else {
+      jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+          + " FOR VALUES FROM (MINVALUE) TO ('" + firstMonth.atDay(1).atStartOfDay() + "')");
+    }
+    createPartition(firstMonth);
+    log.info("Partitioned {} by month, rows before {} kept in {}", TABLE, firstMonth, LEGACY_PARTITION);
+  }
+
+  private void createPartition(YearMonth month) {
+    try {
+      jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + month.format(PARTITION_SUFFIX)
+          + " PARTITION OF " + TABLE
+          + " FOR VALUES FROM ('" + month.atDay(1).atStartOfDay() + "')"
+          + " TO ('" + month.plusMonths(1).atDay(1).atStartOfDay() + "')");
+    } catch (DataAccessException exception) {
+      // Usually a concurrent node creating the same partition, checked again on the next run
+      log.warn("Could not create stock movement partition for {}: {}", month, exception.getMessage());
+    }
+  }
+
+  private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+      statement.setString(1, TABLE);
+      try (ResultSet result = statement.executeQuery()) {
+        return result.next() && result.getBoolean(1);
+      }
+    }
+  }
+
+  private static StockMovementPartition toPartition(String name, String bound) {
+    Matcher matcher = bound != null ? BOUNDS.matcher(bound) : null;
+    if (matcher == null || !matcher.find() || matcher.group(2) == null) {
+      return null;
+    }
+    return new StockMovementPartition(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)));
+  }
+
+  private static LocalDateTime parseBound(String value) {
+    return value != null ? LocalDateTime.parse(value, BOUND_FORMAT) : null;
+  }
+
+  private static String quote(String identifier) {
+    return "\"" + identifier.replace("\"", "\"\"") + "\"";
+  }
+}
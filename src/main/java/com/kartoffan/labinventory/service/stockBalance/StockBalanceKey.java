@@ -0,0 +1,8 @@
+package com.kartoffan.labinventory.service.stockBalance;
+
+import java.util.UUID;
+
+/**
+ * Identifies the balance of one item within one lab.
+ */
+public record StockBalanceKey(UUID itemId, UUID labId) {}
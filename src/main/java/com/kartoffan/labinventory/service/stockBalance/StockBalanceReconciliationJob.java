@@ -0,0 +1,51 @@
+package com.kartoffan.labinventory.service.stockBalance;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.kartoffan.labinventory.dto.stockBalance.BalanceDrift;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically compares the materialized balances against the movement ledger.
+ * Drift is logged, and repaired only when {@code app.stock.balance.auto-repair} is enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockBalanceReconciliationJob {
+
+  private final StockBalanceService stockBalanceService;
+  private final StockAlertService stockAlertService;
+
+  @Value("${app.stock.balance.auto-repair:false}")
+  private boolean autoRepair;
+
+  @Scheduled(cron = "${app.stock.balance.verify-cron:0 0 3 * * *}")
+  public void run() {
+    BalanceReconciliationReport report = autoRepair
+        ? stockBalanceService.rebuild()
+        : stockBalanceService.verify();
+
+    if (report.isRepaired()) {
+      stockAlertService.rebuild();
+    }
+
+    if (report.getDrifts().isEmpty()) {
+      log.info("Stock balances verified: {} balances match the ledger", report.getCheckedBalances());
+      return;
+    }
+
+    log.warn("Stock balance drift detected on {} of {} balances (repaired: {})",
+        report.getDrifts().size(), report.getCheckedBalances(), report.isRepaired());
+    for (BalanceDrift drift : report.getDrifts()) {
+      log.warn("Item {} in lab {}: balance {} vs ledger {}",
+          drift.getItemId(), drift.getLabId(), drift.getBalanceQuantity(), drift.getLedgerQuantity());
+    }
+  }
+}
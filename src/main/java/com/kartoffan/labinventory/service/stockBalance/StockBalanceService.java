@@ -0,0 +1,31 @@
+package com.kartoffan.labinventory.service.stockBalance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.dto.stock.StockQuantity;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+
+public interface StockBalanceService {
+
+  void apply(Item item, Lab lab, double delta);
+
+  void withdraw(Item item, Lab lab, double quantity);
+
+  void ensureBalances(Set<StockBalanceKey> keys);
+
+  Map<StockBalanceKey, StockBalance> lockBalances(Set<StockBalanceKey> keys);
+
+  double getQuantity(UUID itemId, UUID labId);
+
+  List<StockQuantity> getItemQuantities(UUID labId);
+
+  BalanceReconciliationReport verify();
+
+  BalanceReconciliationReport rebuild();
+}
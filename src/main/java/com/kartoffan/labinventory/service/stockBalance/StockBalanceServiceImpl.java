@@ -0,0 +1,273 @@
+package com.kartoffan.labinventory.service.stockBalance;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stock.StockQuantity;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceDrift;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockBalanceServiceImpl implements StockBalanceService {
+
+  private static final double EPSILON = 1e-9;
+
+  private static final int RECHECK_BATCH_SIZE = 1000;
+
+  private static final Comparator<StockBalanceKey> KEY_ORDER = Comparator
+      .comparing(StockBalanceKey::itemId)
+      .thenComparing(StockBalanceKey::labId);
+
+  private final StockBalanceRepository stockBalanceRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final StockSnapshotService stockSnapshotService;
+
+  @Value("${app.stock.movement.partitioning.enabled:false}")
+  private boolean partitioned = false;
+
+  /**
+   * Applies a signed movement quantity to the materialized balance of an item in a lab
+   */
+  @Override
+  public void apply(Item item, Lab lab, double delta) {
+    if (stockBalanceRepository.increment(item.getId(), lab.getId(), delta, LocalDateTime.now()) == 0) {
+      createIfAbsent(new StockBalanceKey(item.getId(), lab.getId()));
+      stockBalanceRepository.increment(item.getId(), lab.getId(), delta, LocalDateTime.now());
+    }
+  }
+
+  /**
+   * Atomically takes a quantity out of a balance, failing if it would go negative
+   */
+  @Override
+  public void withdraw(Item item, Lab lab, double quantity) {
+    int reserved = stockBalanceRepository
+        .decrementIfAvailable(item.getId(), lab.getId(), quantity, LocalDateTime.now());
+
+    if (reserved == 0) {
+      throw new InsufficientStockException(item.getName(), getQuantity(item.getId(), lab.getId()), quantity);
+    }
+  }
+
+  /**
+   * Makes sure a balance row exists for every key, inserting only the missing
+   * ones. Keys are inserted in a fixed order, so that concurrent callers
+   * creating overlapping rows wait on each other instead of deadlocking.
+   */
+  @Override
+  public void ensureBalances(Set<StockBalanceKey> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    Set<StockBalanceKey> missing = new HashSet<>(keys);
+    missing.removeAll(findIds(keys).keySet());
+    missing.stream()
+        .sorted(KEY_ORDER)
+        .forEach(this::createIfAbsent);
+  }
+
+  /**
+   * Locks the existing balance rows for exactly the given keys until the
+   * transaction ends
+   */
+  @Override
+  public Map<StockBalanceKey, StockBalance> lockBalances(Set<StockBalanceKey> keys) {
+    Map<StockBalanceKey, StockBalance> locked = new HashMap<>();
+    if (keys.isEmpty()) {
+      return locked;
+    }
+
+    Collection<UUID> ids = findIds(keys).values();
+    if (ids.isEmpty()) {
+      return locked;
+    }
+    for (StockBalance balance : stockBalanceRepository.findAllByIdsForUpdate(ids)) {
+      locked.put(keyOf(balance), balance);
+    }
+    return locked;
+  }
+
+  /**
+   * Reads the current balance of an item in a lab, 0 if it never moved there
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public double getQuantity(UUID itemId, UUID labId) {
+    return stockBalanceRepository.findByItemIdAndLabId(itemId, labId)
+        .map(StockBalance::getQuantity)
+        .orElse(0.0);
+  }
+
+  /**
+   * Returns the balance and thresholds of every item held in a lab
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockQuantity> getItemQuantities(UUID labId) {
+    return stockBalanceRepository.findItemQuantitiesByLab(labId);
+  }
+
+  /**
+   * Recomputes every balance from the movement ledger and reports the ones that drifted
+   */
+  @Override
+  public BalanceReconciliationReport verify() {
+    return reconcile(false);
+  }
+
+  /**
+   * Recomputes every balance from the movement ledger and overwrites the ones that drifted
+   */
+  @Override
+  public BalanceReconciliationReport rebuild() {
+    return reconcile(true);
+  }
+
+  /**
+   * The bulk reads are not locked, so a movement committing between them makes
+   * its balance look drifted. Suspected balances are therefore locked and
+   * compared again with their ledger total read after the lock, and only a
+   * drift that is still there is reported or repaired.
+   */
+  private BalanceReconciliationReport reconcile(boolean repair) {
+    Map<StockBalanceKey, Double> ledger = toQuantities(getLedgerBalances());
+    Map<StockBalanceKey, Double> balances = toQuantities(stockBalanceRepository.findAllQuantities());
+
+    Set<StockBalanceKey> keys = new HashSet<>(ledger.keySet());
+    keys.addAll(balances.keySet());
+
+    List<StockBalanceKey> suspects = keys.stream()
+        .filter(key -> drifted(balances.getOrDefault(key, 0.0), ledger.getOrDefault(key, 0.0)))
+        .sorted(KEY_ORDER)
+        .toList();
+
+    List<BalanceDrift> drifts = new ArrayList<>();
+    for (int from = 0; from < suspects.size(); from += RECHECK_BATCH_SIZE) {
+      drifts.addAll(recheck(suspects.subList(from, Math.min(from + RECHECK_BATCH_SIZE, suspects.size())), repair));
+    }
+
+    return BalanceReconciliationReport.builder()
+        .checkedBalances(keys.size())
+        .drifts(drifts)
+        .repaired(repair && !drifts.isEmpty())
+        .checkedAt(LocalDateTime.now())
+        .build();
+  }
+
+  /**
+   * Re-reads the suspects under a row lock, so their writers wait for this
+   * transaction. Rebuild creates the missing rows first so that they are locked
+   * too; verify reads them unlocked.
+   */
+  private List<BalanceDrift> recheck(List<StockBalanceKey> suspects, boolean repair) {
+    Set<StockBalanceKey> keys = new HashSet<>(suspects);
+    if (repair) {
+      ensureBalances(keys);
+    }
+    Map<StockBalanceKey, StockBalance> locked = lockBalances(keys);
+
+    List<BalanceDrift> drifts = new ArrayList<>();
+    for (StockBalanceKey key : suspects) {
+      double expected = getLedgerQuantity(key);
+      StockBalance balance = locked.get(key);
+      double actual = balance != null ? balance.getQuantity() : getQuantity(key.itemId(), key.labId());
+
+      if (drifted(actual, expected)) {
+        drifts.add(new BalanceDrift(key.itemId(), key.labId(), actual, expected));
+        if (repair) {
+          balance.setQuantity(expected);
+        }
+      }
+    }
+    return drifts;
+  }
+
+  /**
+   * Sums the full movement ledger, which also counts movements that committed
+   * after the snapshot covering their timestamp was taken. With partitioning
+   * on, archived partitions are no longer in the ledger, so the totals start
+   * from the latest snapshot instead.
+   */
+  private List<LedgerBalance> getLedgerBalances() {
+    return partitioned
+        ? stockSnapshotService.getLedgerBalances()
+        : stockMovementRepository.sumQuantitiesByItemAndLab();
+  }
+
+  /**
+   * Sums the ledger of one balance the same way as {@link #getLedgerBalances()}
+   */
+  private double getLedgerQuantity(StockBalanceKey key) {
+    return partitioned
+        ? stockSnapshotService.getQuantityAsOf(key.itemId(), key.labId(), LocalDateTime.now())
+        : stockMovementRepository.getCurrentQuantityByLab(key.itemId(), key.labId());
+  }
+
+  private static Map<StockBalanceKey, Double> toQuantities(List<LedgerBalance> rows) {
+    Map<StockBalanceKey, Double> quantities = new HashMap<>();
+    for (LedgerBalance row : rows) {
+      quantities.put(new StockBalanceKey(row.getItemId(), row.getLabId()), row.getQuantity());
+    }
+    return quantities;
+  }
+
+  private static boolean drifted(double balance, double ledger) {
+    return Math.abs(balance - ledger) > EPSILON;
+  }
+
+  private void createIfAbsent(StockBalanceKey key) {
+    stockBalanceRepository.insertIfAbsent(UUID.randomUUID(), key.itemId(), key.labId(), LocalDateTime.now());
+  }
+
+  /**
+   * Resolves the ids of the existing balance rows among the given keys
+   */
+  private Map<StockBalanceKey, UUID> findIds(Set<StockBalanceKey> keys) {
+    Map<StockBalanceKey, UUID> ids = new HashMap<>();
+    for (Object[] row : stockBalanceRepository.findKeysByItemIdsAndLabIds(itemIds(keys), labIds(keys))) {
+      StockBalanceKey key = new StockBalanceKey((UUID) row[1], (UUID) row[2]);
+      if (keys.contains(key)) {
+        ids.put(key, (UUID) row[0]);
+      }
+    }
+    return ids;
+  }
+
+  private static Set<UUID> itemIds(Set<StockBalanceKey> keys) {
+    return keys.stream().map(StockBalanceKey::itemId).collect(Collectors.toSet());
+  }
+
+  private static Set<UUID> labIds(Set<StockBalanceKey> keys) {
+    return keys.stream().map(StockBalanceKey::labId).collect(Collectors.toSet());
+  }
+
+  private static StockBalanceKey keyOf(StockBalance balance) {
+    return new StockBalanceKey(balance.getItem().getId(), balance.getLab().getId());
+  }
+}
@@ -0,0 +1,90 @@
+package com.kartoffan.labinventory.service.stockForecast;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Exponentially weighted mean and variance of daily consumption. Every closed
+ * day is one sample, days without issues count as zero. The mean and variance
+ * are bias corrected by the accumulated weight, so a short history is not
+ * pulled towards zero by the empty start.
+ */
+public record ConsumptionModel(
+    double dailyRate, double dailyVariance, double weight, LocalDate openDay, double openDayQuantity) {
+
+  /** Idle days folded in at most; the state has fully decayed long before */
+  static final int MAX_IDLE_DAYS = 366;
+
+  public static ConsumptionModel empty() {
+    return new ConsumptionModel(0.0, 0.0, 0.0, null, 0.0);
+  }
+
+  /**
+   * Smoothing factor for the given half-life in days, the weight of a sample
+   * halves after that many further days
+   */
+  public static double alpha(double halfLifeDays) {
+    return 1.0 - Math.pow(2.0, -1.0 / halfLifeDays);
+  }
+
+  /**
+   * Adds consumption on a day. A day before the open one, such as an issue
+   * recorded across midnight, is counted into the open day.
+   */
+  public ConsumptionModel record(LocalDate day, double quantity, double alpha) {
+    ConsumptionModel rolled = rollTo(day, alpha);
+    return new ConsumptionModel(rolled.dailyRate, rolled.dailyVariance, rolled.weight,
+        rolled.openDay, rolled.openDayQuantity + quantity);
+  }
+
+  /**
+   * Closes the open day and every idle day before the given one
+   */
+  public ConsumptionModel rollTo(LocalDate day, double alpha) {
+    if (openDay == null) {
+      return new ConsumptionModel(dailyRate, dailyVariance, weight, day, 0.0);
+    }
+    if (!day.isAfter(openDay)) {
+      return this;
+    }
+
+    double mean = dailyRate;
+    double variance = dailyVariance;
+    double w = weight;
+    double sample = openDayQuantity;
+    long days = Math.min(ChronoUnit.DAYS.between(openDay, day), MAX_IDLE_DAYS);
+    for (long i = 0; i < days; i++) {
+      w = (1.0 - alpha) * w + alpha;
+      double a = alpha / w;
+      double diff = sample - mean;
+      mean += a * diff;
+      variance = (1.0 - a) * (variance + a * diff * diff);
+      sample = 0.0;
+    }
+    return new ConsumptionModel(mean, variance, w, day, 0.0);
+  }
+
+  /**
+   * Whether at least one day has been closed
+   */
+  public boolean hasHistory() {
+    return weight > 0.0;
+  }
+
+  public double dailyStdDev() {
+    return Math.sqrt(Math.max(dailyVariance, 0.0));
+  }
+
+  /**
+   * Days the given quantity lasts at the current rate, null without consumption
+   */
+  public Double daysUntilStockout(double quantity) {
+    if (quantity <= 0.0) {
+      return 0.0;
+    }
+    if (!hasHistory() || dailyRate <= 0.0) {
+      return null;
+    }
+    return quantity / dailyRate;
+  }
+}
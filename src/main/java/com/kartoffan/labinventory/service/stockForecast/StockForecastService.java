@@ -0,0 +1,18 @@
+package com.kartoffan.labinventory.service.stockForecast;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+
+public interface StockForecastService {
+
+  void record(Item item, Lab lab, double quantity, LocalDate day);
+
+  StockForecastResponse getForecast(Item item, UUID labId);
+
+  List<StockForecastResponse> getRunningOutSoonest(UUID labId, int limit);
+}
@@ -0,0 +1,137 @@
+package com.kartoffan.labinventory.service.stockForecast;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stockForecast.StockConsumption;
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.exception.BadRequestException;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockForecast;
+import com.kartoffan.labinventory.repository.StockForecastRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockForecastServiceImpl implements StockForecastService {
+
+  static final int MAX_RESULTS = 100;
+
+  private static final Comparator<StockForecastResponse> SOONEST_FIRST =
+      Comparator.comparingDouble(StockForecastResponse::getDaysUntilStockout);
+
+  private final StockForecastRepository stockForecastRepository;
+
+  @Value("${app.stock.forecast.half-life:14d}")
+  private Duration halfLife = Duration.ofDays(14);
+
+  /**
+   * Folds an issue into the consumption model of the item in the lab.
+   * Callers hold the balance row lock, so concurrent issues of the same item
+   * never update the same model at once.
+   */
+  @Override
+  public void record(Item item, Lab lab, double quantity, LocalDate day) {
+    StockForecast forecast = stockForecastRepository.findByItemIdAndLabId(item.getId(), lab.getId())
+        .orElseGet(() -> StockForecast.builder().item(item).lab(lab).build());
+
+    ConsumptionModel model = toModel(forecast).record(day, quantity, alpha());
+
+    forecast.setDailyRate(model.dailyRate());
+    forecast.setDailyVariance(model.dailyVariance());
+    forecast.setWeight(model.weight());
+    forecast.setOpenDay(model.openDay());
+    forecast.setOpenDayQuantity(model.openDayQuantity());
+    stockForecastRepository.save(forecast);
+  }
+
+  /**
+   * Forecasts the item in a lab as of today, from its consumption model
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public StockForecastResponse getForecast(Item item, UUID labId) {
+    LocalDate today = LocalDate.now();
+    return stockForecastRepository.findConsumption(item.getId(), labId)
+        .map(consumption -> toResponse(consumption, today))
+        .orElseGet(() -> StockForecastResponse.builder()
+            .itemId(item.getId())
+            .itemName(item.getName())
+            .unit(item.getUnit())
+            .quantity(0.0)
+            .daysUntilStockout(0.0)
+            .build());
+  }
+
+  /**
+   * Lists the items of a lab that run out first at their current rate. Items
+   * without consumption are left out; the top entries are kept in a heap of
+   * the requested size rather than sorting the whole lab.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockForecastResponse> getRunningOutSoonest(UUID labId, int limit) {
+    if (limit < 1 || limit > MAX_RESULTS) {
+      throw new BadRequestException("Limit must be between 1 and " + MAX_RESULTS);
+    }
+
+    LocalDate today = LocalDate.now();
+    PriorityQueue<StockForecastResponse> top = new PriorityQueue<>(limit + 1, SOONEST_FIRST.reversed());
+    for (StockConsumption consumption : stockForecastRepository.findConsumptionsByLab(labId)) {
+      StockForecastResponse forecast = toResponse(consumption, today);
+      if (forecast.getDaysUntilStockout() == null) {
+        continue;
+      }
+      top.add(forecast);
+      if (top.size() > limit) {
+        top.poll();
+      }
+    }
+
+    List<StockForecastResponse> soonest = new ArrayList<>(top);
+    soonest.sort(SOONEST_FIRST);
+    return soonest;
+  }
+
+  private StockForecastResponse toResponse(StockConsumption consumption, LocalDate today) {
+    ConsumptionModel model = toModel(consumption).rollTo(today, alpha());
+    return StockForecastResponse.builder()
+        .itemId(consumption.getItemId())
+        .itemName(consumption.getItemName())
+        .unit(consumption.getUnit())
+        .quantity(consumption.getQuantity())
+        .dailyRate(model.hasHistory() ? model.dailyRate() : null)
+        .dailyRateStdDev(model.hasHistory() ? model.dailyStdDev() : null)
+        .daysUntilStockout(model.daysUntilStockout(consumption.getQuantity()))
+        .build();
+  }
+
+  private double alpha() {
+    return ConsumptionModel.alpha(halfLife.toHours() / 24.0);
+  }
+
+  private static ConsumptionModel toModel(StockForecast forecast) {
+    return new ConsumptionModel(forecast.getDailyRate(), forecast.getDailyVariance(), forecast.getWeight(),
+        forecast.getOpenDay(), forecast.getOpenDayQuantity());
+  }
+
+  private static ConsumptionModel toModel(StockConsumption consumption) {
+    if (consumption.getWeight() == null) {
+      return ConsumptionModel.empty();
+    }
+    return new ConsumptionModel(consumption.getDailyRate(), consumption.getDailyVariance(),
+        consumption.getWeight(), consumption.getOpenDay(), consumption.getOpenDayQuantity());
+  }
+}
@@ -0,0 +1,33 @@
+package com.kartoffan.labinventory.service.stockLot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quantity taken from one lot by an allocation
+ */
+public record StockLotAllocation(String batchNumber, LocalDate expirationDate, double quantity) {
+
+  private static final double EPSILON = 1e-9;
+
+  /**
+   * Whether the quantity came from a lot rather than from stock not tracked per lot
+   */
+  public boolean isTracked() {
+    return batchNumber != null || expirationDate != null;
+  }
+
+  /**
+   * Completes lot allocations for an issue of the given quantity with an
+   * untracked allocation for the part the lots did not cover
+   */
+  public static List<StockLotAllocation> withRemainder(List<StockLotAllocation> allocations, double quantity) {
+    List<StockLotAllocation> completed = new ArrayList<>(allocations);
+    double untracked = quantity - allocations.stream().mapToDouble(StockLotAllocation::quantity).sum();
+    if (untracked > EPSILON) {
+      completed.add(new StockLotAllocation(null, null, untracked));
+    }
+    return completed;
+  }
+}
@@ -0,0 +1,20 @@
+package com.kartoffan.labinventory.service.stockLot;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+
+public interface StockLotService {
+
+  void apply(Item item, Lab lab, String batchNumber, LocalDate expirationDate, double delta);
+
+  List<StockLotAllocation> allocate(Item item, Lab lab, double quantity);
+
+  void trim(Item item, Lab lab, double balance);
+
+  List<StockLotQuantity> getLots(UUID itemId, UUID labId);
+}
@@ -0,0 +1,128 @@
+package com.kartoffan.labinventory.service.stockLot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockLot;
+import com.kartoffan.labinventory.repository.StockLotRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the per-lot balances next to the item balance. Callers hold the lock
+ * on the item's balance row, which serializes every lot change of that item in
+ * that lab.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockLotServiceImpl implements StockLotService {
+
+  private static final double EPSILON = 1e-9;
+  private static final int ALLOCATION_PAGE_SIZE = 50;
+
+  private final StockLotRepository stockLotRepository;
+
+  /**
+   * Adds a signed quantity to a lot, creating the lot on first receipt and
+   * removing it once empty. Stock without batch number and expiration date is
+   * not tracked per lot.
+   */
+  @Override
+  public void apply(Item item, Lab lab, String batchNumber, LocalDate expirationDate, double delta) {
+    if (batchNumber == null && expirationDate == null) {
+      return;
+    }
+
+    Optional<StockLot> existing = stockLotRepository
+        .findByItemIdAndLabIdAndBatchNumberAndExpirationDate(item.getId(), lab.getId(), batchNumber, expirationDate);
+    if (existing.isEmpty()) {
+      if (delta > EPSILON) {
+        stockLotRepository.save(StockLot.builder()
+            .item(item)
+            .lab(lab)
+            .batchNumber(batchNumber)
+            .expirationDate(expirationDate)
+            .quantity(delta)
+            .build());
+      }
+      return;
+    }
+
+    StockLot lot = existing.get();
+    if (lot.getQuantity() + delta <= EPSILON) {
+      stockLotRepository.delete(lot);
+    } else {
+      lot.setQuantity(lot.getQuantity() + delta);
+    }
+  }
+
+  /**
+   * Takes a quantity out of the lots first-expired-first-out and returns what
+   * was taken from each. Lots are read a page at a time along the FEFO index,
+   * so the cost depends on the number of lots consumed, not on how many are
+   * open. The returned allocations may cover less than requested when part of
+   * the stock is not tracked per lot.
+   */
+  @Override
+  public List<StockLotAllocation> allocate(Item item, Lab lab, double quantity) {
+    List<StockLotAllocation> allocations = new ArrayList<>();
+    double remaining = quantity;
+
+    while (remaining > EPSILON) {
+      List<StockLot> lots = stockLotRepository.findFirstExpiringForUpdate(
+          item.getId(), lab.getId(), PageRequest.of(0, ALLOCATION_PAGE_SIZE));
+
+      for (StockLot lot : lots) {
+        double taken = Math.min(lot.getQuantity(), remaining);
+        allocations.add(new StockLotAllocation(lot.getBatchNumber(), lot.getExpirationDate(), taken));
+        remaining -= taken;
+
+        if (lot.getQuantity() - taken <= EPSILON) {
+          stockLotRepository.delete(lot);
+        } else {
+          lot.setQuantity(lot.getQuantity() - taken);
+        }
+        if (remaining <= EPSILON) {
+          break;
+        }
+      }
+
+      if (lots.size() < ALLOCATION_PAGE_SIZE) {
+        break;
+      }
+    }
+    return allocations;
+  }
+
+  /**
+   * Takes the lots down, first-expired-first-out, until they no longer hold
+   * more than the item's balance, after a negative adjustment
+   */
+  @Override
+  public void trim(Item item, Lab lab, double balance) {
+    double excess = stockLotRepository.sumQuantity(item.getId(), lab.getId()) - Math.max(balance, 0.0);
+    if (excess > EPSILON) {
+      allocate(item, lab, excess);
+    }
+  }
+
+  /**
+   * Lists the open lots of an item in a lab in the order they are issued
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<StockLotQuantity> getLots(UUID itemId, UUID labId) {
+    return stockLotRepository.findQuantities(itemId, labId);
+  }
+}
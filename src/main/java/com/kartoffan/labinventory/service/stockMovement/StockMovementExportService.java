@@ -0,0 +1,12 @@
+package com.kartoffan.labinventory.service.stockMovement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+
+public interface StockMovementExportService {
+
+  void export(StockMovementFilter filter, StockMovementExportFormat format, OutputStream output) throws IOException;
+}
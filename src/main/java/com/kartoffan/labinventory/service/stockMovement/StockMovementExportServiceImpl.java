@@ -0,0 +1,61 @@
+package com.kartoffan.labinventory.service.stockMovement;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.spec.StockMovementSpecifications;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class StockMovementExportServiceImpl implements StockMovementExportService {
+
+  private final StockMovementRepository stockMovementRepository;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.stock.movement.export.fetch-size:1000}")
+  private int fetchSize = 1000;
+
+  /**
+   * Writes every movement matching the filter to the output, one row at a time
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void export(StockMovementFilter filter, StockMovementExportFormat format, OutputStream output)
+      throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+    if (format == StockMovementExportFormat.CSV) {
+      writer.write(StockMovementExportRow.CSV_HEADER);
+      writer.write('\n');
+    }
+
+    try (Stream<StockMovementExportRow> rows = stockMovementRepository
+        .streamForExport(StockMovementSpecifications.fromFilter(filter), fetchSize)) {
+      Iterator<StockMovementExportRow> iterator = rows.iterator();
+      while (iterator.hasNext()) {
+        StockMovementExportRow row = iterator.next();
+        writer.write(format == StockMovementExportFormat.CSV ? row.toCsv() : objectMapper.writeValueAsString(row));
+        writer.write('\n');
+      }
+    }
+
+    writer.flush();
+  }
+}
@@ -4,6 +4,7 @@ import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
 import com.kartoffan.labinventory.model.StockMovement;
@@ -14,5 +15,7 @@ public interface StockMovementService {
 
   Page<StockMovement> getAll(StockMovementFilter filter, Pageable pageable);
 
+  Slice<StockMovement> getAll(StockMovementFilter filter, String cursor, int size);
+
   void delete(UUID stockMovementId);
 }
@@ -1,17 +1,29 @@
 package com.kartoffan.labinventory.service.stockMovement;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementCursor;
 import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.StockMovement;
 import com.kartoffan.labinventory.repository.StockMovementRepository;
 import com.kartoffan.labinventory.repository.spec.StockMovementSpecifications;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,8 +31,15 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Transactional
 public class StockMovementServiceImpl implements StockMovementService {
+
+  private static final int MAX_SLICE_SIZE = 500;
+  private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "timestamp", "id");
   
   private final StockMovementRepository stockMovementRepository;
+  private final StockBalanceService stockBalanceService;
+  private final StockLotService stockLotService;
+  private final StockSnapshotService stockSnapshotService;
+  private final ApplicationEventPublisher eventPublisher;
 
   public StockMovement getById(UUID movementId) {
     return stockMovementRepository.findById(movementId)
@@ -32,10 +51,50 @@ public class StockMovementServiceImpl implements StockMovementService {
         .findAll(StockMovementSpecifications.fromFilter(filter), pageable);
   }
 
+  /**
+   * Fetches the movements following the given cursor, newest first, without
+   * counting the filtered set. One extra row is read to detect a next slice.
+   */
+  @Transactional(readOnly = true)
+  public Slice<StockMovement> getAll(StockMovementFilter filter, String cursor, int size) {
+    if (size < 1 || size > MAX_SLICE_SIZE) {
+      throw new BadRequestException("Size must be between 1 and " + MAX_SLICE_SIZE);
+    }
+
+    Specification<StockMovement> spec = StockMovementSpecifications.fromFilter(filter);
+    if (cursor != null && !cursor.isBlank()) {
+      spec = spec.and(StockMovementSpecifications.after(StockMovementCursor.decode(cursor)));
+    }
+
+    List<StockMovement> movements = stockMovementRepository
+        .findBy(spec, query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+
+    boolean hasNext = movements.size() > size;
+    List<StockMovement> content = hasNext ? movements.subList(0, size) : movements;
+    return new SliceImpl<>(content, Pageable.ofSize(size), hasNext);
+  }
+
+  /**
+   * Removes a movement from the ledger and reverses its effect on the balance,
+   * on its lot and on any snapshot taken since. Both sides of a transfer are
+   * removed together.
+   */
   public void delete(UUID movementId) {
-    if (!stockMovementRepository.existsById(movementId)) {
-      throw new ResourceNotFoundException("No stock movement found with id " + movementId);
+    StockMovement movement = getById(movementId);
+    List<StockMovement> movements = movement.getTransferId() != null
+        ? stockMovementRepository.findAllByTransferId(movement.getTransferId())
+        : List.of(movement);
+
+    for (StockMovement reversed : movements) {
+      stockBalanceService.apply(reversed.getItem(), reversed.getLab(), -reversed.getQuantity());
+      stockLotService.apply(reversed.getItem(), reversed.getLab(),
+          reversed.getBatchNumber(), reversed.getExpirationDate(), -reversed.getQuantity());
+      stockSnapshotService.shiftFrom(reversed.getItem(), reversed.getLab(), reversed.getTimestamp(), -reversed.getQuantity());
     }
-    stockMovementRepository.deleteById(movementId);
+    movements.forEach(stockMovementRepository::delete);
+    movements.stream()
+        .map(reversed -> new StockChangedEvent(reversed.getItem().getId(), reversed.getLab().getId()))
+        .distinct()
+        .forEach(eventPublisher::publishEvent);
   }
 }
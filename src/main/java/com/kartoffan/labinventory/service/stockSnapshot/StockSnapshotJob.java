@@ -0,0 +1,26 @@
+package com.kartoffan.labinventory.service.stockSnapshot;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically checkpoints stock quantities and purges snapshots past their
+ * retention. Frequency and retention are configured under {@code app.stock.snapshot}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockSnapshotJob {
+
+  private final StockSnapshotService stockSnapshotService;
+
+  @Scheduled(cron = "${app.stock.snapshot.cron:0 30 0 * * *}")
+  public void run() {
+    int created = stockSnapshotService.createSnapshots();
+    int purged = stockSnapshotService.purgeExpired();
+    log.info("Stock snapshots written: {}, expired snapshots purged: {}", created, purged);
+  }
+}
@@ -0,0 +1,25 @@
+package com.kartoffan.labinventory.service.stockSnapshot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+
+public interface StockSnapshotService {
+
+  int createSnapshots();
+
+  int purgeExpired();
+
+  double getQuantityAsOf(UUID itemId, UUID labId, LocalDateTime asOf);
+
+  List<LedgerBalance> getLedgerBalances();
+
+  Optional<LocalDateTime> getLatestAsOf();
+
+  void shiftFrom(Item item, Lab lab, LocalDateTime from, double delta);
+}
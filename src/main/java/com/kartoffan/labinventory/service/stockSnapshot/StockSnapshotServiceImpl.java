@@ -0,0 +1,161 @@
+package com.kartoffan.labinventory.service.stockSnapshot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockSnapshot;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.StockSnapshotRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockSnapshotServiceImpl implements StockSnapshotService {
+
+  private final StockSnapshotRepository stockSnapshotRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final ItemRepository itemRepository;
+  private final LabRepository labRepository;
+
+  @Value("${app.stock.snapshot.settle-lag:5m}")
+  private Duration settleLag = Duration.ofMinutes(5);
+
+  @Value("${app.stock.snapshot.retention:90d}")
+  private Duration retention = Duration.ofDays(90);
+
+  /**
+   * Checkpoints every (item, lab) quantity as of now minus the settle lag, by
+   * rolling the previous snapshot run forward with the movements recorded since.
+   * The lag leaves in-flight transactions time to commit before their movements
+   * fall behind a checkpoint.
+   */
+  @Override
+  public int createSnapshots() {
+    LocalDateTime asOf = LocalDateTime.now().minus(settleLag);
+    Optional<LocalDateTime> previous = stockSnapshotRepository.findLatestAsOf();
+    if (previous.isPresent() && !previous.get().isBefore(asOf)) {
+      return 0;
+    }
+
+    Map<StockBalanceKey, Double> quantities = previous
+        .map(from -> rollForward(from, stockMovementRepository.sumQuantitiesByItemAndLabBetween(from, asOf)))
+        .orElseGet(() -> merge(new HashMap<>(), stockMovementRepository.sumQuantitiesByItemAndLabUpTo(asOf)));
+
+    UUID lastMovementId = stockMovementRepository
+        .findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(asOf)
+        .map(StockMovement::getId)
+        .orElse(null);
+
+    List<StockSnapshot> snapshots = quantities.entrySet().stream()
+        .map(entry -> StockSnapshot.builder()
+            .item(itemRepository.getReferenceById(entry.getKey().itemId()))
+            .lab(labRepository.getReferenceById(entry.getKey().labId()))
+            .quantity(entry.getValue())
+            .asOf(asOf)
+            .lastMovementId(lastMovementId)
+            .build())
+        .toList();
+
+    stockSnapshotRepository.saveAll(snapshots);
+    return snapshots.size();
+  }
+
+  /**
+   * Deletes snapshots older than the retention period, always keeping the latest run
+   */
+  @Override
+  public int purgeExpired() {
+    Optional<LocalDateTime> latest = stockSnapshotRepository.findLatestAsOf();
+    if (latest.isEmpty()) {
+      return 0;
+    }
+
+    LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+    if (cutoff.isAfter(latest.get())) {
+      cutoff = latest.get();
+    }
+    return stockSnapshotRepository.deleteAllTakenBefore(cutoff);
+  }
+
+  /**
+   * Computes the quantity of an item in a lab at a point in time from the nearest
+   * prior snapshot and the movements recorded after it
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public double getQuantityAsOf(UUID itemId, UUID labId, LocalDateTime asOf) {
+    return stockSnapshotRepository
+        .findFirstByItemIdAndLabIdAndAsOfLessThanEqualOrderByAsOfDesc(itemId, labId, asOf)
+        .map(snapshot -> snapshot.getQuantity()
+            + stockMovementRepository.sumQuantityBetween(itemId, labId, snapshot.getAsOf(), asOf))
+        .orElseGet(() -> stockMovementRepository.sumQuantityUpTo(itemId, labId, asOf));
+  }
+
+  /**
+   * Returns the current ledger total of every (item, lab) pair, starting from the
+   * latest snapshot run instead of aggregating the full history
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<LedgerBalance> getLedgerBalances() {
+    Optional<LocalDateTime> latest = stockSnapshotRepository.findLatestAsOf();
+    if (latest.isEmpty()) {
+      return stockMovementRepository.sumQuantitiesByItemAndLab();
+    }
+
+    return rollForward(latest.get(), stockMovementRepository.sumQuantitiesByItemAndLabSince(latest.get()))
+        .entrySet().stream()
+        .map(entry -> new LedgerBalance(entry.getKey().itemId(), entry.getKey().labId(), entry.getValue()))
+        .toList();
+  }
+
+  /**
+   * Returns the instant of the latest snapshot run, if any
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<LocalDateTime> getLatestAsOf() {
+    return stockSnapshotRepository.findLatestAsOf();
+  }
+
+  /**
+   * Applies a retroactive ledger change to every snapshot taken at or after it
+   */
+  @Override
+  public void shiftFrom(Item item, Lab lab, LocalDateTime from, double delta) {
+    stockSnapshotRepository.shiftFrom(item.getId(), lab.getId(), from, delta);
+  }
+
+  private Map<StockBalanceKey, Double> rollForward(LocalDateTime from, List<LedgerBalance> delta) {
+    Map<StockBalanceKey, Double> quantities = new HashMap<>();
+    for (StockSnapshot snapshot : stockSnapshotRepository.findAllByAsOf(from)) {
+      quantities.put(new StockBalanceKey(snapshot.getItem().getId(), snapshot.getLab().getId()), snapshot.getQuantity());
+    }
+    return merge(quantities, delta);
+  }
+
+  private static Map<StockBalanceKey, Double> merge(Map<StockBalanceKey, Double> quantities, List<LedgerBalance> delta) {
+    for (LedgerBalance row : delta) {
+      quantities.merge(new StockBalanceKey(row.getItemId(), row.getLabId()), row.getQuantity(), Double::sum);
+    }
+    return quantities;
+  }
+}
@@ -0,0 +1,12 @@
+package com.kartoffan.labinventory.service.stockStream;
+
+import java.util.List;
+
+import com.kartoffan.labinventory.dto.stockStream.StockDelta;
+
+/**
+ * Published with the movements written by a stock operation, delivered to
+ * stream subscribers once the operation commits.
+ */
+public record StockMovementsRecordedEvent(List<StockDelta> deltas) {
+}
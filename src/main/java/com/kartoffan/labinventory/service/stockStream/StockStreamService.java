@@ -0,0 +1,10 @@
+package com.kartoffan.labinventory.service.stockStream;
+
+import java.util.UUID;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface StockStreamService {
+
+  SseEmitter subscribe(UUID labId, String lastEventId);
+}
@@ -0,0 +1,335 @@
+package com.kartoffan.labinventory.service.stockStream;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementCursor;
+import com.kartoffan.labinventory.dto.stockStream.StockDelta;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertChangedEvent;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans committed stock movements and alert changes out to the stream
+ * subscribers of each lab. Publishing only offers an event to each
+ * subscriber's bounded buffer; the buffer is drained on a virtual thread, so a
+ * slow client never holds up the transaction that produced the event. A
+ * subscriber whose buffer overflows is disconnected and resumes from the
+ * movement ledger when it reconnects with its Last-Event-ID.
+ * <p>
+ * A movement's timestamp is taken before its transaction commits, so one can
+ * become visible after a later-stamped movement has already been streamed. A
+ * resume therefore replays the settle window before the last seen movement as
+ * well; delivery is at least once and clients skip movement ids they have
+ * already applied.
+ */
+@Slf4j
+@Service
+public class StockStreamServiceImpl implements StockStreamService {
+
+  public static final String DELTA_EVENT = "delta";
+  public static final String ALERT_EVENT = "alert";
+  public static final String RESET_EVENT = "reset";
+  public static final String SUBSCRIBERS_GAUGE = "app.stock.stream.subscribers";
+
+  private static final int REMOTE_BATCH_SIZE = 500;
+  private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+  private final StockMovementRepository stockMovementRepository;
+  private final Duration timeout;
+  private final int bufferSize;
+  private final int replayLimit;
+  private final Duration settleLag;
+
+  private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final Queue<UUID> remoteMovements = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean loadingRemote = new AtomicBoolean();
+
+  public StockStreamServiceImpl(
+      StockMovementRepository stockMovementRepository,
+      @Value("${app.stock.stream.timeout:30m}") Duration timeout,
+      @Value("${app.stock.stream.buffer-size:256}") int bufferSize,
+      @Value("${app.stock.stream.replay-limit:1000}") int replayLimit,
+      @Value("${app.stock.snapshot.settle-lag:5m}") Duration settleLag,
+      MeterRegistry meterRegistry) {
+    this.stockMovementRepository = stockMovementRepository;
+    this.timeout = timeout;
+    this.bufferSize = bufferSize;
+    this.replayLimit = replayLimit;
+    this.settleLag = settleLag;
+
+    Gauge.builder(SUBSCRIBERS_GAUGE, subscribers, all -> all.values().stream().mapToInt(Set::size).sum())
+        .register(meterRegistry);
+  }
+
+  /**
+   * Opens a stream of the changes in a lab, first replaying the movements
+   * recorded since the settle window before the given event id when the client
+   * is reconnecting
+   */
+  @Override
+  public SseEmitter subscribe(UUID labId, String lastEventId) {
+    StockMovementCursor resumeAfter = lastEventId != null && !lastEventId.isBlank()
+        ? StockMovementCursor.decode(lastEventId)
+        : null;
+
+    SseEmitter emitter = new SseEmitter(timeout.toMillis());
+    Subscriber subscriber = new Subscriber(labId, emitter, new ArrayBlockingQueue<>(bufferSize));
+    emitter.onCompletion(() -> remove(subscriber));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(error -> remove(subscriber));
+
+    // Registered before the replay so that nothing committed meanwhile is missed,
+    // live events are held back until the replay is sent
+    subscribers.compute(labId, (key, labSubscribers) -> {
+      Set<Subscriber> updated = labSubscribers != null ? labSubscribers : ConcurrentHashMap.newKeySet();
+      updated.add(subscriber);
+      return updated;
+    });
+
+    if (resumeAfter != null) {
+      replay(subscriber, resumeAfter);
+    }
+    subscriber.draining.set(false);
+    drain(subscriber);
+    return emitter;
+  }
+
+  /**
+   * Pushes the movements of a stock operation once it has committed
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMovementsRecorded(StockMovementsRecordedEvent event) {
+    event.deltas().forEach(this::dispatch);
+  }
+
+  /**
+   * Pushes raised, changed and cleared alerts
+   */
+  @EventListener
+  public void onAlertChanged(StockAlertChangedEvent event) {
+    publish(event.labId(), new StreamEvent(null, ALERT_EVENT, event));
+  }
+
+  /**
+   * Pushes movements committed on other nodes. On a reset every subscriber is
+   * disconnected so that it resumes from the ledger.
+   */
+  @EventListener
+  public void onInvalidation(EntityInvalidation invalidation) {
+    if (!invalidation.isFor(StockMovement.class) || subscribers.isEmpty()) {
+      return;
+    }
+    if (invalidation.isReset()) {
+      subscribers.values().forEach(labSubscribers -> labSubscribers.forEach(this::close));
+      return;
+    }
+    remoteMovements.add(invalidation.id());
+    loadRemoteMovements();
+  }
+
+  /**
+   * Keeps idle connections from being closed by proxies
+   */
+  @Scheduled(fixedRateString = "${app.stock.stream.heartbeat:PT15S}")
+  public void heartbeat() {
+    for (Set<Subscriber> labSubscribers : subscribers.values()) {
+      for (Subscriber subscriber : labSubscribers) {
+        if (subscriber.buffer.offer(HEARTBEAT)) {
+          drain(subscriber);
+        }
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    subscribers.values().forEach(labSubscribers -> labSubscribers.forEach(this::close));
+    senders.shutdownNow();
+  }
+
+  private void replay(Subscriber subscriber, StockMovementCursor resumeAfter) {
+    List<StockMovement> missed = stockMovementRepository.findAllByLabSince(subscriber.labId,
+        resumeAfter.timestamp().minus(settleLag), resumeAfter.id(), PageRequest.of(0, replayLimit + 1));
+
+    try {
+      if (missed.size() > replayLimit) {
+        // Too far behind to catch up movement by movement, the client reloads the quantities
+        StockMovementCursor latest = stockMovementRepository
+            .findFirstByLabIdOrderByTimestampDescIdDesc(subscriber.labId)
+            .map(StockMovementCursor::of)
+            .orElse(resumeAfter);
+        subscriber.emitter.send(SseEmitter.event().id(latest.encode()).name(RESET_EVENT).data(subscriber.labId));
+        return;
+      }
+
+      Set<UUID> replayed = new HashSet<>();
+      for (StockMovement movement : missed) {
+        StreamEvent event = new StreamEvent(StockMovementCursor.of(movement), DELTA_EVENT, StockDelta.of(movement));
+        subscriber.emitter.send(event.toSse());
+        replayed.add(movement.getId());
+      }
+      subscriber.replayed = replayed;
+    } catch (IOException | IllegalStateException exception) {
+      close(subscriber);
+    }
+  }
+
+  private void dispatch(StockDelta delta) {
+    StockMovementCursor cursor = new StockMovementCursor(delta.getTimestamp(), delta.getMovementId());
+    publish(delta.getLabId(), new StreamEvent(cursor, DELTA_EVENT, delta));
+  }
+
+  private void publish(UUID labId, StreamEvent event) {
+    for (Subscriber subscriber : subscribers.getOrDefault(labId, Set.of())) {
+      if (subscriber.buffer.offer(event)) {
+        drain(subscriber);
+      } else {
+        log.debug("Disconnecting slow stock stream subscriber of lab {}", labId);
+        close(subscriber);
+      }
+    }
+  }
+
+  private void drain(Subscriber subscriber) {
+    if (!subscriber.closed && subscriber.draining.compareAndSet(false, true)) {
+      senders.execute(() -> send(subscriber));
+    }
+  }
+
+  private void send(Subscriber subscriber) {
+    try {
+      StreamEvent event;
+      while (!subscriber.closed && (event = subscriber.buffer.poll()) != null) {
+        if (event.cursor() != null && subscriber.replayed.contains(event.cursor().id())) {
+          continue;
+        }
+        subscriber.emitter.send(event.toSse());
+      }
+    } catch (IOException | IllegalStateException exception) {
+      close(subscriber);
+    } finally {
+      subscriber.draining.set(false);
+    }
+    if (!subscriber.buffer.isEmpty()) {
+      drain(subscriber);
+    }
+  }
+
+  private void loadRemoteMovements() {
+    if (!loadingRemote.compareAndSet(false, true)) {
+      return;
+    }
+    senders.execute(() -> {
+      try {
+        List<UUID> ids = new ArrayList<>();
+        UUID id;
+        while ((id = remoteMovements.poll()) != null) {
+          ids.add(id);
+          if (ids.size() == REMOTE_BATCH_SIZE) {
+            dispatchRemote(ids);
+            ids.clear();
+          }
+        }
+        dispatchRemote(ids);
+      } catch (RuntimeException exception) {
+        log.warn("Could not load movements committed on another node", exception);
+      } finally {
+        loadingRemote.set(false);
+      }
+      if (!remoteMovements.isEmpty()) {
+        loadRemoteMovements();
+      }
+    });
+  }
+
+  private void dispatchRemote(List<UUID> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    stockMovementRepository.findAllById(ids).stream()
+        .map(StockDelta::of)
+        .sorted(Comparator.comparing(StockDelta::getTimestamp).thenComparing(StockDelta::getMovementId))
+        .forEach(this::dispatch);
+  }
+
+  private void close(Subscriber subscriber) {
+    subscriber.closed = true;
+    remove(subscriber);
+    try {
+      subscriber.emitter.complete();
+    } catch (IllegalStateException exception) {
+      // Already completed
+    }
+  }
+
+  private void remove(Subscriber subscriber) {
+    subscriber.closed = true;
+    subscribers.computeIfPresent(subscriber.labId, (labId, labSubscribers) -> {
+      labSubscribers.remove(subscriber);
+      return labSubscribers.isEmpty() ? null : labSubscribers;
+    });
+  }
+
+  private static final class Subscriber {
+    private final UUID labId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<StreamEvent> buffer;
+    // Set while a sender drains the buffer, and until the replay is sent
+    private final AtomicBoolean draining = new AtomicBoolean(true);
+    // Movements sent by the replay that may also be waiting in the buffer
+    private volatile Set<UUID> replayed = Set.of();
+    private volatile boolean closed;
+
+    private Subscriber(UUID labId, SseEmitter emitter, BlockingQueue<StreamEvent> buffer) {
+      this.labId = labId;
+      this.emitter = emitter;
+      this.buffer = buffer;
+    }
+  }
+
+  /**
+   * A pending stream event. Only movement deltas carry an id, the cursor a
+   * reconnecting client resumes from; an event without a name is a heartbeat.
+   */
+  private record StreamEvent(StockMovementCursor cursor, String name, Object data) {
+
+    SseEmitter.SseEventBuilder toSse() {
+      if (name == null) {
+        return SseEmitter.event().comment("heartbeat");
+      }
+      SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data);
+      return cursor != null ? event.id(cursor.encode()) : event;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.kartoffan.labinventory.service.stockTransfer;
+
+import java.time.LocalDate;
+
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+
+/**
+ * A resolved transfer of an item between two labs. The batch number and
+ * expiration date apply to the part of the stock not tracked per lot.
+ */
+public record StockTransfer(
+    Item item,
+    Lab fromLab,
+    Lab toLab,
+    double quantity,
+    String batchNumber,
+    LocalDate expirationDate,
+    String reason,
+    User performedBy
+) {}
@@ -0,0 +1,19 @@
+package com.kartoffan.labinventory.service.stockTransfer;
+
+import java.util.List;
+
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.model.StockMovement;
+
+public interface StockTransferService {
+
+  /**
+   * Moves stock between two labs and records the transfer movements
+   */
+  List<StockMovement> transfer(StockTransfer transfer);
+
+  /**
+   * Moves stock between two balances the caller already locked, returns the unsaved movements
+   */
+  List<StockMovement> transfer(StockTransfer transfer, StockBalance source, StockBalance destination);
+}
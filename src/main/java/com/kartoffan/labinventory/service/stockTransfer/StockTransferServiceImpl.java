@@ -0,0 +1,130 @@
+package com.kartoffan.labinventory.service.stockTransfer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stockStream.StockDelta;
+import com.kartoffan.labinventory.exception.BadRequestException;
+import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockLot.StockLotAllocation;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
+import com.kartoffan.labinventory.service.stockStream.StockMovementsRecordedEvent;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Moves stock between labs in a single transaction. Both balance rows are
+ * locked together, in primary key order, before either is changed, so
+ * transfers running in opposite directions queue up instead of deadlocking.
+ * Each transfer is recorded as TRANSFER_OUT and TRANSFER_IN movements sharing
+ * one transfer id, a pair per lot issued at the source.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockTransferServiceImpl implements StockTransferService {
+
+  private final StockMovementRepository stockMovementRepository;
+  private final StockBalanceService stockBalanceService;
+  private final StockLotService stockLotService;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @Override
+  public List<StockMovement> transfer(StockTransfer transfer) {
+    requireValid(transfer);
+    StockBalanceKey sourceKey = new StockBalanceKey(transfer.item().getId(), transfer.fromLab().getId());
+    StockBalanceKey destinationKey = new StockBalanceKey(transfer.item().getId(), transfer.toLab().getId());
+
+    stockBalanceService.ensureBalances(Set.of(destinationKey));
+    Map<StockBalanceKey, StockBalance> balances = stockBalanceService.lockBalances(Set.of(sourceKey, destinationKey));
+    List<StockMovement> movements = transfer(transfer, balances.get(sourceKey), balances.get(destinationKey));
+
+    stockMovementRepository.saveAll(movements);
+    eventPublisher.publishEvent(new StockChangedEvent(transfer.item().getId(), transfer.fromLab().getId()));
+    eventPublisher.publishEvent(new StockChangedEvent(transfer.item().getId(), transfer.toLab().getId()));
+    eventPublisher.publishEvent(new StockMovementsRecordedEvent(movements.stream().map(StockDelta::of).toList()));
+    return movements;
+  }
+
+  /**
+   * Checks the source holds enough stock, moves the quantity between the
+   * balances and issues it from the source lots first-expired-first-out. The
+   * lots are received with the same batch and expiration date at the
+   * destination. A rejected transfer leaves the rollback to the caller, so a
+   * batch can reject the line and still commit the others.
+   */
+  @Override
+  @Transactional(noRollbackFor = { BadRequestException.class, InsufficientStockException.class })
+  public List<StockMovement> transfer(StockTransfer transfer, StockBalance source, StockBalance destination) {
+    requireValid(transfer);
+    double quantity = transfer.quantity();
+    double available = source != null ? source.getQuantity() : 0.0;
+    if (available < quantity) {
+      throw new InsufficientStockException(transfer.item().getName(), available, quantity);
+    }
+
+    source.setQuantity(available - quantity);
+    destination.setQuantity(destination.getQuantity() + quantity);
+
+    List<StockLotAllocation> allocations = StockLotAllocation.withRemainder(
+        stockLotService.allocate(transfer.item(), transfer.fromLab(), quantity), quantity);
+    UUID transferId = UUID.randomUUID();
+    List<StockMovement> movements = new ArrayList<>(allocations.size() * 2);
+
+    for (StockLotAllocation allocation : allocations) {
+      String batchNumber = allocation.isTracked() ? allocation.batchNumber() : transfer.batchNumber();
+      LocalDate expirationDate = allocation.isTracked() ? allocation.expirationDate() : transfer.expirationDate();
+
+      movements.add(StockMovement.builder()
+          .item(transfer.item())
+          .lab(transfer.fromLab())
+          .type(MovementType.TRANSFER_OUT)
+          .quantity(-allocation.quantity())
+          .batchNumber(allocation.batchNumber())
+          .expirationDate(allocation.expirationDate())
+          .transferId(transferId)
+          .reference("Transfer to lab " + transfer.toLab().getId())
+          .reason(transfer.reason())
+          .performedBy(transfer.performedBy())
+          .build());
+      movements.add(StockMovement.builder()
+          .item(transfer.item())
+          .lab(transfer.toLab())
+          .type(MovementType.TRANSFER_IN)
+          .quantity(allocation.quantity())
+          .batchNumber(batchNumber)
+          .expirationDate(expirationDate)
+          .transferId(transferId)
+          .reference("Transfer from lab " + transfer.fromLab().getId())
+          .reason(transfer.reason())
+          .performedBy(transfer.performedBy())
+          .build());
+      stockLotService.apply(transfer.item(), transfer.toLab(), batchNumber, expirationDate, allocation.quantity());
+    }
+    return movements;
+  }
+
+  private static void requireValid(StockTransfer transfer) {
+    if (transfer.quantity() <= 0) {
+      throw new BadRequestException("Quantity must be positive");
+    }
+    if (transfer.fromLab().getId().equals(transfer.toLab().getId())) {
+      throw new BadRequestException("Source and destination labs must differ");
+    }
+  }
+}
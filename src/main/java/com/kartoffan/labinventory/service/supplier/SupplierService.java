@@ -1,5 +1,7 @@
 package com.kartoffan.labinventory.service.supplier;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -16,6 +18,8 @@ public interface SupplierService {
 
   Supplier getById(UUID supplierId);
 
+  List<Supplier> getAllByIds(Collection<UUID> supplierIds);
+
   Supplier update(UUID supplierId, UpdateSupplierRequest request);
 
   void archive(UUID supplierId);
@@ -1,5 +1,7 @@
 package com.kartoffan.labinventory.service.supplier;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
@@ -54,6 +56,11 @@ public class SupplierServiceImpl implements SupplierService {
         .orElseThrow(() -> new ResourceNotFoundException("No supplier found with id " + supplierId));
   }
 
+  @Override
+  public List<Supplier> getAllByIds(Collection<UUID> supplierIds) {
+    return supplierRepository.findAllById(supplierIds);
+  }
+
   @Override
   public Supplier update(UUID supplierId, UpdateSupplierRequest request) {
     Supplier supplier = supplierRepository.findById(supplierId)
@@ -1,5 +1,6 @@
 package com.kartoffan.labinventory.service.user;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,6 +11,8 @@ public interface UserService {
 
   User getById(UUID userId);
 
+  List<User> getAllByIds(Collection<UUID> userIds);
+
   List<User> getAll();
 
   User update(UUID userId, UpdateUserRequest request);
@@ -1,5 +1,6 @@
 package com.kartoffan.labinventory.service.user;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,6 +14,7 @@ import com.kartoffan.labinventory.dto.user.UpdateUserRequest;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.User;
 import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.PrincipalCache;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
   private final UserRepository userRepository;
+  private final PrincipalCache principalCache;
   
   /**
    * Fetches a user by its unique ID
@@ -30,6 +33,16 @@ public class UserServiceImpl implements UserService {
         .orElseThrow(() -> new ResourceNotFoundException("No active user found with id " + userId));
   }
 
+  /**
+   * Fetches all active users matching the given IDs in a single query
+   */
+  @Override
+  public List<User> getAllByIds(Collection<UUID> userIds) {
+    return userRepository.findAllById(userIds).stream()
+        .filter(User::getIsActive)
+        .toList();
+  }
+
   /**
    * Returns the list of all users
    */
@@ -58,7 +71,9 @@ public class UserServiceImpl implements UserService {
       user.setRole(request.getRole());
     }
 
-    return userRepository.save(user);
+    User saved = userRepository.save(user);
+    principalCache.evict(saved.getEmail());
+    return saved;
   }
 
   /**
@@ -69,6 +84,7 @@ public class UserServiceImpl implements UserService {
     User user = getById(userId);
     user.setIsActive(false);
     userRepository.save(user);
+    principalCache.evict(user.getEmail());
   }
 
   /**
@@ -79,6 +95,7 @@ public class UserServiceImpl implements UserService {
     User user = getById(userId);
     user.setIsActive(true);
     userRepository.save(user);
+    principalCache.evict(user.getEmail());
   }
 
   /**
@@ -14,12 +14,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import com.kartoffan.labinventory.dto.auth.*;
 import com.kartoffan.labinventory.exception.*;
 import com.kartoffan.labinventory.model.User;
 import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.PasswordHasher;
 import com.kartoffan.labinventory.security.jwt.JwtUtil;
 import com.kartoffan.labinventory.security.role.Role;
 import com.kartoffan.labinventory.service.auth.AuthService;
@@ -33,7 +33,7 @@ class AuthServiceTest {
   private UserRepository userRepository;
 
   @Mock
-  private BCryptPasswordEncoder passwordEncoder;
+  private PasswordHasher passwordHasher;
 
   @Mock
   private JwtUtil jwtUtil;
@@ -74,7 +74,7 @@ class AuthServiceTest {
     String token = "jwt-token-123";
     when(userRepository.findByEmailAndIsActiveTrue(loginRequest.getEmail()))
         .thenReturn(Optional.of(testUser));
-    when(passwordEncoder.matches(loginRequest.getPassword(), testUser.getPasswordHash()))
+    when(passwordHasher.matches(loginRequest.getPassword(), testUser.getPasswordHash()))
         .thenReturn(true);
     when(jwtUtil.generateToken(testUser.getEmail()))
         .thenReturn(token);
@@ -94,7 +94,7 @@ class AuthServiceTest {
     assertEquals("/", cookie.getPath());
 
     verify(userRepository).findByEmailAndIsActiveTrue(loginRequest.getEmail());
-    verify(passwordEncoder).matches(loginRequest.getPassword(), testUser.getPasswordHash());
+    verify(passwordHasher).matches(loginRequest.getPassword(), testUser.getPasswordHash());
     verify(jwtUtil).generateToken(testUser.getEmail());
   }
 
@@ -117,7 +117,7 @@ class AuthServiceTest {
   void login_WithWrongPassword_ShouldThrowInvalidCredentialsException() {
     when(userRepository.findByEmailAndIsActiveTrue(loginRequest.getEmail()))
         .thenReturn(Optional.of(testUser));
-    when(passwordEncoder.matches(loginRequest.getPassword(), testUser.getPasswordHash()))
+    when(passwordHasher.matches(loginRequest.getPassword(), testUser.getPasswordHash()))
         .thenReturn(false);
 
     InvalidCredentialsException exception = assertThrows(
@@ -147,7 +147,7 @@ class AuthServiceTest {
   void signup_WithValidRequest_ShouldCreateUserAndReturnAuthResult() {
     String token = "jwt-token-123";
     when(userRepository.existsByEmail(signupRequest.getEmail())).thenReturn(false);
-    when(passwordEncoder.encode(signupRequest.getPassword())).thenReturn("encodedPassword");
+    when(passwordHasher.encode(signupRequest.getPassword())).thenReturn("encodedPassword");
     when(jwtUtil.generateToken(signupRequest.getEmail())).thenReturn(token);
     when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
@@ -167,7 +167,7 @@ class AuthServiceTest {
     assertEquals("LAB_ADMIN", response.getRole());
     
     verify(userRepository, times(2)).save(any(User.class));
-    verify(passwordEncoder).encode(signupRequest.getPassword());
+    verify(passwordHasher).encode(signupRequest.getPassword());
     verify(jwtUtil).generateToken(signupRequest.getEmail());
   }
 
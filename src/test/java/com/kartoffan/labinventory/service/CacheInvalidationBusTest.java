@@ -0,0 +1,58 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.event.EventListener;
+
+import com.kartoffan.labinventory.cache.CacheInvalidationBus;
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.cache.InMemoryInvalidationTransport;
+import com.kartoffan.labinventory.model.Item;
+
+class CacheInvalidationBusTest {
+
+  private final ApplicationContextRunner node = new ApplicationContextRunner()
+      .withPropertyValues("app.cache.invalidation.transport=memory")
+      .withUserConfiguration(InMemoryInvalidationTransport.class, CacheInvalidationBus.class,
+          RecordingListener.class);
+
+  static class RecordingListener {
+
+    final List<EntityInvalidation> received = new CopyOnWriteArrayList<>();
+
+    @EventListener
+    void on(EntityInvalidation invalidation) {
+      received.add(invalidation);
+    }
+  }
+
+  @Test
+  void publish_republishesRemoteInvalidationsAsEvents() {
+    UUID itemId = UUID.randomUUID();
+
+    node.run(first -> node.run(second -> {
+      first.getBean(CacheInvalidationBus.class).publish(Item.class, itemId);
+
+      assertTrue(first.getBean(RecordingListener.class).received.isEmpty());
+      List<EntityInvalidation> received = second.getBean(RecordingListener.class).received;
+      assertEquals(1, received.size());
+      assertTrue(received.get(0).isFor(Item.class));
+      assertEquals(itemId, received.get(0).id());
+    }));
+  }
+
+  @Test
+  void decode_roundTripsEncodedInvalidation() {
+    EntityInvalidation invalidation = new EntityInvalidation("Lab", UUID.randomUUID(), "node-1");
+
+    assertEquals(invalidation, EntityInvalidation.decode(invalidation.encode()));
+    assertTrue(EntityInvalidation.decode(EntityInvalidation.reset().encode()).isReset());
+    assertThrows(IllegalArgumentException.class, () -> EntityInvalidation.decode("garbage"));
+  }
+}
@@ -0,0 +1,144 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kartoffan.labinventory.dto.item.ItemFilter;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.CategoryClosure;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.CategoryClosureRepository;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.spec.ItemSpecifications;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CategoryHierarchyTest {
+
+  private static final int SUBTREE = 10_000;
+
+  @Autowired
+  private CategoryClosureRepository categoryClosureRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Lab lab;
+
+  @BeforeEach
+  void setUp() {
+    lab = StockFixtures.lab(labRepository);
+  }
+
+  @Test
+  void moveSubtree_relinksEveryDescendantInTwoStatements() {
+    Category left = categoryRepository.save(category(null));
+    Category right = categoryRepository.save(category(null));
+    Category moved = categoryRepository.save(category(left));
+    List<Category> leaves = new ArrayList<>(SUBTREE);
+    for (int i = 0; i < SUBTREE; i++) {
+      leaves.add(category(moved));
+    }
+    categoryRepository.saveAllAndFlush(leaves);
+    categoryClosureRepository.deleteAllRows();
+    categoryClosureRepository.insertFromParentLinks();
+    UUID leafId = leaves.get(SUBTREE - 1).getId();
+    assertTrue(categoryClosureRepository.existsByAncestorIdAndDescendantId(left.getId(), leafId));
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    categoryClosureRepository.detachSubtree(moved.getId());
+    categoryClosureRepository.attachSubtree(moved.getId(), right.getId());
+
+    assertEquals(2, statistics.getPrepareStatementCount());
+    assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(left.getId(), leafId));
+    assertFalse(categoryClosureRepository.existsByAncestorIdAndDescendantId(left.getId(), moved.getId()));
+    assertEquals(2, categoryClosureRepository.findById(new CategoryClosure.Key(right.getId(), leafId))
+        .orElseThrow().getDepth());
+    assertEquals(1, categoryClosureRepository.findById(new CategoryClosure.Key(moved.getId(), leafId))
+        .orElseThrow().getDepth());
+  }
+
+  @Test
+  void lockSubtree_locksTheCategoryAndItsDescendants() {
+    Category root = categoryRepository.save(category(null));
+    Category child = categoryRepository.save(category(root));
+    Category grandchild = categoryRepository.save(category(child));
+    Category sibling = categoryRepository.save(category(root));
+    categoryRepository.flush();
+    categoryClosureRepository.deleteAllRows();
+    categoryClosureRepository.insertFromParentLinks();
+
+    assertEquals(Set.of(child.getId(), grandchild.getId()), Set.copyOf(categoryClosureRepository.lockSubtree(child.getId())));
+    assertFalse(categoryClosureRepository.lockSubtree(child.getId()).contains(sibling.getId()));
+  }
+
+  @Test
+  void itemFilter_includeDescendants_matchesWholeSubtree() {
+    Category root = leaf(null);
+    Category child = leaf(root);
+    Category grandchild = leaf(child);
+    Category other = leaf(null);
+    Item rootItem = StockFixtures.item(itemRepository, lab, root);
+    Item grandchildItem = StockFixtures.item(itemRepository, lab, grandchild);
+    StockFixtures.item(itemRepository, lab, other);
+
+    ItemFilter filter = new ItemFilter();
+    filter.setCategoryId(root.getId());
+
+    assertEquals(List.of(rootItem.getId()), ids(itemRepository.findAll(ItemSpecifications.fromFilter(filter))));
+
+    filter.setIncludeDescendants(true);
+
+    List<UUID> subtree = ids(itemRepository.findAll(ItemSpecifications.fromFilter(filter)));
+    assertEquals(2, subtree.size());
+    assertTrue(subtree.containsAll(List.of(rootItem.getId(), grandchildItem.getId())));
+  }
+
+  private Category leaf(Category parent) {
+    Category category = categoryRepository.save(category(parent));
+    categoryClosureRepository.insertLeaf(category.getId(), parent != null ? parent.getId() : null);
+    return category;
+  }
+
+  private Category category(Category parent) {
+    return Category.builder()
+        .name("Category " + UUID.randomUUID())
+        .lab(lab)
+        .parentCategory(parent)
+        .build();
+  }
+
+  private static List<UUID> ids(List<Item> items) {
+    return items.stream().map(Item::getId).toList();
+  }
+}
@@ -11,6 +11,7 @@ import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -22,11 +23,13 @@ import org.springframework.security.access.AccessDeniedException;
 
 import com.kartoffan.labinventory.dto.category.CreateCategoryRequest;
 import com.kartoffan.labinventory.dto.category.UpdateCategoryRequest;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.ResourceAlreadyExistsException;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.Category;
 import com.kartoffan.labinventory.model.Lab;
 import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryClosureRepository;
 import com.kartoffan.labinventory.repository.CategoryRepository;
 import com.kartoffan.labinventory.service.category.CategoryServiceImpl;
 import com.kartoffan.labinventory.service.lab.LabService;
@@ -38,6 +41,9 @@ public class CategoryServiceTest {
   @Mock
   private CategoryRepository categoryRepository;
 
+  @Mock
+  private CategoryClosureRepository categoryClosureRepository;
+
   @Mock
   private UserService userService;
 
@@ -58,7 +64,7 @@ public class CategoryServiceTest {
     categoryId = UUID.randomUUID();
     labId = UUID.randomUUID();
 
-    manager = new User();
+    manager = User.builder().id(UUID.randomUUID()).build();
     lab = new Lab();
     lab.setManager(manager);
 
@@ -87,6 +93,7 @@ public class CategoryServiceTest {
     assertEquals("Chemicals", result.getName());
     assertEquals(lab, result.getLab());
     verify(categoryRepository).save(any(Category.class));
+    verify(categoryClosureRepository).insertLeaf(result.getId(), null);
   }
 
   @Test
@@ -106,7 +113,7 @@ public class CategoryServiceTest {
     request.setName("Chemicals");
     request.setLabId(labId);
 
-    User otherUser = new User();
+    User otherUser = User.builder().id(UUID.randomUUID()).build();
 
     when(categoryRepository.existsByName("Chemicals")).thenReturn(false);
     when(labService.getById(labId)).thenReturn(lab);
@@ -185,6 +192,47 @@ public class CategoryServiceTest {
     assertEquals("Updated Name", updated.getName());
   }
 
+  @Test
+  void updateCategory_newParent_movesWholeSubtree() {
+    UUID parentId = UUID.randomUUID();
+    Category parent = Category.builder().id(parentId).name("Solvents").lab(lab).isActive(true).build();
+    UpdateCategoryRequest request = new UpdateCategoryRequest();
+    request.setParentCategoryId(parentId);
+
+    when(categoryRepository.findByIdAndIsActiveTrue(categoryId)).thenReturn(Optional.of(category));
+    when(categoryRepository.findByIdAndIsActiveTrue(parentId)).thenReturn(Optional.of(parent));
+    when(userService.getCurrentUser()).thenReturn(manager);
+    when(categoryClosureRepository.existsByAncestorIdAndDescendantId(categoryId, parentId)).thenReturn(false);
+    when(categoryRepository.save(any(Category.class))).thenAnswer(i -> i.getArgument(0));
+
+    Category updated = categoryService.update(categoryId, request);
+
+    assertEquals(parent, updated.getParentCategory());
+    InOrder closure = inOrder(categoryClosureRepository);
+    closure.verify(categoryClosureRepository).lockSubtree(categoryId);
+    closure.verify(categoryClosureRepository).existsByAncestorIdAndDescendantId(categoryId, parentId);
+    closure.verify(categoryClosureRepository).detachSubtree(categoryId);
+    closure.verify(categoryClosureRepository).attachSubtree(categoryId, parentId);
+  }
+
+  @Test
+  void updateCategory_parentInOwnSubtree_throwsException() {
+    UUID childId = UUID.randomUUID();
+    Category child = Category.builder().id(childId).name("Acids").lab(lab).parentCategory(category).isActive(true).build();
+    UpdateCategoryRequest request = new UpdateCategoryRequest();
+    request.setParentCategoryId(childId);
+
+    when(categoryRepository.findByIdAndIsActiveTrue(categoryId)).thenReturn(Optional.of(category));
+    when(categoryRepository.findByIdAndIsActiveTrue(childId)).thenReturn(Optional.of(child));
+    when(userService.getCurrentUser()).thenReturn(manager);
+    when(categoryClosureRepository.existsByAncestorIdAndDescendantId(categoryId, childId)).thenReturn(true);
+
+    assertThrows(BadRequestException.class, () -> categoryService.update(categoryId, request));
+
+    verify(categoryClosureRepository, never()).detachSubtree(any());
+    assertNull(category.getParentCategory());
+  }
+
   @Test
   void updateCategory_notFound_throwsException() {
     when(categoryRepository.findByIdAndIsActiveTrue(categoryId))
@@ -0,0 +1,157 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kartoffan.labinventory.api.GlobalExceptionHandler;
+import com.kartoffan.labinventory.api.IdempotencyFilter;
+import com.kartoffan.labinventory.controller.StockController;
+import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.service.idempotency.IdempotencyClaim;
+import com.kartoffan.labinventory.service.idempotency.IdempotencyService;
+import com.kartoffan.labinventory.service.idempotency.IdempotencyServiceImpl;
+import com.kartoffan.labinventory.service.lab.LabService;
+import com.kartoffan.labinventory.service.stock.StockService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockStream.StockStreamService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ IdempotencyServiceImpl.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyFilterTest {
+
+  private static final int CLIENTS = 16;
+
+  @Autowired
+  private IdempotencyService idempotencyService;
+
+  private StockService stockService;
+  private MockMvc mockMvc;
+  private String body;
+
+  @BeforeEach
+  void setUp() {
+    stockService = mock(StockService.class);
+    mockMvc = MockMvcBuilders
+        .standaloneSetup(new StockController(
+            stockService, mock(StockBalanceService.class), mock(StockStreamService.class), mock(LabService.class)))
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .addFilters(new IdempotencyFilter(idempotencyService, new ObjectMapper().registerModule(new JavaTimeModule())))
+        .build();
+    body = "{\"itemId\":\"" + UUID.randomUUID() + "\",\"labId\":\"" + UUID.randomUUID() + "\",\"quantity\":5}";
+  }
+
+  @Test
+  void retry_replaysFirstResponseWithoutRunningAgain() throws Exception {
+    String key = UUID.randomUUID().toString();
+
+    stockIn(key, body)
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    stockIn(key, body)
+        .andExpect(status().isOk())
+        .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+        .andExpect(content().string("Stock added successfully"));
+
+    verify(stockService, times(1)).stockIn(any());
+  }
+
+  @Test
+  void sameKeyWithDifferentPayload_isRejected() throws Exception {
+    String key = UUID.randomUUID().toString();
+
+    stockIn(key, body).andExpect(status().isOk());
+    stockIn(key, body.replace("\"quantity\":5", "\"quantity\":6"))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+
+    verify(stockService, times(1)).stockIn(any());
+  }
+
+  @Test
+  void failedRequest_releasesKeyForRetry() throws Exception {
+    String key = UUID.randomUUID().toString();
+    doThrow(new InsufficientStockException("Ethanol")).doNothing().when(stockService).stockOut(any());
+
+    mockMvc.perform(post("/api/v1/stocks/out")
+            .header(IdempotencyFilter.KEY_HEADER, key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isConflict());
+    mockMvc.perform(post("/api/v1/stocks/out")
+            .header(IdempotencyFilter.KEY_HEADER, key)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+
+    verify(stockService, times(2)).stockOut(any());
+  }
+
+  @Test
+  void concurrentDuplicates_onlyOneClaimsTheKey() throws Exception {
+    String key = UUID.randomUUID().toString();
+    ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<IdempotencyClaim>> claims = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < CLIENTS; i++) {
+        claims.add(executor.submit(() -> {
+          start.await();
+          return idempotencyService.claim("scanner@lab.test", key, "hash");
+        }));
+      }
+      start.countDown();
+
+      int acquired = 0;
+      for (Future<IdempotencyClaim> claim : claims) {
+        if (claim.get(30, TimeUnit.SECONDS).acquired()) {
+          acquired++;
+        }
+      }
+      assertEquals(1, acquired);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ResultActions stockIn(String key, String content) throws Exception {
+    return mockMvc.perform(post("/api/v1/stocks/in")
+        .header(IdempotencyFilter.KEY_HEADER, key)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(content));
+  }
+}
@@ -0,0 +1,163 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.kartoffan.labinventory.config.ItemSearchIndexInitializer;
+import com.kartoffan.labinventory.dto.item.ItemFilter;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.spec.ItemSpecifications;
+import com.kartoffan.labinventory.service.item.PostgresTrigramItemSearchEngine;
+
+/**
+ * Checks that the trigram indexes make both the leading-wildcard LIKE filter
+ * and pg_trgm search faster at p50 and p99 than the LIKE filter without them.
+ * Needs Docker; excluded from the default build, run with
+ * {@code mvn test -Dgroups=benchmark -Dexcluded.test.groups=} and size the
+ * catalogue with {@code -Dsearch.benchmark.items}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ PostgresTrigramItemSearchEngine.class, ItemSearchIndexInitializer.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ItemSearchBenchmarkTest {
+
+  private static final int ITEMS = Integer.getInteger("search.benchmark.items", 1_000_000);
+  private static final int INSERT_BATCH = 10_000;
+  private static final int SAMPLES = 200;
+  private static final String[] WORDS = {
+      "sodium", "chloride", "ethanol", "acetone", "buffer", "pipette", "tips", "nitrile", "gloves",
+      "agarose", "tris", "glycine", "methanol", "sulfate", "phosphate", "reagent", "filter", "flask" };
+  private static final List<String> QUERIES = List.of("ethanol", "pipete", "sulfate 12", "nitril glove", "tris-hcl");
+
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @BeforeAll
+  static void startDatabase() {
+    POSTGRES.start();
+  }
+
+  @AfterAll
+  static void stopDatabase() {
+    POSTGRES.stop();
+  }
+
+  @DynamicPropertySource
+  static void databaseProperties(DynamicPropertyRegistry registry) {
+    POSTGRES.start();
+    registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+    registry.add("spring.datasource.username", POSTGRES::getUsername);
+    registry.add("spring.datasource.password", POSTGRES::getPassword);
+    registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+    registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    registry.add("app.item-search.engine", () -> "postgres");
+  }
+
+  @Autowired
+  private PostgresTrigramItemSearchEngine searchEngine;
+
+  @Autowired
+  private ItemSearchIndexInitializer indexInitializer;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Test
+  void trigramIndexes_beatUnindexedLike() {
+    Lab lab = StockFixtures.lab(labRepository);
+    seedItems(lab, StockFixtures.category(categoryRepository, lab));
+    jdbcTemplate.execute("ANALYZE items");
+
+    Latency unindexed = measure(this::searchWithLike);
+
+    indexInitializer.init();
+    jdbcTemplate.execute("ANALYZE items");
+
+    assertFaster(measure(this::searchWithLike), unindexed, "LIKE with trigram index");
+    assertFaster(measure(query -> searchEngine.search(query, null, 20)), unindexed, "pg_trgm similarity");
+  }
+
+  private void searchWithLike(String query) {
+    ItemFilter filter = new ItemFilter();
+    filter.setSearch(query);
+    itemRepository.findAll(ItemSpecifications.fromFilter(filter), PageRequest.of(0, 20));
+  }
+
+  private static void assertFaster(Latency indexed, Latency unindexed, String label) {
+    assertTrue(indexed.p50() < unindexed.p50() && indexed.p99() < unindexed.p99(), () -> String.format(
+        "%s over %d items: p50 %.2f ms, p99 %.2f ms; unindexed LIKE: p50 %.2f ms, p99 %.2f ms",
+        label, ITEMS, indexed.p50(), indexed.p99(), unindexed.p50(), unindexed.p99()));
+  }
+
+  private Latency measure(Consumer<String> search) {
+    QUERIES.forEach(search);
+
+    long[] samples = new long[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) {
+      long started = System.nanoTime();
+      search.accept(QUERIES.get(i % QUERIES.size()));
+      samples[i] = System.nanoTime() - started;
+    }
+
+    Arrays.sort(samples);
+    return new Latency(samples[SAMPLES / 2] / 1e6, samples[SAMPLES * 99 / 100] / 1e6);
+  }
+
+  private void seedItems(Lab lab, Category category) {
+    String sql = "INSERT INTO items (id, name, code, lab_id, category_id, unit, low_stock_threshold, "
+        + "reorder_level, min_quantity, max_quantity, is_active, created_at) "
+        + "VALUES (?, ?, ?, ?, ?, 'pcs', 5, 10, 0, 100, true, ?)";
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+    for (int offset = 0; offset < ITEMS; offset += INSERT_BATCH) {
+      List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+      for (int i = offset; i < Math.min(offset + INSERT_BATCH, ITEMS); i++) {
+        String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+        String code = WORDS[i % WORDS.length].substring(0, 3).toUpperCase() + "-" + i;
+        batch.add(new Object[] { UUID.randomUUID(), name, code, lab.getId(), category.getId(), now });
+      }
+      jdbcTemplate.batchUpdate(sql, batch);
+    }
+  }
+
+  private record Latency(double p50, double p99) {}
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +23,7 @@ import org.springframework.data.jpa.domain.Specification;
 import com.kartoffan.labinventory.dto.item.CreateItemRequest;
 import com.kartoffan.labinventory.dto.item.ItemFilter;
 import com.kartoffan.labinventory.dto.item.UpdateItemRequest;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.ResourceAlreadyExistsException;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.Category;
@@ -29,6 +31,7 @@ import com.kartoffan.labinventory.model.Item;
 import com.kartoffan.labinventory.model.Lab;
 import com.kartoffan.labinventory.repository.ItemRepository;
 import com.kartoffan.labinventory.service.category.CategoryService;
+import com.kartoffan.labinventory.service.item.ItemSearchEngine;
 import com.kartoffan.labinventory.service.item.ItemServiceImpl;
 import com.kartoffan.labinventory.service.lab.LabService;
 
@@ -44,6 +47,12 @@ public class ItemServiceTest {
   @Mock
   private CategoryService categoryService;
 
+  @Mock
+  private ItemSearchEngine itemSearchEngine;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private ItemServiceImpl itemService;
 
@@ -92,6 +101,7 @@ public class ItemServiceTest {
      assertEquals(lab, result.getLab());
      assertEquals(category, result.getCategory());
      verify(itemRepository).save(any(Item.class));
+     verify(itemSearchEngine).index(result);
    }
   
   @Test
@@ -144,6 +154,7 @@ public class ItemServiceTest {
     itemService.archive(itemId);
 
     assertFalse(item.getIsActive());
+    verify(itemSearchEngine).index(item);
   }
 
   @Test
@@ -170,4 +181,23 @@ public class ItemServiceTest {
     assertEquals(1, result.getTotalElements());
     verify(itemRepository).findAll(argThat((Specification<Item> spec) -> true), eq(pageable));
   }
+
+  @Test
+  void search_returnsItemsInRankedOrder() {
+    Item other = Item.builder().id(UUID.randomUUID()).name("Methanol").build();
+    when(itemSearchEngine.search("ethanol", labId, 10)).thenReturn(List.of(other.getId(), itemId));
+    when(itemRepository.findAllById(List.of(other.getId(), itemId))).thenReturn(List.of(item, other));
+
+    List<Item> result = itemService.search("  Ethanol ", labId, 10);
+
+    assertEquals(List.of(other, item), result);
+  }
+
+  @Test
+  void search_blankQuery_throwsException() {
+    assertThrows(BadRequestException.class,
+        () -> itemService.search(" ", labId, 10));
+
+    verifyNoInteractions(itemSearchEngine);
+  }
 }
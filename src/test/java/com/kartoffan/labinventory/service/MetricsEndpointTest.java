@@ -0,0 +1,67 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.security.role.Authority;
+import com.kartoffan.labinventory.service.lab.LabService;
+
+@SpringBootTest(properties = {
+    "jwt.secret=metrics-test-secret-key-with-at-least-32-bytes",
+    "jwt.expiration=3600000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private LabService labService;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Test
+  void prometheusEndpoint_exposesApplicationAndHibernateMetrics() throws Exception {
+    labService.getAll(null, null, PageRequest.of(0, 10));
+    stockMovementRepository.sumQuantityUpTo(UUID.randomUUID(), UUID.randomUUID(), LocalDateTime.now());
+    mockMvc.perform(get("/api/v1/labs")).andExpect(status().isForbidden());
+    mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    mockMvc.perform(get("/actuator/prometheus").with(user("staff").authorities(new SimpleGrantedAuthority("STOCK_READ"))))
+        .andExpect(status().isForbidden());
+
+    String scrape = mockMvc.perform(get("/actuator/prometheus")
+            .with(user("admin").authorities(new SimpleGrantedAuthority(Authority.METRICS_READ.name()))))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertTrue(scrape.contains("http_server_requests_seconds_bucket"));
+    assertTrue(scrape.contains("app_service_calls_seconds_count{class=\"LabServiceImpl\""));
+    assertTrue(scrape.contains("app_repository_calls_seconds_count{class=\"StockMovementRepository\""));
+    assertTrue(scrape.contains("app_db_queries_bucket"));
+    assertTrue(scrape.contains("hibernate_entities_loads_total"));
+    assertTrue(scrape.contains("hibernate_flushes_total"));
+    assertTrue(scrape.contains("hibernate_second_level_cache_requests_total"));
+  }
+}
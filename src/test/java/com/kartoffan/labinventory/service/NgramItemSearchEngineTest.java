@@ -0,0 +1,88 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.service.item.NgramItemSearchEngine;
+
+@ExtendWith(MockitoExtension.class)
+class NgramItemSearchEngineTest {
+
+  @Mock
+  private ItemRepository itemRepository;
+
+  @InjectMocks
+  private NgramItemSearchEngine searchEngine;
+
+  private Lab lab;
+  private Item ethanol;
+  private Item methanol;
+  private Item acetone;
+
+  @BeforeEach
+  void setUp() {
+    lab = Lab.builder().id(UUID.randomUUID()).build();
+    ethanol = item("Ethanol 96%", "ETH-001");
+    methanol = item("Methanol", "MET-002");
+    acetone = item("Acetone", "ACE-003");
+    when(itemRepository.findAll()).thenReturn(List.of(ethanol, methanol, acetone));
+  }
+
+  @Test
+  void search_ranksClosestMatchFirst() {
+    List<UUID> result = searchEngine.search("ethanol", null, 10);
+
+    assertEquals(ethanol.getId(), result.get(0));
+    assertFalse(result.contains(acetone.getId()));
+  }
+
+  @Test
+  void search_matchesCodeSubstring() {
+    List<UUID> result = searchEngine.search("ace-0", null, 10);
+
+    assertEquals(List.of(acetone.getId()), result);
+  }
+
+  @Test
+  void search_skipsInactiveAndOtherLabs() {
+    methanol.setIsActive(false);
+    searchEngine.search("warm-up", null, 1);
+    searchEngine.index(methanol);
+
+    assertFalse(searchEngine.search("methanol", null, 10).contains(methanol.getId()));
+    assertTrue(searchEngine.search("ethanol", UUID.randomUUID(), 10).isEmpty());
+  }
+
+  @Test
+  void index_reflectsRenamedItem() {
+    searchEngine.search("warm-up", null, 1);
+    acetone.setName("Isopropanol");
+    searchEngine.index(acetone);
+
+    assertEquals(acetone.getId(), searchEngine.search("isopropanol", null, 10).get(0));
+    verify(itemRepository, times(1)).findAll();
+  }
+
+  private Item item(String name, String code) {
+    return Item.builder()
+        .id(UUID.randomUUID())
+        .name(name)
+        .code(code)
+        .lab(lab)
+        .isActive(true)
+        .build();
+  }
+}
@@ -0,0 +1,110 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.kartoffan.labinventory.exception.ServiceUnavailableException;
+import com.kartoffan.labinventory.security.PasswordHasher;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHasherTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private PasswordHasher passwordHasher;
+
+  @AfterEach
+  void tearDown() {
+    passwordHasher.shutdown();
+  }
+
+  @Test
+  void encodeAndMatches_roundTrip() {
+    passwordHasher = new PasswordHasher(new BCryptPasswordEncoder(4), 1, 4,
+        Duration.ofSeconds(5), Duration.ofSeconds(2), meterRegistry);
+
+    String hash = passwordHasher.encode("secret");
+
+    assertTrue(passwordHasher.matches("secret", hash));
+    assertFalse(passwordHasher.matches("wrong", hash));
+    assertEquals(1, meterRegistry.get(PasswordHasher.HASH_TIMER).tag("operation", "encode").timer().count());
+    assertEquals(2, meterRegistry.get(PasswordHasher.HASH_TIMER).tag("operation", "matches").timer().count());
+    assertNotNull(meterRegistry.find("executor.queued").tag("name", PasswordHasher.EXECUTOR_NAME).gauge());
+  }
+
+  @Test
+  void encode_queueFull_throwsServiceUnavailable() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    BCryptPasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        return super.encode(rawPassword);
+      }
+    };
+    passwordHasher = new PasswordHasher(blocking, 1, 1,
+        Duration.ofSeconds(5), Duration.ofSeconds(3), meterRegistry);
+
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    try {
+      // One hash occupies the only worker and one waits in the only queue slot
+      callers.submit(() -> passwordHasher.encode("first"));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      callers.submit(() -> passwordHasher.encode("second"));
+      waitForQueued(1);
+
+      ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+          () -> passwordHasher.encode("third"));
+
+      assertEquals(Duration.ofSeconds(3), exception.getRetryAfter());
+      assertEquals(1.0, meterRegistry.get(PasswordHasher.REJECTED_COUNTER).counter().count());
+    } finally {
+      release.countDown();
+      callers.shutdown();
+    }
+  }
+
+  @Test
+  void matches_slowerThanTimeout_throwsServiceUnavailable() {
+    BCryptPasswordEncoder slow = new BCryptPasswordEncoder(4) {
+      @Override
+      public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        try {
+          Thread.sleep(1_000);
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+        }
+        return false;
+      }
+    };
+    passwordHasher = new PasswordHasher(slow, 1, 1,
+        Duration.ofMillis(50), Duration.ofSeconds(2), meterRegistry);
+
+    assertThrows(ServiceUnavailableException.class, () -> passwordHasher.matches("secret", "hash"));
+  }
+
+  private void waitForQueued(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get("executor.queued").tag("name", PasswordHasher.EXECUTOR_NAME).gauge().value() < expected) {
+      if (System.nanoTime() > deadline) {
+        fail("Hash was never queued");
+      }
+      Thread.sleep(10);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.kartoffan.labinventory.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.cache.PostgresInvalidationTransport;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresInvalidationTransportTest {
+
+  @Mock
+  private DataSource dataSource;
+
+  @Mock
+  private Connection connection;
+
+  @Mock
+  private PreparedStatement statement;
+
+  @Mock
+  private Array array;
+
+  private final List<List<String>> sent = new CopyOnWriteArrayList<>();
+  private PostgresInvalidationTransport transport;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    when(connection.prepareStatement(anyString())).thenReturn(statement);
+    when(connection.createArrayOf(eq("text"), any())).thenAnswer(invocation -> {
+      sent.add(Arrays.stream(invocation.getArgument(1, Object[].class)).map(String.class::cast).toList());
+      return array;
+    });
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    transport.close();
+  }
+
+  @Test
+  void publish_isSentByTheSenderThread() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    transport = transport(10);
+    EntityInvalidation invalidation = invalidation();
+
+    transport.publish(invalidation);
+    verifyNoInteractions(dataSource);
+
+    transport.start();
+    await().until(() -> !sent.isEmpty());
+    assertEquals(List.of(List.of(invalidation.encode())), sent);
+  }
+
+  @Test
+  void publish_batchThatCouldNotBeSent_isFollowedByAReset() throws SQLException {
+    when(dataSource.getConnection()).thenThrow(new SQLException("connection refused")).thenReturn(connection);
+    transport = transport(10);
+
+    transport.publish(invalidation());
+    transport.start();
+
+    await().until(() -> !sent.isEmpty());
+    assertEquals(List.of(List.of(EntityInvalidation.reset().encode())), sent);
+  }
+
+  @Test
+  void publish_fullQueue_sendsAResetInstead() throws SQLException {
+    when(dataSource.getConnection()).thenReturn(connection);
+    transport = transport(1);
+
+    transport.publish(invalidation());
+    transport.publish(invalidation());
+    transport.start();
+
+    await().until(() -> !sent.isEmpty());
+    assertEquals(List.of(List.of(EntityInvalidation.reset().encode())), sent);
+  }
+
+  private PostgresInvalidationTransport transport(int queueCapacity) {
+    return new PostgresInvalidationTransport(dataSource, "cache_invalidation",
+        Duration.ofMillis(10), Duration.ofMillis(10), queueCapacity);
+  }
+
+  private static EntityInvalidation invalidation() {
+    return new EntityInvalidation("StockMovement", UUID.randomUUID(), "node-1");
+  }
+}
@@ -0,0 +1,86 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.security.PrincipalCache;
+import com.kartoffan.labinventory.security.UserDetailsImpl;
+import com.kartoffan.labinventory.security.role.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PrincipalCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private PrincipalCache principalCache;
+  private AtomicInteger loads;
+  private Function<String, UserDetailsImpl> loader;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    principalCache = new PrincipalCache(Duration.ofMinutes(1), 100, meterRegistry);
+    loads = new AtomicInteger();
+    loader = email -> {
+      loads.incrementAndGet();
+      return new UserDetailsImpl(User.builder()
+          .id(UUID.randomUUID())
+          .email(email)
+          .passwordHash("hash")
+          .role(Role.STAFF)
+          .isActive(true)
+          .build());
+    };
+  }
+
+  @Test
+  void get_repeatedSubject_loadsOnce() {
+    principalCache.get("user@test.com", loader);
+    UserDetailsImpl result = principalCache.get("user@test.com", loader);
+
+    assertEquals("user@test.com", result.getUsername());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void evict_forcesReload() {
+    principalCache.get("user@test.com", loader);
+    principalCache.evict("user@test.com");
+    principalCache.get("user@test.com", loader);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void evict_duringLoad_doesNotCacheTheLoadedPrincipal() {
+    principalCache.get("user@test.com", email -> {
+      UserDetailsImpl loaded = loader.apply(email);
+      principalCache.evict(email);
+      return loaded;
+    });
+    principalCache.get("user@test.com", loader);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_recordsHitAndMissMetrics() {
+    principalCache.get("user@test.com", loader);
+    principalCache.get("user@test.com", loader);
+
+    assertEquals(1.0, meterRegistry.get("cache.gets")
+        .tag("cache", PrincipalCache.CACHE_NAME).tag("result", "hit")
+        .functionCounter().count());
+    assertEquals(1.0, meterRegistry.get("cache.gets")
+        .tag("cache", PrincipalCache.CACHE_NAME).tag("result", "miss")
+        .functionCounter().count());
+  }
+}
@@ -0,0 +1,200 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.purchaseRequisition.PurchaseRequisitionLineResponse;
+import com.kartoffan.labinventory.dto.purchaseRequisition.PurchaseRequisitionResponse;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.model.Supplier;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.SupplierRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.service.purchaseRequisition.PurchaseRequisitionService;
+import com.kartoffan.labinventory.service.purchaseRequisition.PurchaseRequisitionServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(PurchaseRequisitionServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PurchaseRequisitionServiceTest {
+
+  private static final int CONCURRENT_RUNS = 8;
+
+  @Autowired
+  private PurchaseRequisitionService purchaseRequisitionService;
+
+  @Autowired
+  private StockBalanceRepository stockBalanceRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private SupplierRepository supplierRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Lab lab;
+  private Category category;
+  private User user;
+  private Supplier frequent;
+  private Supplier occasional;
+
+  @BeforeEach
+  void setUp() {
+    lab = StockFixtures.lab(labRepository);
+    category = StockFixtures.category(categoryRepository, lab);
+    user = StockFixtures.user(userRepository);
+    frequent = supplier();
+    occasional = supplier();
+  }
+
+  @Test
+  void generateDrafts_groupsItemsToReorderByPreferredSupplier() {
+    Item low = stocked(4.0);
+    received(low, frequent, 2);
+    received(low, occasional, 1);
+    Item atReorderLevel = stocked(10.0);
+    received(atReorderLevel, occasional, 1);
+    Item neverReceived = stocked(0.0);
+    Item healthy = stocked(50.0);
+    received(healthy, frequent, 1);
+
+    Map<UUID, PurchaseRequisitionResponse> bySupplier = bySupplier(purchaseRequisitionService.generateDrafts(lab.getId()));
+
+    assertEquals(3, bySupplier.size());
+    assertEquals(Map.of(low.getId(), 96.0), quantities(bySupplier.get(frequent.getId())));
+    assertEquals(Map.of(atReorderLevel.getId(), 90.0), quantities(bySupplier.get(occasional.getId())));
+    assertEquals(Map.of(neverReceived.getId(), 100.0), quantities(bySupplier.get(null)));
+  }
+
+  @Test
+  void generateDrafts_replacesPreviousDrafts() {
+    Item low = stocked(4.0);
+    received(low, frequent, 1);
+    purchaseRequisitionService.generateDrafts(lab.getId());
+
+    List<PurchaseRequisitionResponse> drafts = purchaseRequisitionService.generateDrafts(lab.getId());
+
+    assertEquals(1, drafts.size());
+    assertEquals(List.of(drafts.get(0).getId()),
+        purchaseRequisitionService.getDrafts(lab.getId()).stream().map(PurchaseRequisitionResponse::getId).toList());
+  }
+
+  @Test
+  void generateDrafts_concurrentRunsForOneLab_keepOneSetOfDrafts() throws Exception {
+    Item low = stocked(4.0);
+    received(low, frequent, 1);
+
+    ExecutorService runs = Executors.newFixedThreadPool(CONCURRENT_RUNS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < CONCURRENT_RUNS; i++) {
+      results.add(runs.submit(() -> {
+        start.await();
+        return purchaseRequisitionService.generateDrafts(lab.getId());
+      }));
+    }
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(1, TimeUnit.MINUTES);
+    }
+    runs.shutdown();
+
+    List<PurchaseRequisitionResponse> drafts = purchaseRequisitionService.getDrafts(lab.getId());
+    assertEquals(1, drafts.size());
+    assertEquals(1, drafts.get(0).getLines().size());
+  }
+
+  @Test
+  void generateAllDrafts_draftsEveryActiveLab() {
+    Item low = stocked(4.0);
+    received(low, frequent, 1);
+
+    assertTrue(purchaseRequisitionService.generateAllDrafts() >= 1);
+
+    List<PurchaseRequisitionResponse> drafts = purchaseRequisitionService.getDrafts(lab.getId());
+    assertEquals(1, drafts.size());
+    assertEquals(frequent.getId(), drafts.get(0).getSupplierId());
+  }
+
+  private Item stocked(double quantity) {
+    Item item = StockFixtures.item(itemRepository, lab, category);
+    stockBalanceRepository.save(StockBalance.builder().item(item).lab(lab).quantity(quantity).build());
+    return item;
+  }
+
+  private void received(Item item, Supplier supplier, int times) {
+    for (int i = 0; i < times; i++) {
+      stockMovementRepository.save(StockMovement.builder()
+          .item(item)
+          .lab(lab)
+          .type(MovementType.IN)
+          .quantity(1.0)
+          .supplier(supplier)
+          .reason("Delivery")
+          .performedBy(user)
+          .build());
+    }
+  }
+
+  private Supplier supplier() {
+    return supplierRepository.save(Supplier.builder()
+        .name("Supplier " + UUID.randomUUID())
+        .build());
+  }
+
+  private static Map<UUID, PurchaseRequisitionResponse> bySupplier(List<PurchaseRequisitionResponse> drafts) {
+    Map<UUID, PurchaseRequisitionResponse> bySupplier = new HashMap<>();
+    drafts.forEach(draft -> bySupplier.put(draft.getSupplierId(), draft));
+    return bySupplier;
+  }
+
+  private static Map<UUID, Double> quantities(PurchaseRequisitionResponse draft) {
+    return draft.getLines().stream()
+        .collect(Collectors.toMap(PurchaseRequisitionLineResponse::getItemId, PurchaseRequisitionLineResponse::getQuantity));
+  }
+}
@@ -0,0 +1,158 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.kartoffan.labinventory.LabInventoryApplication;
+import com.kartoffan.labinventory.security.jwt.JwtUtil;
+
+/**
+ * Drives an authenticated, database backed endpoint with platform-thread and
+ * then virtual-thread request execution, each against the same PostgreSQL
+ * instance, and checks that virtual threads serve every request with at least
+ * {@code -Dload.benchmark.min-ratio} of the platform throughput and a p99 no
+ * worse than its inverse. Needs Docker; excluded from the default build, run
+ * with {@code mvn test -Dgroups=benchmark -Dexcluded.test.groups=} and size the
+ * run with {@code -Dload.benchmark.clients} and {@code -Dload.benchmark.requests}.
+ */
+@Tag("benchmark")
+class RequestExecutionLoadBenchmarkTest {
+
+  private static final int CLIENTS = Integer.getInteger("load.benchmark.clients", 2_000);
+  private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.benchmark.requests", 20);
+  private static final double MIN_RATIO = Double.parseDouble(System.getProperty("load.benchmark.min-ratio", "0.9"));
+  private static final String SUPER_ADMIN = "superadmin@system.com";
+
+  private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+  @BeforeAll
+  static void startDatabase() {
+    POSTGRES.start();
+  }
+
+  @AfterAll
+  static void stopDatabase() {
+    POSTGRES.stop();
+  }
+
+  @Test
+  void virtualThreads_keepUpWithPlatformThreads() throws Exception {
+    Result platform = run(false);
+    Result virtual = run(true);
+
+    assertEquals(0, platform.errors());
+    assertEquals(0, virtual.errors());
+    assertTrue(virtual.throughput() >= platform.throughput() * MIN_RATIO, () -> describe(platform, virtual));
+    assertTrue(virtual.p99() * MIN_RATIO <= platform.p99(), () -> describe(platform, virtual));
+  }
+
+  private static String describe(Result platform, Result virtual) {
+    return String.format("%d clients, min ratio %.2f: platform %.0f req/s, p50 %.1f ms, p99 %.1f ms; "
+        + "virtual %.0f req/s, p50 %.1f ms, p99 %.1f ms", CLIENTS, MIN_RATIO,
+        platform.throughput(), platform.p50(), platform.p99(), virtual.throughput(), virtual.p50(), virtual.p99());
+  }
+
+  private static Result run(boolean virtualThreads) throws Exception {
+    try (ConfigurableApplicationContext context = start(virtualThreads)) {
+      String port = context.getEnvironment().getProperty("local.server.port");
+      String token = context.getBean(JwtUtil.class).generateToken(SUPER_ADMIN);
+      HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/labs?page=0&size=20"))
+          .header("Authorization", "Bearer " + token)
+          .timeout(Duration.ofMinutes(1))
+          .GET()
+          .build();
+
+      HttpClient client = HttpClient.newBuilder()
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build();
+
+      // Warm up the JIT, connection pools and caches before measuring
+      drive(client, request, Math.min(CLIENTS, 200), REQUESTS_PER_CLIENT);
+      return drive(client, request, CLIENTS, REQUESTS_PER_CLIENT);
+    }
+  }
+
+  private static Result drive(HttpClient client, HttpRequest request, int clients, int requestsPerClient)
+      throws Exception {
+    AtomicInteger errors = new AtomicInteger();
+    List<Future<long[]>> futures = new ArrayList<>();
+
+    long start = System.nanoTime();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < clients; c++) {
+        futures.add(executor.submit(() -> {
+          long[] latencies = new long[requestsPerClient];
+          for (int i = 0; i < requestsPerClient; i++) {
+            long sent = System.nanoTime();
+            try {
+              HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() != 200) {
+                errors.incrementAndGet();
+              }
+            } catch (Exception exception) {
+              errors.incrementAndGet();
+            }
+            latencies[i] = System.nanoTime() - sent;
+          }
+          return latencies;
+        }));
+      }
+    }
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+    long[] all = new long[clients * requestsPerClient];
+    int offset = 0;
+    for (Future<long[]> future : futures) {
+      long[] latencies = future.get();
+      System.arraycopy(latencies, 0, all, offset, latencies.length);
+      offset += latencies.length;
+    }
+    Arrays.sort(all);
+
+    return new Result(all.length / elapsedSeconds, percentile(all, 0.50), percentile(all, 0.99), errors.get());
+  }
+
+  private static ConfigurableApplicationContext start(boolean virtualThreads) {
+    String[] args = {
+        "--server.port=0",
+        "--spring.threads.virtual.enabled=" + virtualThreads,
+        "--spring.datasource.url=" + POSTGRES.getJdbcUrl(),
+        "--spring.datasource.username=" + POSTGRES.getUsername(),
+        "--spring.datasource.password=" + POSTGRES.getPassword(),
+        "--spring.jpa.hibernate.ddl-auto=create-drop",
+        "--jwt.secret=load-benchmark-secret-key-with-at-least-32-bytes",
+        "--jwt.expiration=3600000",
+        "--logging.level.root=WARN",
+        "--app.item-search.engine=memory",
+        "--app.cache.invalidation.transport=memory"
+    };
+    return new SpringApplicationBuilder(LabInventoryApplication.class).run(args);
+  }
+
+  private static double percentile(long[] sortedNanos, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return sortedNanos[Math.max(index, 0)] / 1e6;
+  }
+
+  private record Result(double throughput, double p50, double p99, int errors) {}
+}
@@ -0,0 +1,127 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.cache.SecondLevelCacheInvalidator;
+import com.kartoffan.labinventory.config.HibernateCacheConfig;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ HibernateCacheConfig.class, SecondLevelCacheInvalidator.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private ApplicationEventPublisher eventPublisher;
+
+  private Statistics statistics;
+  private Lab lab;
+  private Category category;
+  private Item item;
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    lab = StockFixtures.lab(labRepository);
+    category = StockFixtures.category(categoryRepository, lab);
+    item = StockFixtures.item(itemRepository, lab, category);
+    user = StockFixtures.user(userRepository);
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  void lookupsById_areServedWithoutStatements() {
+    lookUpReferences();
+    statistics.clear();
+
+    lookUpReferences();
+
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(4, statistics.getSecondLevelCacheHitCount());
+  }
+
+  @Test
+  void lookupByEmail_resolvesThroughNaturalIdCache() {
+    assertTrue(userRepository.findByEmailAndIsActiveTrue(user.getEmail()).isPresent());
+    statistics.clear();
+
+    assertTrue(userRepository.findByEmailAndIsActiveTrue(user.getEmail()).isPresent());
+
+    assertEquals(0, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getNaturalIdCacheHitCount());
+  }
+
+  @Test
+  void renamedItem_isFoundUnderItsNewNameOnly() {
+    String oldName = item.getName();
+    assertTrue(itemRepository.existsByNameAndLabId(oldName, lab.getId()));
+
+    item.setName("Renamed " + UUID.randomUUID());
+    itemRepository.save(item);
+
+    assertTrue(itemRepository.existsByNameAndLabId(item.getName(), lab.getId()));
+    assertFalse(itemRepository.existsByNameAndLabId(oldName, lab.getId()));
+  }
+
+  @Test
+  void invalidationFromOtherNode_evictsOnlyThatEntity() {
+    lookUpReferences();
+    Cache cache = entityManagerFactory.getCache();
+    assertTrue(cache.contains(Lab.class, lab.getId()));
+
+    eventPublisher.publishEvent(new EntityInvalidation(Lab.class.getSimpleName(), lab.getId(), "other-node"));
+
+    assertFalse(cache.contains(Lab.class, lab.getId()));
+    assertTrue(cache.contains(Item.class, item.getId()));
+  }
+
+  private void lookUpReferences() {
+    assertTrue(itemRepository.findByIdAndIsActiveTrue(item.getId()).isPresent());
+    assertTrue(labRepository.findByIdAndIsActiveTrue(lab.getId()).isPresent());
+    assertTrue(categoryRepository.findByIdAndIsActiveTrue(category.getId()).isPresent());
+    assertTrue(userRepository.findByIdAndIsActiveTrue(user.getId()).isPresent());
+  }
+}
@@ -0,0 +1,170 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.kartoffan.labinventory.cache.EntityInvalidation;
+import com.kartoffan.labinventory.dto.stockAlert.ActiveStockAlert;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockAlert;
+import com.kartoffan.labinventory.model.StockAlert.Level;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.repository.StockAlertRepository;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertChangedEvent;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertServiceImpl;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
+
+@ExtendWith(MockitoExtension.class)
+class StockAlertServiceTest {
+
+  @Mock
+  private StockAlertRepository stockAlertRepository;
+
+  @Mock
+  private StockBalanceRepository stockBalanceRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @InjectMocks
+  private StockAlertServiceImpl stockAlertService;
+
+  private UUID itemId;
+  private UUID labId;
+  private Item item;
+  private Lab lab;
+
+  @BeforeEach
+  void setUp() {
+    itemId = UUID.randomUUID();
+    labId = UUID.randomUUID();
+    lab = Lab.builder().id(labId).name("Chem Lab").build();
+    item = Item.builder()
+        .id(itemId)
+        .name("Ethanol")
+        .lab(lab)
+        .lowStockThreshold(20)
+        .reorderLevel(10)
+        .minQuantity(5)
+        .isActive(true)
+        .build();
+  }
+
+  @Test
+  void onStockChanged_emptyBalance_raisesOutOfStockAlert() {
+    stubBalance(0.0);
+    when(stockAlertRepository.findByItemIdAndLabId(itemId, labId)).thenReturn(Optional.empty());
+    when(stockAlertRepository.saveAndFlush(any(StockAlert.class))).thenAnswer(i -> withId(i.getArgument(0)));
+
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    verify(stockAlertRepository).saveAndFlush(argThat(a -> a.getLevel() == Level.OUT_OF_STOCK && a.getQuantity() == 0.0));
+    assertEquals(List.of(itemId), stockAlertService.getOutOfStockItemIds(labId));
+    assertEquals(List.of(itemId), stockAlertService.getLowStockItemIds(labId));
+    verify(eventPublisher).publishEvent(new StockAlertChangedEvent(itemId, labId, Level.OUT_OF_STOCK));
+  }
+
+  @Test
+  void onStockChanged_unchangedLevel_announcesAlertOnce() {
+    StockAlert existing = StockAlert.builder()
+        .id(UUID.randomUUID()).item(item).lab(lab).level(Level.REORDER).quantity(8.0).build();
+    when(stockAlertRepository.findByItemIdAndLabId(itemId, labId)).thenReturn(Optional.of(existing));
+    when(stockAlertRepository.saveAndFlush(existing)).thenReturn(existing);
+
+    stubBalance(8.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+    stubBalance(7.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    verify(eventPublisher, times(1)).publishEvent(new StockAlertChangedEvent(itemId, labId, Level.REORDER));
+  }
+
+  @Test
+  void onStockChanged_picksMostSevereBreachedLevel() {
+    when(stockAlertRepository.findByItemIdAndLabId(itemId, labId)).thenReturn(Optional.empty());
+    when(stockAlertRepository.saveAndFlush(any(StockAlert.class))).thenAnswer(i -> withId(i.getArgument(0)));
+
+    stubBalance(4.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+    stubBalance(8.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+    stubBalance(15.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    verify(stockAlertRepository).saveAndFlush(argThat(a -> a.getLevel() == Level.BELOW_MINIMUM && a.getQuantity() == 4.0));
+    verify(stockAlertRepository).saveAndFlush(argThat(a -> a.getLevel() == Level.REORDER && a.getQuantity() == 8.0));
+    verify(stockAlertRepository).saveAndFlush(argThat(a -> a.getLevel() == Level.LOW_STOCK && a.getQuantity() == 15.0));
+    assertTrue(stockAlertService.getOutOfStockItemIds(labId).isEmpty());
+  }
+
+  @Test
+  void onStockChanged_recoveredBalance_clearsAlert() {
+    StockAlert existing = StockAlert.builder()
+        .id(UUID.randomUUID()).item(item).lab(lab).level(Level.OUT_OF_STOCK).quantity(0.0).build();
+    stubBalance(0.0);
+    when(stockAlertRepository.findByItemIdAndLabId(itemId, labId))
+        .thenReturn(Optional.empty(), Optional.of(existing));
+    when(stockAlertRepository.saveAndFlush(any(StockAlert.class))).thenReturn(existing);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    stubBalance(50.0);
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    verify(stockAlertRepository).delete(existing);
+    assertTrue(stockAlertService.getLowStockItemIds(labId).isEmpty());
+    verify(eventPublisher).publishEvent(new StockAlertChangedEvent(itemId, labId, null));
+  }
+
+  @Test
+  void onStockChanged_healthyBalanceWithoutAlert_writesNothing() {
+    stubBalance(50.0);
+    when(stockAlertRepository.findByItemIdAndLabId(itemId, labId)).thenReturn(Optional.empty());
+
+    stockAlertService.onStockChanged(new StockChangedEvent(itemId, labId));
+
+    verify(stockAlertRepository, never()).saveAndFlush(any());
+    verify(stockAlertRepository, never()).delete(any());
+  }
+
+  @Test
+  void onInvalidation_indexesAlertRaisedByAnotherNode() {
+    UUID alertId = UUID.randomUUID();
+    when(stockAlertRepository.findActiveById(alertId))
+        .thenReturn(Optional.of(new ActiveStockAlert(alertId, itemId, labId, Level.OUT_OF_STOCK)));
+
+    stockAlertService.onInvalidation(new EntityInvalidation("StockAlert", alertId, "other-node"));
+
+    assertEquals(List.of(itemId), stockAlertService.getOutOfStockItemIds(labId));
+  }
+
+  private void stubBalance(double quantity) {
+    StockBalance balance = StockBalance.builder().item(item).lab(lab).quantity(quantity).build();
+    when(stockBalanceRepository.findByItemIdAndLabIdForUpdate(itemId, labId)).thenReturn(Optional.of(balance));
+  }
+
+  private static StockAlert withId(StockAlert alert) {
+    if (alert.getId() == null) {
+      alert.setId(UUID.randomUUID());
+    }
+    return alert;
+  }
+}
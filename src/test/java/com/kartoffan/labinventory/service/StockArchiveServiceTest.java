@@ -0,0 +1,120 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockArchive.StockArchiveServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class StockArchiveServiceTest {
+
+  @Mock
+  private StockMovementRepository stockMovementRepository;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @InjectMocks
+  private StockArchiveServiceImpl stockArchiveService;
+
+  @TempDir
+  Path directory;
+
+  private UUID labId;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(stockArchiveService, "directory", directory);
+    labId = UUID.randomUUID();
+  }
+
+  @Test
+  void archive_writesMonthFileAndListsIt() throws Exception {
+    archive(YearMonth.of(2023, 1), row(LocalDateTime.of(2023, 1, 5, 10, 0), labId));
+
+    assertEquals(List.of(YearMonth.of(2023, 1)), stockArchiveService.getArchivedMonths());
+    assertTrue(Files.exists(directory.resolve("stock_movements_2023_01.ndjson.gz")));
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.count());
+    }
+  }
+
+  @Test
+  void export_readsOnlyMatchingRowsOfOverlappingMonths() throws Exception {
+    StockMovementExportRow january = row(LocalDateTime.of(2023, 1, 5, 10, 0), labId);
+    StockMovementExportRow otherLab = row(LocalDateTime.of(2023, 1, 6, 10, 0), UUID.randomUUID());
+    StockMovementExportRow february = row(LocalDateTime.of(2023, 2, 1, 8, 0), labId);
+    archive(YearMonth.of(2023, 1), january, otherLab);
+    archive(YearMonth.of(2023, 2), february);
+    // Outside the requested range, must not be opened
+    Files.writeString(directory.resolve("stock_movements_2023_03.ndjson.gz"), "not gzip");
+
+    StockMovementFilter filter = new StockMovementFilter();
+    filter.setLabId(labId);
+    filter.setFrom(LocalDateTime.of(2023, 1, 1, 0, 0));
+    filter.setTo(LocalDateTime.of(2023, 2, 28, 23, 59));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    stockArchiveService.export(filter, StockMovementExportFormat.CSV, output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals(StockMovementExportRow.CSV_HEADER, lines[0]);
+    assertTrue(lines[1].startsWith(january.getId().toString()));
+    assertTrue(lines[2].startsWith(february.getId().toString()));
+  }
+
+  private void archive(YearMonth month, StockMovementExportRow... rows) throws Exception {
+    when(stockMovementRepository.streamForExport(any(Specification.class), anyInt())).thenReturn(Stream.of(rows));
+    stockArchiveService.archive(month);
+  }
+
+  private static StockMovementExportRow row(LocalDateTime timestamp, UUID labId) {
+    return new StockMovementExportRow(
+        UUID.randomUUID(),
+        timestamp,
+        MovementType.IN,
+        3.0,
+        UUID.randomUUID(),
+        "Ethanol",
+        labId,
+        UUID.randomUUID(),
+        null,
+        "B-1",
+        null,
+        null,
+        "Delivery");
+  }
+}
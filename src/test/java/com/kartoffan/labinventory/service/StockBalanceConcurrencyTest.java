@@ -0,0 +1,135 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ StockBalanceServiceImpl.class, StockSnapshotServiceImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockBalanceConcurrencyTest {
+
+  private static final int WRITERS = 64;
+  private static final int ATTEMPTS_PER_WRITER = 25;
+  private static final double INITIAL_STOCK = 1000;
+
+  @Autowired
+  private StockBalanceService stockBalanceService;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Test
+  void concurrentWithdrawals_neverOversell() throws Exception {
+    Lab lab = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, lab, StockFixtures.category(categoryRepository, lab));
+    stockBalanceService.apply(item, lab, INITIAL_STOCK);
+
+    ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger issued = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    List<Future<?>> results = new ArrayList<>();
+
+    for (int i = 0; i < WRITERS; i++) {
+      results.add(writers.submit(() -> {
+        start.await();
+        for (int attempt = 0; attempt < ATTEMPTS_PER_WRITER; attempt++) {
+          try {
+            stockBalanceService.withdraw(item, lab, 1.0);
+            issued.incrementAndGet();
+          } catch (InsufficientStockException exception) {
+            rejected.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(2, TimeUnit.MINUTES);
+    }
+    writers.shutdown();
+
+    int attempts = WRITERS * ATTEMPTS_PER_WRITER;
+
+    assertEquals((int) INITIAL_STOCK, issued.get());
+    assertEquals(attempts - (int) INITIAL_STOCK, rejected.get());
+    assertEquals(0.0, stockBalanceService.getQuantity(item.getId(), lab.getId()));
+  }
+
+  @Test
+  void concurrentFirstDeposits_createSingleBalanceRow() throws Exception {
+    Lab lab = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, lab, StockFixtures.category(categoryRepository, lab));
+
+    ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+
+    for (int i = 0; i < WRITERS; i++) {
+      results.add(writers.submit(() -> {
+        start.await();
+        stockBalanceService.apply(item, lab, 2.0);
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(2, TimeUnit.MINUTES);
+    }
+    writers.shutdown();
+
+    assertEquals(WRITERS * 2.0, stockBalanceService.getQuantity(item.getId(), lab.getId()));
+  }
+
+  @Test
+  void rebuild_overwritesBalanceWithoutLedger() {
+    Lab lab = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, lab, StockFixtures.category(categoryRepository, lab));
+    stockBalanceService.apply(item, lab, 5.0);
+
+    assertTrue(stockBalanceService.verify().getDrifts().stream()
+        .anyMatch(drift -> drift.getItemId().equals(item.getId()) && drift.getDrift() == 5.0));
+
+    stockBalanceService.rebuild();
+
+    assertEquals(0.0, stockBalanceService.getQuantity(item.getId(), lab.getId()));
+  }
+}
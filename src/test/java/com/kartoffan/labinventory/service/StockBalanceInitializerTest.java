@@ -0,0 +1,69 @@
+package com.kartoffan.labinventory.service;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.kartoffan.labinventory.config.StockBalanceInitializer;
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+
+@ExtendWith(MockitoExtension.class)
+class StockBalanceInitializerTest {
+
+  @Mock
+  private StockBalanceService stockBalanceService;
+
+  @Mock
+  private StockBalanceRepository stockBalanceRepository;
+
+  @Mock
+  private StockMovementRepository stockMovementRepository;
+
+  @InjectMocks
+  private StockBalanceInitializer stockBalanceInitializer;
+
+  @Test
+  void init_emptyBalancesWithLedger_rebuildsFromLedger() {
+    when(stockBalanceRepository.count()).thenReturn(0L);
+    when(stockMovementRepository.findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(any(LocalDateTime.class)))
+        .thenReturn(Optional.of(new StockMovement()));
+    when(stockBalanceService.rebuild()).thenReturn(BalanceReconciliationReport.builder().drifts(List.of()).build());
+
+    stockBalanceInitializer.init();
+
+    verify(stockBalanceService).rebuild();
+  }
+
+  @Test
+  void init_existingBalances_doesNothing() {
+    when(stockBalanceRepository.count()).thenReturn(3L);
+
+    stockBalanceInitializer.init();
+
+    verifyNoInteractions(stockBalanceService);
+  }
+
+  @Test
+  void init_emptyLedger_doesNothing() {
+    when(stockBalanceRepository.count()).thenReturn(0L);
+    when(stockMovementRepository.findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(any(LocalDateTime.class)))
+        .thenReturn(Optional.empty());
+
+    stockBalanceInitializer.init();
+
+    verifyNoInteractions(stockBalanceService);
+  }
+}
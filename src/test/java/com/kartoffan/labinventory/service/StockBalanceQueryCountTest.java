@@ -0,0 +1,75 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stock.StockQuantity;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotServiceImpl;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ StockBalanceServiceImpl.class, StockSnapshotServiceImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockBalanceQueryCountTest {
+
+  private static final int ITEMS = 50;
+
+  @Autowired
+  private StockBalanceService stockBalanceService;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void getItemQuantities_loadsWholeLabInOneStatement() {
+    Lab lab = StockFixtures.lab(labRepository);
+    Category category = StockFixtures.category(categoryRepository, lab);
+    for (int i = 0; i < ITEMS; i++) {
+      stockBalanceService.apply(StockFixtures.item(itemRepository, lab, category), lab, i + 1);
+    }
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    List<StockQuantity> quantities = stockBalanceService.getItemQuantities(lab.getId());
+
+    assertEquals(ITEMS, quantities.size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+    StockQuantity first = quantities.get(0);
+    assertEquals("ml", first.getUnit());
+    assertEquals(10, first.getReorderLevel());
+    assertEquals(100, first.getMaxQuantity());
+    assertEquals(5, first.getLowStockThreshold());
+  }
+}
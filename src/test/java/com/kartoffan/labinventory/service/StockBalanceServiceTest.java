@@ -0,0 +1,256 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.kartoffan.labinventory.dto.stockBalance.BalanceReconciliationReport;
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.exception.InsufficientStockException;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
+
+@ExtendWith(MockitoExtension.class)
+class StockBalanceServiceTest {
+
+  @Mock
+  private StockBalanceRepository stockBalanceRepository;
+
+  @Mock
+  private StockMovementRepository stockMovementRepository;
+
+  @Mock
+  private StockSnapshotService stockSnapshotService;
+
+  @InjectMocks
+  private StockBalanceServiceImpl stockBalanceService;
+
+  private UUID itemId;
+  private UUID labId;
+  private Item item;
+  private Lab lab;
+
+  @BeforeEach
+  void setUp() {
+    itemId = UUID.randomUUID();
+    labId = UUID.randomUUID();
+    item = Item.builder().id(itemId).name("Ethanol").build();
+    lab = Lab.builder().id(labId).build();
+  }
+
+  @Test
+  void apply_existingBalance_incrementsAtomically() {
+    when(stockBalanceRepository.increment(eq(itemId), eq(labId), eq(-4.0), any()))
+        .thenReturn(1);
+
+    stockBalanceService.apply(item, lab, -4.0);
+
+    verify(stockBalanceRepository).increment(eq(itemId), eq(labId), eq(-4.0), any());
+    verify(stockBalanceRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void apply_noBalance_createsRowThenIncrements() {
+    when(stockBalanceRepository.increment(eq(itemId), eq(labId), eq(7.0), any()))
+        .thenReturn(0, 1);
+
+    stockBalanceService.apply(item, lab, 7.0);
+
+    verify(stockBalanceRepository).insertIfAbsent(any(UUID.class), eq(itemId), eq(labId), any());
+    verify(stockBalanceRepository, times(2)).increment(eq(itemId), eq(labId), eq(7.0), any());
+  }
+
+  @Test
+  void withdraw_sufficientStock_decrements() {
+    when(stockBalanceRepository.decrementIfAvailable(eq(itemId), eq(labId), eq(3.0), any()))
+        .thenReturn(1);
+
+    stockBalanceService.withdraw(item, lab, 3.0);
+
+    verify(stockBalanceRepository).decrementIfAvailable(eq(itemId), eq(labId), eq(3.0), any());
+  }
+
+  @Test
+  void withdraw_insufficientStock_throwsException() {
+    when(stockBalanceRepository.decrementIfAvailable(eq(itemId), eq(labId), eq(20.0), any()))
+        .thenReturn(0);
+    when(stockBalanceRepository.findByItemIdAndLabId(itemId, labId))
+        .thenReturn(Optional.of(StockBalance.builder().item(item).lab(lab).quantity(5.0).build()));
+
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> stockBalanceService.withdraw(item, lab, 20.0));
+
+    assertTrue(exception.getMessage().contains("Available: 5.0"));
+  }
+
+  @Test
+  void lockBalances_locksOnlyTheRequestedPairs() {
+    UUID otherItemId = UUID.randomUUID();
+    UUID otherLabId = UUID.randomUUID();
+    UUID requested = UUID.randomUUID();
+    UUID otherRequested = UUID.randomUUID();
+    Item otherItem = Item.builder().id(otherItemId).build();
+    Lab otherLab = Lab.builder().id(otherLabId).build();
+    when(stockBalanceRepository.findKeysByItemIdsAndLabIds(any(), any())).thenReturn(List.of(
+        new Object[] { requested, itemId, labId },
+        new Object[] { UUID.randomUUID(), itemId, otherLabId },
+        new Object[] { UUID.randomUUID(), otherItemId, labId },
+        new Object[] { otherRequested, otherItemId, otherLabId }));
+    when(stockBalanceRepository.findAllByIdsForUpdate(argThat(ids -> Set.copyOf(ids).equals(Set.of(requested, otherRequested)))))
+        .thenReturn(List.of(
+            StockBalance.builder().id(requested).item(item).lab(lab).quantity(1.0).build(),
+            StockBalance.builder().id(otherRequested).item(otherItem).lab(otherLab).quantity(2.0).build()));
+
+    Map<StockBalanceKey, StockBalance> locked = stockBalanceService.lockBalances(Set.of(
+        new StockBalanceKey(itemId, labId), new StockBalanceKey(otherItemId, otherLabId)));
+
+    assertEquals(Set.of(new StockBalanceKey(itemId, labId), new StockBalanceKey(otherItemId, otherLabId)), locked.keySet());
+  }
+
+  @Test
+  void getQuantity_noBalance_returnsZero() {
+    when(stockBalanceRepository.findByItemIdAndLabId(itemId, labId))
+        .thenReturn(Optional.empty());
+
+    assertEquals(0.0, stockBalanceService.getQuantity(itemId, labId));
+  }
+
+  @Test
+  void verify_reportsDriftWithoutRepairing() {
+    UUID balanceId = UUID.randomUUID();
+    StockBalance balance = StockBalance.builder().id(balanceId).item(item).lab(lab).quantity(12.0).build();
+    when(stockMovementRepository.sumQuantitiesByItemAndLab())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 12.0)));
+    when(stockBalanceRepository.findKeysByItemIdsAndLabIds(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[] { balanceId, itemId, labId }));
+    when(stockBalanceRepository.findAllByIdsForUpdate(any())).thenReturn(List.of(balance));
+    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId)).thenReturn(10.0);
+
+    BalanceReconciliationReport report = stockBalanceService.verify();
+
+    assertEquals(1, report.getDrifts().size());
+    assertEquals(2.0, report.getDrifts().get(0).getDrift());
+    assertFalse(report.isRepaired());
+    assertEquals(12.0, balance.getQuantity());
+    verify(stockBalanceRepository, never()).insertIfAbsent(any(), any(), any(), any());
+  }
+
+  @Test
+  void verify_movementCommittedBetweenBulkReads_isNotReported() {
+    UUID balanceId = UUID.randomUUID();
+    StockBalance balance = StockBalance.builder().id(balanceId).item(item).lab(lab).quantity(12.0).build();
+    when(stockMovementRepository.sumQuantitiesByItemAndLab())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 12.0)));
+    when(stockBalanceRepository.findKeysByItemIdsAndLabIds(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[] { balanceId, itemId, labId }));
+    when(stockBalanceRepository.findAllByIdsForUpdate(any())).thenReturn(List.of(balance));
+    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId)).thenReturn(12.0);
+
+    BalanceReconciliationReport report = stockBalanceService.verify();
+
+    assertTrue(report.getDrifts().isEmpty());
+  }
+
+  @Test
+  void rebuild_overwritesDriftAndCreatesMissingBalances() {
+    UUID otherItemId = UUID.randomUUID();
+    UUID balanceId = UUID.randomUUID();
+    UUID otherBalanceId = UUID.randomUUID();
+    StockBalance balance = StockBalance.builder().id(balanceId).item(item).lab(lab).quantity(12.0).build();
+    StockBalance otherBalance = StockBalance.builder()
+        .id(otherBalanceId).item(Item.builder().id(otherItemId).build()).lab(lab).quantity(0.0).build();
+    when(stockMovementRepository.sumQuantitiesByItemAndLab())
+        .thenReturn(List.of(
+            new LedgerBalance(itemId, labId, 10.0),
+            new LedgerBalance(otherItemId, labId, 3.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 12.0)));
+    when(stockBalanceRepository.findKeysByItemIdsAndLabIds(any(), any()))
+        .thenReturn(
+            List.<Object[]>of(new Object[] { balanceId, itemId, labId }),
+            List.<Object[]>of(new Object[] { balanceId, itemId, labId }, new Object[] { otherBalanceId, otherItemId, labId }));
+    when(stockBalanceRepository.findAllByIdsForUpdate(any())).thenReturn(List.of(balance, otherBalance));
+    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId)).thenReturn(10.0);
+    when(stockMovementRepository.getCurrentQuantityByLab(otherItemId, labId)).thenReturn(3.0);
+
+    BalanceReconciliationReport report = stockBalanceService.rebuild();
+
+    assertEquals(2, report.getDrifts().size());
+    assertTrue(report.isRepaired());
+    assertEquals(10.0, balance.getQuantity());
+    assertEquals(3.0, otherBalance.getQuantity());
+    verify(stockBalanceRepository).insertIfAbsent(any(UUID.class), eq(otherItemId), eq(labId), any());
+  }
+
+  @Test
+  void rebuild_movementCommittedBetweenBulkReads_keepsTheBalance() {
+    UUID balanceId = UUID.randomUUID();
+    StockBalance balance = StockBalance.builder().id(balanceId).item(item).lab(lab).quantity(12.0).build();
+    when(stockMovementRepository.sumQuantitiesByItemAndLab())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 12.0)));
+    when(stockBalanceRepository.findKeysByItemIdsAndLabIds(any(), any()))
+        .thenReturn(List.<Object[]>of(new Object[] { balanceId, itemId, labId }));
+    when(stockBalanceRepository.findAllByIdsForUpdate(any())).thenReturn(List.of(balance));
+    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId)).thenReturn(12.0);
+
+    BalanceReconciliationReport report = stockBalanceService.rebuild();
+
+    assertTrue(report.getDrifts().isEmpty());
+    assertFalse(report.isRepaired());
+    assertEquals(12.0, balance.getQuantity());
+  }
+
+  @Test
+  void verify_noDrift_returnsEmptyReport() {
+    when(stockMovementRepository.sumQuantitiesByItemAndLab())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+
+    BalanceReconciliationReport report = stockBalanceService.verify();
+
+    assertTrue(report.getDrifts().isEmpty());
+    assertEquals(1, report.getCheckedBalances());
+    verify(stockBalanceRepository, never()).findAllByIdsForUpdate(any());
+  }
+
+  @Test
+  void verify_partitioned_startsFromTheLatestSnapshot() {
+    ReflectionTestUtils.setField(stockBalanceService, "partitioned", true);
+    when(stockSnapshotService.getLedgerBalances())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+    when(stockBalanceRepository.findAllQuantities())
+        .thenReturn(List.of(new LedgerBalance(itemId, labId, 10.0)));
+
+    BalanceReconciliationReport report = stockBalanceService.verify();
+
+    assertTrue(report.getDrifts().isEmpty());
+    verify(stockMovementRepository, never()).sumQuantitiesByItemAndLab();
+  }
+}
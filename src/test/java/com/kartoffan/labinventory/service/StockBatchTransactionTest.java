@@ -0,0 +1,132 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stock.StockBatchLineResult;
+import com.kartoffan.labinventory.dto.stock.StockBatchLineResult.Status;
+import com.kartoffan.labinventory.dto.stock.StockBatchOperation;
+import com.kartoffan.labinventory.dto.stock.StockBatchOperation.OperationType;
+import com.kartoffan.labinventory.dto.stock.StockBatchRequest;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.service.item.ItemService;
+import com.kartoffan.labinventory.service.lab.LabService;
+import com.kartoffan.labinventory.service.stock.StockService;
+import com.kartoffan.labinventory.service.stock.StockServiceImpl;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceServiceImpl;
+import com.kartoffan.labinventory.service.stockForecast.StockForecastServiceImpl;
+import com.kartoffan.labinventory.service.stockLot.StockLotServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotServiceImpl;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransferServiceImpl;
+import com.kartoffan.labinventory.service.supplier.SupplierService;
+import com.kartoffan.labinventory.service.user.UserService;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({
+    StockServiceImpl.class,
+    StockTransferServiceImpl.class,
+    StockBalanceServiceImpl.class,
+    StockLotServiceImpl.class,
+    StockSnapshotServiceImpl.class,
+    StockForecastServiceImpl.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockBatchTransactionTest {
+
+  @Autowired
+  private StockService stockService;
+
+  @Autowired
+  private StockBalanceService stockBalanceService;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @MockBean
+  private ItemService itemService;
+
+  @MockBean
+  private LabService labService;
+
+  @MockBean
+  private UserService userService;
+
+  @MockBean
+  private SupplierService supplierService;
+
+  @MockBean
+  private StockAlertService stockAlertService;
+
+  @Test
+  void processBatch_rejectedTransfer_commitsTheOtherLines() {
+    Lab labA = StockFixtures.lab(labRepository);
+    Lab labB = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, labA, StockFixtures.category(categoryRepository, labA));
+    User user = StockFixtures.user(userRepository);
+    stockBalanceService.apply(item, labA, 10.0);
+
+    when(itemService.getAllByIds(any())).thenReturn(List.of(item));
+    when(labService.getAllByIds(any())).thenReturn(List.of(labA, labB));
+    when(userService.getAllByIds(any())).thenReturn(List.of(user));
+
+    List<StockBatchLineResult> results = stockService.processBatch(new StockBatchRequest(List.of(
+        operation(OperationType.IN, item, labA, null, 5.0, user),
+        operation(OperationType.TRANSFER, item, labA, labB, 100.0, user),
+        operation(OperationType.TRANSFER, item, labA, labA, 1.0, user),
+        operation(OperationType.TRANSFER, item, labA, labB, 3.0, user))));
+
+    assertEquals(List.of(Status.APPLIED, Status.REJECTED, Status.REJECTED, Status.APPLIED),
+        results.stream().map(StockBatchLineResult::getStatus).toList());
+    assertEquals(12.0, stockBalanceService.getQuantity(item.getId(), labA.getId()));
+    assertEquals(3.0, stockBalanceService.getQuantity(item.getId(), labB.getId()));
+    assertEquals(3.0, stockMovementRepository.getCurrentQuantityByLab(item.getId(), labB.getId()));
+  }
+
+  private static StockBatchOperation operation(OperationType type, Item item, Lab lab, Lab toLab, double quantity, User user) {
+    StockBatchOperation operation = new StockBatchOperation();
+    operation.setType(type);
+    operation.setItemId(item.getId());
+    operation.setLabId(lab.getId());
+    operation.setToLabId(toLab != null ? toLab.getId() : null);
+    operation.setQuantity(quantity);
+    operation.setReason("Batch");
+    operation.setPerformedBy(user.getId());
+    return operation;
+  }
+}
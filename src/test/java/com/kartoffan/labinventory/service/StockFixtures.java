@@ -0,0 +1,58 @@
+package com.kartoffan.labinventory.service;
+
+import java.util.UUID;
+
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.role.Role;
+
+/**
+ * Persists the minimal reference data needed by database-backed stock tests.
+ */
+final class StockFixtures {
+
+  private StockFixtures() {
+  }
+
+  static Lab lab(LabRepository labRepository) {
+    return labRepository.save(Lab.builder()
+        .name("Lab " + UUID.randomUUID())
+        .location("Building A")
+        .build());
+  }
+
+  static Category category(CategoryRepository categoryRepository, Lab lab) {
+    return categoryRepository.save(Category.builder()
+        .name("Category " + UUID.randomUUID())
+        .lab(lab)
+        .build());
+  }
+
+  static Item item(ItemRepository itemRepository, Lab lab, Category category) {
+    return itemRepository.save(Item.builder()
+        .name("Item " + UUID.randomUUID())
+        .code("CODE-" + UUID.randomUUID().toString().substring(0, 8))
+        .lab(lab)
+        .category(category)
+        .unit("ml")
+        .reorderLevel(10)
+        .maxQuantity(100)
+        .build());
+  }
+
+  static User user(UserRepository userRepository) {
+    return userRepository.save(User.builder()
+        .firstName("Test")
+        .lastName("User")
+        .email(UUID.randomUUID() + "@test.com")
+        .passwordHash("hash")
+        .role(Role.STAFF)
+        .build());
+  }
+}
@@ -0,0 +1,141 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kartoffan.labinventory.dto.stockForecast.StockForecastResponse;
+import com.kartoffan.labinventory.exception.BadRequestException;
+import com.kartoffan.labinventory.model.Category;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockBalanceRepository;
+import com.kartoffan.labinventory.service.stockForecast.ConsumptionModel;
+import com.kartoffan.labinventory.service.stockForecast.StockForecastService;
+import com.kartoffan.labinventory.service.stockForecast.StockForecastServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(StockForecastServiceImpl.class)
+class StockForecastServiceTest {
+
+  private static final double ALPHA = ConsumptionModel.alpha(14);
+
+  @Autowired
+  private StockForecastService stockForecastService;
+
+  @Autowired
+  private StockBalanceRepository stockBalanceRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  private Lab lab;
+  private Category category;
+  private LocalDate today;
+
+  @BeforeEach
+  void setUp() {
+    lab = StockFixtures.lab(labRepository);
+    category = StockFixtures.category(categoryRepository, lab);
+    today = LocalDate.now();
+  }
+
+  @Test
+  void model_steadyConsumption_convergesOnTheDailyRate() {
+    ConsumptionModel model = ConsumptionModel.empty();
+    for (int day = 0; day < 30; day++) {
+      model = model.record(today.minusDays(30 - day), 4.0, ALPHA);
+    }
+    model = model.rollTo(today, ALPHA);
+
+    assertEquals(4.0, model.dailyRate(), 1e-9);
+    assertEquals(0.0, model.dailyStdDev(), 1e-9);
+    assertEquals(25.0, model.daysUntilStockout(100.0), 1e-9);
+  }
+
+  @Test
+  void model_idleDays_decayTheRate() {
+    ConsumptionModel model = ConsumptionModel.empty()
+        .record(today.minusDays(15), 10.0, ALPHA)
+        .rollTo(today.minusDays(14), ALPHA);
+    assertEquals(10.0, model.dailyRate(), 1e-9);
+
+    ConsumptionModel idle = model.rollTo(today, ALPHA);
+
+    assertTrue(idle.dailyRate() < model.dailyRate());
+    assertTrue(idle.dailyStdDev() > 0.0);
+  }
+
+  @Test
+  void model_withoutClosedDay_hasNoForecast() {
+    ConsumptionModel model = ConsumptionModel.empty().record(today, 5.0, ALPHA);
+
+    assertFalse(model.hasHistory());
+    assertNull(model.daysUntilStockout(10.0));
+    assertEquals(0.0, model.daysUntilStockout(0.0));
+  }
+
+  @Test
+  void getForecast_projectsRecordedConsumption() {
+    Item item = stocked(60.0);
+    stockForecastService.record(item, lab, 2.0, today.minusDays(2));
+    stockForecastService.record(item, lab, 1.0, today.minusDays(2));
+    stockForecastService.record(item, lab, 3.0, today.minusDays(1));
+
+    StockForecastResponse forecast = stockForecastService.getForecast(item, lab.getId());
+
+    assertEquals(item.getId(), forecast.getItemId());
+    assertEquals(60.0, forecast.getQuantity());
+    assertEquals(3.0, forecast.getDailyRate(), 1e-9);
+    assertEquals(20.0, forecast.getDaysUntilStockout(), 1e-9);
+  }
+
+  @Test
+  void getRunningOutSoonest_returnsTopKInOrder() {
+    Item slow = stocked(100.0);
+    Item fast = stocked(10.0);
+    Item medium = stocked(50.0);
+    Item neverIssued = stocked(1.0);
+    for (Item item : List.of(slow, fast, medium)) {
+      stockForecastService.record(item, lab, 5.0, today.minusDays(1));
+    }
+
+    List<StockForecastResponse> soonest = stockForecastService.getRunningOutSoonest(lab.getId(), 2);
+
+    assertEquals(List.of(fast.getId(), medium.getId()),
+        soonest.stream().map(StockForecastResponse::getItemId).toList());
+    assertTrue(soonest.stream().noneMatch(forecast -> forecast.getItemId().equals(neverIssued.getId())));
+  }
+
+  @Test
+  void getRunningOutSoonest_limitOutOfRange_throwsBadRequest() {
+    assertThrows(BadRequestException.class, () -> stockForecastService.getRunningOutSoonest(lab.getId(), 0));
+  }
+
+  private Item stocked(double quantity) {
+    Item item = StockFixtures.item(itemRepository, lab, category);
+    stockBalanceRepository.save(StockBalance.builder().item(item).lab(lab).quantity(quantity).build());
+    return item;
+  }
+}
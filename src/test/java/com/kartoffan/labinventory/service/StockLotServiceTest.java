@@ -0,0 +1,109 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.kartoffan.labinventory.dto.stockLot.StockLotQuantity;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.service.stockLot.StockLotAllocation;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
+import com.kartoffan.labinventory.service.stockLot.StockLotServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(StockLotServiceImpl.class)
+class StockLotServiceTest {
+
+  private static final LocalDate FIRST_EXPIRY = LocalDate.of(2030, 1, 1);
+
+  @Autowired
+  private StockLotService stockLotService;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  private Lab lab;
+  private Item item;
+
+  @BeforeEach
+  void setUp() {
+    lab = StockFixtures.lab(labRepository);
+    item = StockFixtures.item(itemRepository, lab, StockFixtures.category(categoryRepository, lab));
+  }
+
+  @Test
+  void apply_sameBatchAndExpiry_addsToOneLot() {
+    stockLotService.apply(item, lab, "B-1", FIRST_EXPIRY, 4.0);
+    stockLotService.apply(item, lab, "B-1", FIRST_EXPIRY, 6.0);
+    stockLotService.apply(item, lab, null, null, 3.0);
+
+    List<StockLotQuantity> lots = stockLotService.getLots(item.getId(), lab.getId());
+    assertEquals(1, lots.size());
+    assertEquals(10.0, lots.get(0).getQuantity());
+  }
+
+  @Test
+  void allocate_takesFirstExpiredLotsAcrossPages() {
+    // Received out of order, more lots than one allocation page
+    for (int i = 119; i >= 0; i--) {
+      stockLotService.apply(item, lab, "B-" + i, FIRST_EXPIRY.plusDays(i), 1.0);
+    }
+    stockLotService.apply(item, lab, "NO-EXPIRY", null, 5.0);
+
+    List<StockLotAllocation> allocations = stockLotService.allocate(item, lab, 75.5);
+
+    assertEquals(76, allocations.size());
+    assertEquals(FIRST_EXPIRY, allocations.get(0).expirationDate());
+    assertEquals(FIRST_EXPIRY.plusDays(75), allocations.get(75).expirationDate());
+    assertEquals(0.5, allocations.get(75).quantity());
+
+    List<StockLotQuantity> lots = stockLotService.getLots(item.getId(), lab.getId());
+    assertEquals(46, lots.size());
+    assertEquals(0.5, lots.get(0).getQuantity());
+    assertNull(lots.get(lots.size() - 1).getExpirationDate());
+  }
+
+  @Test
+  void allocate_beyondLots_returnsWhatTheLotsHold() {
+    stockLotService.apply(item, lab, "B-1", FIRST_EXPIRY, 2.0);
+
+    List<StockLotAllocation> allocations = stockLotService.allocate(item, lab, 5.0);
+
+    assertEquals(List.of(new StockLotAllocation("B-1", FIRST_EXPIRY, 2.0)), allocations);
+    assertTrue(stockLotService.getLots(item.getId(), lab.getId()).isEmpty());
+  }
+
+  @Test
+  void trim_removesExcessOverBalanceFirstExpiredFirst() {
+    stockLotService.apply(item, lab, "B-1", FIRST_EXPIRY, 3.0);
+    stockLotService.apply(item, lab, "B-2", FIRST_EXPIRY.plusMonths(1), 3.0);
+
+    stockLotService.trim(item, lab, 4.0);
+
+    List<StockLotQuantity> lots = stockLotService.getLots(item.getId(), lab.getId());
+    assertEquals(2, lots.size());
+    assertEquals(1.0, lots.get(0).getQuantity());
+    assertEquals(3.0, lots.get(1).getQuantity());
+  }
+}
@@ -0,0 +1,155 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.service.stockMovement.StockMovementExportService;
+import com.kartoffan.labinventory.service.stockMovement.StockMovementExportServiceImpl;
+
+/**
+ * Checks that the export streams: the heap still live after garbage collection
+ * must stay within {@code -Dexport.benchmark.max-heap-mib} of the baseline
+ * however many rows are exported. The in-memory test database shares that
+ * heap, so the default leaves room for its page cache. Excluded from the default build; run with
+ * {@code mvn test -Dgroups=benchmark -Dexcluded.test.groups=} and size the data
+ * set with {@code -Dexport.benchmark.rows}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ StockMovementExportServiceImpl.class, JacksonAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockMovementExportBenchmarkTest {
+
+  private static final int ROWS = Integer.getInteger("export.benchmark.rows", 1_000_000);
+  private static final long MAX_HEAP_GROWTH_MIB = Long.getLong("export.benchmark.max-heap-mib", 128);
+  private static final int INSERT_BATCH = 5_000;
+
+  @Autowired
+  private StockMovementExportService stockMovementExportService;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void export_keepsHeapFlat() throws Exception {
+    Lab lab = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, lab, StockFixtures.category(categoryRepository, lab));
+    User user = StockFixtures.user(userRepository);
+    seedMovements(item, lab, user);
+
+    System.gc();
+    long baselineHeap = liveHeap();
+    AtomicLong peakHeap = new AtomicLong(baselineHeap);
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(liveHeap(), Math::max), 0, 10, TimeUnit.MILLISECONDS);
+
+    CountingOutputStream output = new CountingOutputStream();
+    long started = System.nanoTime();
+    stockMovementExportService.export(new StockMovementFilter(), StockMovementExportFormat.CSV, output);
+    double seconds = (System.nanoTime() - started) / 1e9;
+
+    sampler.shutdownNow();
+
+    long heapGrowthMib = (peakHeap.get() - baselineHeap) >> 20;
+    assertEquals(ROWS + 1, output.lines);
+    assertTrue(heapGrowthMib < MAX_HEAP_GROWTH_MIB, () -> String.format(
+        "Exporting %d rows (%d MiB) in %.2fs grew the heap by %d MiB, limit %d MiB",
+        ROWS, output.bytes >> 20, seconds, heapGrowthMib, MAX_HEAP_GROWTH_MIB));
+  }
+
+  /**
+   * Heap occupied after the most recent collection of each pool, so garbage
+   * the export has already dropped does not count against it.
+   */
+  private static long liveHeap() {
+    return ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null)
+        .mapToLong(pool -> pool.getCollectionUsage().getUsed())
+        .sum();
+  }
+
+  private void seedMovements(Item item, Lab lab, User user) {
+    String sql = "INSERT INTO stock_movements (id, item_id, lab_id, performed_by, type, quantity, reason, timestamp) "
+        + "VALUES (?, ?, ?, ?, 'IN', 1.0, 'Benchmark', ?)";
+    LocalDateTime start = LocalDateTime.now().minusYears(1);
+
+    for (int offset = 0; offset < ROWS; offset += INSERT_BATCH) {
+      List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+      for (int i = offset; i < Math.min(offset + INSERT_BATCH, ROWS); i++) {
+        batch.add(new Object[] {
+            UUID.randomUUID(), item.getId(), lab.getId(), user.getId(), Timestamp.valueOf(start.plusSeconds(i)) });
+      }
+      jdbcTemplate.batchUpdate(sql, batch);
+    }
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+    private long bytes;
+    private long lines;
+
+    @Override
+    public void write(int b) {
+      bytes++;
+      if (b == '\n') {
+        lines++;
+      }
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+      bytes += length;
+      for (int i = offset; i < offset + length; i++) {
+        if (buffer[i] == '\n') {
+          lines++;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportFormat;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementExportRow;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockMovement.StockMovementExportServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class StockMovementExportServiceTest {
+
+  @Mock
+  private StockMovementRepository stockMovementRepository;
+
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @InjectMocks
+  private StockMovementExportServiceImpl stockMovementExportService;
+
+  private StockMovementExportRow row;
+
+  @BeforeEach
+  void setUp() {
+    row = new StockMovementExportRow(
+        UUID.randomUUID(),
+        LocalDateTime.of(2024, 3, 1, 9, 0),
+        MovementType.OUT,
+        -2.5,
+        UUID.randomUUID(),
+        "Ethanol, 96%",
+        UUID.randomUUID(),
+        UUID.randomUUID(),
+        null,
+        null,
+        null,
+        null,
+        "Used \"as is\"");
+  }
+
+  @Test
+  void export_csv_writesHeaderAndEscapedRows() throws Exception {
+    when(stockMovementRepository.streamForExport(any(Specification.class), anyInt()))
+        .thenReturn(Stream.of(row));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    stockMovementExportService.export(new StockMovementFilter(), StockMovementExportFormat.CSV, output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("id,timestamp,type"));
+    assertTrue(lines[1].contains(",OUT,-2.5,"));
+    assertTrue(lines[1].contains("\"Ethanol, 96%\""));
+    assertTrue(lines[1].endsWith("\"Used \"\"as is\"\"\""));
+  }
+
+  @Test
+  void export_ndjson_writesOneObjectPerLine() throws Exception {
+    when(stockMovementRepository.streamForExport(any(Specification.class), anyInt()))
+        .thenReturn(Stream.of(row, row));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    stockMovementExportService.export(new StockMovementFilter(), StockMovementExportFormat.NDJSON, output);
+
+    String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(2, lines.length);
+    assertEquals("Ethanol, 96%", objectMapper.readTree(lines[0]).get("itemName").asText());
+    assertEquals("2024-03-01T09:00:00", objectMapper.readTree(lines[1]).get("timestamp").asText());
+  }
+
+  @Test
+  void export_closesStream() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    when(stockMovementRepository.streamForExport(any(Specification.class), anyInt()))
+        .thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+    stockMovementExportService.export(new StockMovementFilter(), StockMovementExportFormat.CSV,
+        new ByteArrayOutputStream());
+
+    assertTrue(closed.get());
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,17 +15,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementCursor;
 import com.kartoffan.labinventory.dto.stockMovement.StockMovementFilter;
+import com.kartoffan.labinventory.exception.BadRequestException;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
 import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
 import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
 import com.kartoffan.labinventory.service.stockMovement.StockMovementServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
 
 @ExtendWith(MockitoExtension.class)
 public class StockMovementServiceTest {
@@ -32,6 +43,18 @@ public class StockMovementServiceTest {
   @Mock
   private StockMovementRepository stockMovementRepository;
 
+  @Mock
+  private StockBalanceService stockBalanceService;
+
+  @Mock
+  private StockLotService stockLotService;
+
+  @Mock
+  private StockSnapshotService stockSnapshotService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private StockMovementServiceImpl stockMovementService;
 
@@ -83,23 +106,105 @@ public class StockMovementServiceTest {
   }
   
   @Test
-  void delete_success() {
-    when(stockMovementRepository.existsById(movementId))
-        .thenReturn(true);
+  void delete_success_reversesBalance() {
+    Item item = Item.builder().id(UUID.randomUUID()).build();
+    Lab lab = Lab.builder().id(UUID.randomUUID()).build();
+    movement.setItem(item);
+    movement.setLab(lab);
+    movement.setQuantity(-3.0);
+    movement.setTimestamp(LocalDateTime.of(2024, 2, 1, 10, 0));
+
+    when(stockMovementRepository.findById(movementId))
+        .thenReturn(Optional.of(movement));
+
+    stockMovementService.delete(movementId);
+
+    verify(stockBalanceService).apply(item, lab, 3.0);
+    verify(stockLotService).apply(item, lab, movement.getBatchNumber(), movement.getExpirationDate(), 3.0);
+    verify(stockSnapshotService).shiftFrom(item, lab, movement.getTimestamp(), 3.0);
+    verify(stockMovementRepository).delete(movement);
+  }
+
+  @Test
+  void delete_transfer_reversesBothSides() {
+    Item item = Item.builder().id(UUID.randomUUID()).build();
+    Lab fromLab = Lab.builder().id(UUID.randomUUID()).build();
+    Lab toLab = Lab.builder().id(UUID.randomUUID()).build();
+    UUID transferId = UUID.randomUUID();
+    movement.setItem(item);
+    movement.setLab(fromLab);
+    movement.setType(MovementType.TRANSFER_OUT);
+    movement.setQuantity(-4.0);
+    movement.setTransferId(transferId);
+    StockMovement received = StockMovement.builder()
+        .id(UUID.randomUUID())
+        .item(item)
+        .lab(toLab)
+        .type(MovementType.TRANSFER_IN)
+        .quantity(4.0)
+        .transferId(transferId)
+        .build();
+
+    when(stockMovementRepository.findById(movementId)).thenReturn(Optional.of(movement));
+    when(stockMovementRepository.findAllByTransferId(transferId)).thenReturn(List.of(movement, received));
 
     stockMovementService.delete(movementId);
 
-    verify(stockMovementRepository).deleteById(movementId);
+    verify(stockBalanceService).apply(item, fromLab, 4.0);
+    verify(stockBalanceService).apply(item, toLab, -4.0);
+    verify(stockMovementRepository).delete(movement);
+    verify(stockMovementRepository).delete(received);
   }
 
   @Test
   void delete_notFound_throwsException() {
-    when(stockMovementRepository.existsById(movementId))
-        .thenReturn(false);
+    when(stockMovementRepository.findById(movementId))
+        .thenReturn(Optional.empty());
 
     assertThrows(ResourceNotFoundException.class,
         () -> stockMovementService.delete(movementId));
 
-    verify(stockMovementRepository, never()).deleteById(any());
+    verify(stockBalanceService, never()).apply(any(), any(), anyDouble());
+    verify(stockMovementRepository, never()).delete(any(StockMovement.class));
+  }
+
+  @Test
+  void getAllByCursor_moreRowsThanSize_trimsAndSignalsNext() {
+    StockMovement second = StockMovement.builder().id(UUID.randomUUID()).build();
+    StockMovement third = StockMovement.builder().id(UUID.randomUUID()).build();
+    when(stockMovementRepository.findBy(any(Specification.class), any()))
+        .thenReturn(List.of(movement, second, third));
+
+    Slice<StockMovement> result = stockMovementService.getAll(new StockMovementFilter(), null, 2);
+
+    assertEquals(List.of(movement, second), result.getContent());
+    assertTrue(result.hasNext());
+  }
+
+  @Test
+  void getAllByCursor_lastSlice_hasNoNext() {
+    when(stockMovementRepository.findBy(any(Specification.class), any()))
+        .thenReturn(List.of(movement));
+
+    StockMovementCursor cursor = new StockMovementCursor(LocalDateTime.now(), UUID.randomUUID());
+    Slice<StockMovement> result = stockMovementService.getAll(new StockMovementFilter(), cursor.encode(), 20);
+
+    assertEquals(1, result.getNumberOfElements());
+    assertFalse(result.hasNext());
+  }
+
+  @Test
+  void getAllByCursor_invalidCursor_throwsException() {
+    assertThrows(BadRequestException.class,
+        () -> stockMovementService.getAll(new StockMovementFilter(), "not-a-cursor", 20));
+
+    verifyNoInteractions(stockMovementRepository);
+  }
+
+  @Test
+  void cursor_roundTripsThroughOpaqueToken() {
+    StockMovementCursor cursor = new StockMovementCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123000), movementId);
+
+    assertEquals(cursor, StockMovementCursor.decode(cursor.encode()));
   }
 }
@@ -5,17 +5,26 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.kartoffan.labinventory.dto.stock.StockAdjustRequest;
+import com.kartoffan.labinventory.dto.stock.StockBatchLineResult;
+import com.kartoffan.labinventory.dto.stock.StockBatchOperation;
+import com.kartoffan.labinventory.dto.stock.StockBatchOperation.OperationType;
+import com.kartoffan.labinventory.dto.stock.StockBatchRequest;
 import com.kartoffan.labinventory.dto.stock.StockInRequest;
 import com.kartoffan.labinventory.dto.stock.StockOutRequest;
 import com.kartoffan.labinventory.dto.stock.StockQuantity;
@@ -23,6 +32,8 @@ import com.kartoffan.labinventory.dto.stock.StockTransferRequest;
 import com.kartoffan.labinventory.exception.InsufficientStockException;
 import com.kartoffan.labinventory.model.Item;
 import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockBalance;
+import com.kartoffan.labinventory.model.StockMovement;
 import com.kartoffan.labinventory.model.StockMovement.MovementType;
 import com.kartoffan.labinventory.model.Supplier;
 import com.kartoffan.labinventory.model.User;
@@ -30,6 +41,16 @@ import com.kartoffan.labinventory.repository.StockMovementRepository;
 import com.kartoffan.labinventory.service.item.ItemService;
 import com.kartoffan.labinventory.service.lab.LabService;
 import com.kartoffan.labinventory.service.stock.StockServiceImpl;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertService;
+import com.kartoffan.labinventory.service.stockAlert.StockChangedEvent;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceKey;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockForecast.StockForecastService;
+import com.kartoffan.labinventory.service.stockLot.StockLotAllocation;
+import com.kartoffan.labinventory.service.stockLot.StockLotService;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotService;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransfer;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransferService;
 import com.kartoffan.labinventory.service.supplier.SupplierService;
 import com.kartoffan.labinventory.service.user.UserService;
 
@@ -39,6 +60,27 @@ public class StockServiceTest {
   @Mock
   private StockMovementRepository stockMovementRepository;
 
+  @Mock
+  private StockBalanceService stockBalanceService;
+
+  @Mock
+  private StockLotService stockLotService;
+
+  @Mock
+  private StockTransferService stockTransferService;
+
+  @Mock
+  private StockSnapshotService stockSnapshotService;
+
+  @Mock
+  private StockAlertService stockAlertService;
+
+  @Mock
+  private StockForecastService stockForecastService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @Mock
   private ItemService itemService;
 
@@ -54,6 +96,9 @@ public class StockServiceTest {
   @InjectMocks
   private StockServiceImpl stockService;
 
+  @Captor
+  private ArgumentCaptor<List<StockMovement>> movementsCaptor;
+
   private UUID itemId;
   private UUID labId;
   private UUID userId;
@@ -110,6 +155,9 @@ public class StockServiceTest {
     verify(stockMovementRepository).save(argThat(m -> m.getType() == MovementType.IN &&
         m.getQuantity() == 10.0 &&
         m.getItem().equals(item)));
+    verify(stockBalanceService).apply(item, lab, 10.0);
+    verify(stockLotService).apply(item, lab, "BATCH-1", request.getExpirationDate(), 10.0);
+    verify(eventPublisher).publishEvent(new StockChangedEvent(itemId, labId));
   }
   
   @Test
@@ -149,13 +197,50 @@ public class StockServiceTest {
     when(itemService.getById(itemId)).thenReturn(item);
     when(labService.getById(labId)).thenReturn(lab);
     when(userService.getById(userId)).thenReturn(user);
-    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId))
-        .thenReturn(10.0);
 
     stockService.stockOut(request);
 
-    verify(stockMovementRepository).save(argThat(m -> m.getType() == MovementType.OUT &&
-        m.getQuantity() == -3.0));
+    verify(stockBalanceService).withdraw(item, lab, 3.0);
+    verify(stockForecastService).record(item, lab, 3.0, LocalDate.now());
+    verify(stockMovementRepository).saveAll(movementsCaptor.capture());
+    List<StockMovement> movements = movementsCaptor.getValue();
+    assertEquals(1, movements.size());
+    assertEquals(MovementType.OUT, movements.get(0).getType());
+    assertEquals(-3.0, movements.get(0).getQuantity());
+  }
+
+  @Test
+  void stockOut_splitsAcrossLotsFirstExpiredFirst() {
+    StockOutRequest request = new StockOutRequest(
+        itemId,
+        labId,
+        8.0,
+        "Experiment",
+        "Usage",
+        userId);
+    LocalDate january = LocalDate.of(2025, 1, 31);
+    LocalDate february = LocalDate.of(2025, 2, 28);
+
+    when(itemService.getById(itemId)).thenReturn(item);
+    when(labService.getById(labId)).thenReturn(lab);
+    when(userService.getById(userId)).thenReturn(user);
+    when(stockLotService.allocate(item, lab, 8.0)).thenReturn(List.of(
+        new StockLotAllocation("LOT-A", january, 5.0),
+        new StockLotAllocation("LOT-B", february, 2.0)));
+
+    stockService.stockOut(request);
+
+    verify(stockMovementRepository).saveAll(movementsCaptor.capture());
+    List<StockMovement> movements = movementsCaptor.getValue();
+    assertEquals(3, movements.size());
+    assertEquals("LOT-A", movements.get(0).getBatchNumber());
+    assertEquals(january, movements.get(0).getExpirationDate());
+    assertEquals(-5.0, movements.get(0).getQuantity());
+    assertEquals("LOT-B", movements.get(1).getBatchNumber());
+    assertEquals(-2.0, movements.get(1).getQuantity());
+    // The remainder comes from stock not tracked per lot
+    assertNull(movements.get(2).getBatchNumber());
+    assertEquals(-1.0, movements.get(2).getQuantity());
   }
   
   @Test
@@ -171,13 +256,14 @@ public class StockServiceTest {
     when(itemService.getById(itemId)).thenReturn(item);
     when(labService.getById(labId)).thenReturn(lab);
     when(userService.getById(userId)).thenReturn(user);
-    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId))
-        .thenReturn(5.0);
+    doThrow(new InsufficientStockException("Ethanol", 5.0, 20.0))
+        .when(stockBalanceService).withdraw(item, lab, 20.0);
 
     assertThrows(InsufficientStockException.class,
         () -> stockService.stockOut(request));
 
-    verify(stockMovementRepository, never()).save(any());
+    verify(stockMovementRepository, never()).saveAll(any());
+    verifyNoInteractions(stockLotService, stockForecastService);
   }
   
   @Test
@@ -197,14 +283,18 @@ public class StockServiceTest {
 
     verify(stockMovementRepository).save(argThat(m -> m.getType() == MovementType.ADJUST &&
         m.getQuantity() == -2));
+    verify(stockBalanceService).apply(item, lab, -2.0);
+    verify(stockLotService).trim(item, lab, 0.0);
   }
   
   @Test
-  void transferStock_success() {
+  void transferStock_resolvesOnceAndDelegatesToTransferEngine() {
+    UUID toLabId = UUID.randomUUID();
+    Lab toLab = Lab.builder().id(toLabId).build();
     StockTransferRequest request = new StockTransferRequest(
         itemId,
         labId,
-        UUID.randomUUID(),
+        toLabId,
         4.0,
         "BATCH-T",
         null,
@@ -212,20 +302,73 @@ public class StockServiceTest {
         userId);
 
     when(itemService.getById(itemId)).thenReturn(item);
-    when(labService.getById(any())).thenReturn(lab);
+    when(labService.getById(labId)).thenReturn(lab);
+    when(labService.getById(toLabId)).thenReturn(toLab);
     when(userService.getById(userId)).thenReturn(user);
-    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId))
-        .thenReturn(10.0);
 
     stockService.transferStock(request);
 
-    verify(stockMovementRepository, times(2)).save(any());
+    verify(stockTransferService).transfer(
+        new StockTransfer(item, lab, toLab, 4.0, "BATCH-T", null, "Inter-lab transfer", user));
+    verify(itemService, times(1)).getById(itemId);
+    verifyNoInteractions(stockBalanceService, stockMovementRepository);
   }
   
+  @Test
+  void processBatch_resolvesOnceAndAppliesLinesInOrder() {
+    StockBalance balance = StockBalance.builder().item(item).lab(lab).quantity(2.0).build();
+    StockBatchRequest request = new StockBatchRequest(List.of(
+        batchLine(OperationType.IN, 5.0),
+        batchLine(OperationType.OUT, 6.0),
+        batchLine(OperationType.OUT, 1.0)));
+
+    when(itemService.getAllByIds(any())).thenReturn(List.of(item));
+    when(labService.getAllByIds(any())).thenReturn(List.of(lab));
+    when(userService.getAllByIds(any())).thenReturn(List.of(user));
+    when(supplierService.getAllByIds(any())).thenReturn(List.of());
+    when(stockBalanceService.lockBalances(any()))
+        .thenReturn(Map.of(new StockBalanceKey(itemId, labId), balance));
+
+    List<StockBatchLineResult> results = stockService.processBatch(request);
+
+    assertEquals(StockBatchLineResult.Status.APPLIED, results.get(0).getStatus());
+    assertEquals(StockBatchLineResult.Status.APPLIED, results.get(1).getStatus());
+    assertEquals(StockBatchLineResult.Status.APPLIED, results.get(2).getStatus());
+    assertEquals(0.0, balance.getQuantity());
+    verify(itemService, times(1)).getAllByIds(any());
+    verify(stockMovementRepository).saveAll(argThat(movements -> ((List<?>) movements).size() == 3));
+  }
+
+  @Test
+  void processBatch_rejectsInsufficientAndUnknownLines() {
+    StockBalance balance = StockBalance.builder().item(item).lab(lab).quantity(1.0).build();
+    StockBatchOperation unknownItem = batchLine(OperationType.IN, 1.0);
+    unknownItem.setItemId(UUID.randomUUID());
+    StockBatchRequest request = new StockBatchRequest(List.of(
+        batchLine(OperationType.OUT, 3.0),
+        unknownItem,
+        batchLine(OperationType.OUT, 1.0)));
+
+    when(itemService.getAllByIds(any())).thenReturn(List.of(item));
+    when(labService.getAllByIds(any())).thenReturn(List.of(lab));
+    when(userService.getAllByIds(any())).thenReturn(List.of(user));
+    when(supplierService.getAllByIds(any())).thenReturn(List.of());
+    when(stockBalanceService.lockBalances(any()))
+        .thenReturn(Map.of(new StockBalanceKey(itemId, labId), balance));
+
+    List<StockBatchLineResult> results = stockService.processBatch(request);
+
+    assertEquals(StockBatchLineResult.Status.REJECTED, results.get(0).getStatus());
+    assertEquals(StockBatchLineResult.Status.REJECTED, results.get(1).getStatus());
+    assertEquals(StockBatchLineResult.Status.APPLIED, results.get(2).getStatus());
+    assertEquals(0.0, balance.getQuantity());
+    verify(stockMovementRepository).saveAll(argThat(movements -> ((List<?>) movements).size() == 1));
+  }
+
   @Test
   void getCurrentQuantityByLab_success() {
     when(itemService.getById(itemId)).thenReturn(item);
-    when(stockMovementRepository.getCurrentQuantityByLab(itemId, labId))
+    when(stockBalanceService.getQuantity(itemId, labId))
         .thenReturn(7.5);
 
     StockQuantity result =
@@ -235,13 +378,42 @@ public class StockServiceTest {
     assertEquals("Ethanol", result.getItemName());
   }
 
-  // TODO Test for getAllItemQuantities
+  @Test
+  void getQuantityAsOf_readsFromSnapshots() {
+    LocalDateTime asOf = LocalDateTime.of(2024, 1, 31, 23, 59);
+    when(itemService.getById(itemId)).thenReturn(item);
+    when(stockSnapshotService.getQuantityAsOf(itemId, labId, asOf))
+        .thenReturn(42.0);
+
+    StockQuantity result = stockService.getQuantityAsOf(itemId, labId, asOf);
+
+    assertEquals(42.0, result.getQuantity());
+    verifyNoInteractions(stockBalanceService);
+  }
+
+  @Test
+  void getAllItemQuantities_usesSingleProjection() {
+    StockQuantity quantity = StockQuantity.builder()
+        .itemId(itemId)
+        .itemName("Ethanol")
+        .quantity(12.0)
+        .unit("ml")
+        .lowStockThreshold(5)
+        .build();
+    when(stockBalanceService.getItemQuantities(labId)).thenReturn(List.of(quantity));
+
+    List<StockQuantity> result = stockService.getAllItemQuantities(labId);
+
+    assertEquals(1, result.size());
+    assertEquals("ml", result.get(0).getUnit());
+    verifyNoInteractions(itemService);
+  }
 
   @Test
   void getLowStockItems_success() {
     when(labService.getById(labId)).thenReturn(lab);
-    when(stockMovementRepository.findLowStockItemsByLab(labId))
-        .thenReturn(List.of(item));
+    when(stockAlertService.getLowStockItemIds(labId)).thenReturn(List.of(itemId));
+    when(itemService.getAllByIds(List.of(itemId))).thenReturn(List.of(item));
 
     List<Item> result = stockService.getLowStockItems(labId);
 
@@ -251,11 +423,22 @@ public class StockServiceTest {
   @Test
   void getOutOfStockItems_success() {
     when(labService.getById(labId)).thenReturn(lab);
-    when(stockMovementRepository.findOutOfStockItemsByLab(labId))
-        .thenReturn(List.of(item));
+    when(stockAlertService.getOutOfStockItemIds(labId)).thenReturn(List.of(itemId));
+    when(itemService.getAllByIds(List.of(itemId))).thenReturn(List.of(item));
 
     List<Item> result = stockService.getOutOfStockItems(labId);
 
     assertEquals(1, result.size());
   }
+
+  private StockBatchOperation batchLine(OperationType type, double quantity) {
+    StockBatchOperation operation = new StockBatchOperation();
+    operation.setType(type);
+    operation.setItemId(itemId);
+    operation.setLabId(labId);
+    operation.setQuantity(quantity);
+    operation.setReason("Batch");
+    operation.setPerformedBy(userId);
+    return operation;
+  }
 }
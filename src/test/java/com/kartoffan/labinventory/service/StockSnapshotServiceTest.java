@@ -0,0 +1,164 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.kartoffan.labinventory.dto.stockBalance.LedgerBalance;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockSnapshot;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.StockSnapshotRepository;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotServiceImpl;
+
+@ExtendWith(MockitoExtension.class)
+class StockSnapshotServiceTest {
+
+  @Mock
+  private StockSnapshotRepository stockSnapshotRepository;
+
+  @Mock
+  private StockMovementRepository stockMovementRepository;
+
+  @Mock
+  private ItemRepository itemRepository;
+
+  @Mock
+  private LabRepository labRepository;
+
+  @InjectMocks
+  private StockSnapshotServiceImpl stockSnapshotService;
+
+  @Captor
+  private ArgumentCaptor<List<StockSnapshot>> snapshotsCaptor;
+
+  private Item item;
+  private Lab lab;
+
+  @BeforeEach
+  void setUp() {
+    item = Item.builder().id(UUID.randomUUID()).name("Ethanol").build();
+    lab = Lab.builder().id(UUID.randomUUID()).build();
+  }
+
+  @Test
+  void createSnapshots_firstRun_aggregatesLedgerUpToCheckpoint() {
+    UUID lastMovementId = UUID.randomUUID();
+    when(stockSnapshotRepository.findLatestAsOf()).thenReturn(Optional.empty());
+    when(stockMovementRepository.sumQuantitiesByItemAndLabUpTo(any()))
+        .thenReturn(List.of(new LedgerBalance(item.getId(), lab.getId(), 10.0)));
+    when(stockMovementRepository.findFirstByTimestampLessThanEqualOrderByTimestampDescIdDesc(any()))
+        .thenReturn(Optional.of(StockMovement.builder().id(lastMovementId).build()));
+    when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+    when(labRepository.getReferenceById(lab.getId())).thenReturn(lab);
+
+    int created = stockSnapshotService.createSnapshots();
+
+    assertEquals(1, created);
+    verify(stockSnapshotRepository).saveAll(snapshotsCaptor.capture());
+    StockSnapshot snapshot = snapshotsCaptor.getValue().get(0);
+    assertEquals(10.0, snapshot.getQuantity());
+    assertEquals(lastMovementId, snapshot.getLastMovementId());
+    assertTrue(snapshot.getAsOf().isBefore(LocalDateTime.now()));
+  }
+
+  @Test
+  void createSnapshots_rollsPreviousRunForward() {
+    Item other = Item.builder().id(UUID.randomUUID()).build();
+    LocalDateTime previous = LocalDateTime.now().minusDays(1);
+    when(stockSnapshotRepository.findLatestAsOf()).thenReturn(Optional.of(previous));
+    when(stockSnapshotRepository.findAllByAsOf(previous))
+        .thenReturn(List.of(StockSnapshot.builder().item(item).lab(lab).quantity(10.0).asOf(previous).build()));
+    when(stockMovementRepository.sumQuantitiesByItemAndLabBetween(eq(previous), any()))
+        .thenReturn(List.of(
+            new LedgerBalance(item.getId(), lab.getId(), -3.0),
+            new LedgerBalance(other.getId(), lab.getId(), 5.0)));
+    when(itemRepository.getReferenceById(item.getId())).thenReturn(item);
+    when(itemRepository.getReferenceById(other.getId())).thenReturn(other);
+    when(labRepository.getReferenceById(lab.getId())).thenReturn(lab);
+
+    stockSnapshotService.createSnapshots();
+
+    verify(stockMovementRepository, never()).sumQuantitiesByItemAndLabUpTo(any());
+    verify(stockSnapshotRepository).saveAll(snapshotsCaptor.capture());
+    List<Double> quantities = snapshotsCaptor.getValue().stream()
+        .map(StockSnapshot::getQuantity)
+        .sorted(Comparator.naturalOrder())
+        .toList();
+    assertEquals(List.of(5.0, 7.0), quantities);
+  }
+
+  @Test
+  void createSnapshots_recentRun_skips() {
+    when(stockSnapshotRepository.findLatestAsOf()).thenReturn(Optional.of(LocalDateTime.now()));
+
+    assertEquals(0, stockSnapshotService.createSnapshots());
+    verify(stockSnapshotRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void getQuantityAsOf_startsFromNearestSnapshot() {
+    LocalDateTime asOf = LocalDateTime.of(2024, 3, 31, 23, 59);
+    LocalDateTime snapshotAt = LocalDateTime.of(2024, 3, 30, 0, 30);
+    when(stockSnapshotRepository.findFirstByItemIdAndLabIdAndAsOfLessThanEqualOrderByAsOfDesc(item.getId(), lab.getId(), asOf))
+        .thenReturn(Optional.of(StockSnapshot.builder().quantity(40.0).asOf(snapshotAt).build()));
+    when(stockMovementRepository.sumQuantityBetween(item.getId(), lab.getId(), snapshotAt, asOf))
+        .thenReturn(-4.0);
+
+    assertEquals(36.0, stockSnapshotService.getQuantityAsOf(item.getId(), lab.getId(), asOf));
+    verify(stockMovementRepository, never()).sumQuantityUpTo(any(), any(), any());
+  }
+
+  @Test
+  void getQuantityAsOf_noSnapshot_sumsHistory() {
+    LocalDateTime asOf = LocalDateTime.of(2024, 3, 31, 23, 59);
+    when(stockSnapshotRepository.findFirstByItemIdAndLabIdAndAsOfLessThanEqualOrderByAsOfDesc(item.getId(), lab.getId(), asOf))
+        .thenReturn(Optional.empty());
+    when(stockMovementRepository.sumQuantityUpTo(item.getId(), lab.getId(), asOf)).thenReturn(12.0);
+
+    assertEquals(12.0, stockSnapshotService.getQuantityAsOf(item.getId(), lab.getId(), asOf));
+  }
+
+  @Test
+  void getLedgerBalances_addsMovementsSinceLatestRun() {
+    LocalDateTime latest = LocalDateTime.now().minusHours(6);
+    when(stockSnapshotRepository.findLatestAsOf()).thenReturn(Optional.of(latest));
+    when(stockSnapshotRepository.findAllByAsOf(latest))
+        .thenReturn(List.of(StockSnapshot.builder().item(item).lab(lab).quantity(10.0).asOf(latest).build()));
+    when(stockMovementRepository.sumQuantitiesByItemAndLabSince(latest))
+        .thenReturn(List.of(new LedgerBalance(item.getId(), lab.getId(), 2.5)));
+
+    List<LedgerBalance> result = stockSnapshotService.getLedgerBalances();
+
+    assertEquals(List.of(new LedgerBalance(item.getId(), lab.getId(), 12.5)), result);
+    verify(stockMovementRepository, never()).sumQuantitiesByItemAndLab();
+  }
+
+  @Test
+  void purgeExpired_alwaysKeepsLatestRun() {
+    LocalDateTime latest = LocalDateTime.now().minusYears(1);
+    when(stockSnapshotRepository.findLatestAsOf()).thenReturn(Optional.of(latest));
+    when(stockSnapshotRepository.deleteAllTakenBefore(latest)).thenReturn(3);
+
+    assertEquals(3, stockSnapshotService.purgeExpired());
+  }
+}
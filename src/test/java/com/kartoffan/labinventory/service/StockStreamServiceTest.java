@@ -0,0 +1,177 @@
+package com.kartoffan.labinventory.service;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.kartoffan.labinventory.controller.StockController;
+import com.kartoffan.labinventory.dto.stockMovement.StockMovementCursor;
+import com.kartoffan.labinventory.dto.stockStream.StockDelta;
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockAlert.Level;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.service.lab.LabService;
+import com.kartoffan.labinventory.service.stock.StockService;
+import com.kartoffan.labinventory.service.stockAlert.StockAlertChangedEvent;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockStream.StockMovementsRecordedEvent;
+import com.kartoffan.labinventory.service.stockStream.StockStreamServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class StockStreamServiceTest {
+
+  private static final int REPLAY_LIMIT = 3;
+  private static final Duration SETTLE_LAG = Duration.ofMinutes(5);
+
+  private StockMovementRepository stockMovementRepository;
+  private StockStreamServiceImpl stockStreamService;
+  private MockMvc mockMvc;
+
+  private UUID labId;
+  private Lab lab;
+  private Item item;
+
+  @BeforeEach
+  void setUp() {
+    stockMovementRepository = mock(StockMovementRepository.class);
+    stockStreamService = new StockStreamServiceImpl(
+        stockMovementRepository, Duration.ofMinutes(1), 16, REPLAY_LIMIT, SETTLE_LAG, new SimpleMeterRegistry());
+    mockMvc = MockMvcBuilders
+        .standaloneSetup(new StockController(
+            mock(StockService.class), mock(StockBalanceService.class), stockStreamService, mock(LabService.class)))
+        .build();
+
+    labId = UUID.randomUUID();
+    lab = Lab.builder().id(labId).name("Chem Lab").build();
+    item = Item.builder().id(UUID.randomUUID()).name("Ethanol").lab(lab).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    stockStreamService.shutdown();
+  }
+
+  @Test
+  void subscribe_pushesCommittedMovementsOfTheLabOnly() throws Exception {
+    MvcResult stream = subscribe(null);
+    StockMovement movement = movement(LocalDateTime.now());
+    StockMovement otherLab = movement(LocalDateTime.now());
+    otherLab.setLab(Lab.builder().id(UUID.randomUUID()).build());
+
+    stockStreamService.onMovementsRecorded(
+        new StockMovementsRecordedEvent(List.of(StockDelta.of(movement), StockDelta.of(otherLab))));
+
+    awaitContent(stream, "id:" + StockMovementCursor.of(movement).encode());
+    assertTrue(content(stream).contains("event:delta"));
+    assertFalse(content(stream).contains(otherLab.getId().toString()));
+  }
+
+  @Test
+  void subscribe_pushesAlertChanges() throws Exception {
+    MvcResult stream = subscribe(null);
+
+    stockStreamService.onAlertChanged(new StockAlertChangedEvent(item.getId(), labId, Level.OUT_OF_STOCK));
+
+    awaitContent(stream, "event:alert");
+    assertTrue(content(stream).contains("OUT_OF_STOCK"));
+  }
+
+  @Test
+  void subscribe_withLastEventId_replaysMissedMovementsFirst() throws Exception {
+    LocalDateTime now = LocalDateTime.now();
+    StockMovementCursor lastSeen = new StockMovementCursor(now.minusMinutes(5), UUID.randomUUID());
+    StockMovement missed = movement(now.minusMinutes(1));
+    when(stockMovementRepository.findAllByLabSince(
+        eq(labId), eq(lastSeen.timestamp().minus(SETTLE_LAG)), eq(lastSeen.id()), any()))
+        .thenReturn(List.of(missed));
+
+    MvcResult stream = subscribe(lastSeen.encode());
+    // Committed while the replay ran, must not be sent twice
+    stockStreamService.onMovementsRecorded(new StockMovementsRecordedEvent(List.of(StockDelta.of(missed))));
+    StockMovement live = movement(now);
+    stockStreamService.onMovementsRecorded(new StockMovementsRecordedEvent(List.of(StockDelta.of(live))));
+
+    awaitContent(stream, live.getId().toString());
+    String content = content(stream);
+    assertTrue(content.indexOf(missed.getId().toString()) < content.indexOf(live.getId().toString()));
+    assertEquals(content.indexOf(missed.getId().toString()), content.lastIndexOf(missed.getId().toString()));
+  }
+
+  @Test
+  void subscribe_withLastEventId_replaysMovementCommittedLateWithAnEarlierTimestamp() throws Exception {
+    LocalDateTime now = LocalDateTime.now();
+    StockMovement lastSeen = movement(now.minusMinutes(1));
+    // Stamped before the last seen movement but committed after it was streamed
+    StockMovement committedLate = movement(now.minusMinutes(2));
+    when(stockMovementRepository.findAllByLabSince(
+        eq(labId), eq(lastSeen.getTimestamp().minus(SETTLE_LAG)), eq(lastSeen.getId()), any()))
+        .thenReturn(List.of(committedLate));
+
+    MvcResult stream = subscribe(StockMovementCursor.of(lastSeen).encode());
+
+    awaitContent(stream, "id:" + StockMovementCursor.of(committedLate).encode());
+  }
+
+  @Test
+  void subscribe_tooFarBehind_sendsReset() throws Exception {
+    LocalDateTime now = LocalDateTime.now();
+    StockMovementCursor lastSeen = new StockMovementCursor(now.minusDays(1), UUID.randomUUID());
+    StockMovement latest = movement(now);
+    when(stockMovementRepository.findAllByLabSince(eq(labId), any(), any(), any()))
+        .thenReturn(List.of(movement(now), movement(now), movement(now), latest));
+    when(stockMovementRepository.findFirstByLabIdOrderByTimestampDescIdDesc(labId)).thenReturn(Optional.of(latest));
+
+    MvcResult stream = subscribe(lastSeen.encode());
+
+    awaitContent(stream, "event:reset");
+    assertTrue(content(stream).contains("id:" + StockMovementCursor.of(latest).encode()));
+    assertFalse(content(stream).contains("event:delta"));
+  }
+
+  private MvcResult subscribe(String lastEventId) throws Exception {
+    var builder = get("/api/v1/stocks/stream").param("labId", labId.toString());
+    if (lastEventId != null) {
+      builder.header("Last-Event-ID", lastEventId);
+    }
+    return mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+  }
+
+  private StockMovement movement(LocalDateTime timestamp) {
+    return StockMovement.builder()
+        .id(UUID.randomUUID())
+        .item(item)
+        .lab(lab)
+        .type(MovementType.IN)
+        .quantity(5.0)
+        .timestamp(timestamp)
+        .build();
+  }
+
+  private static void awaitContent(MvcResult stream, String expected) {
+    await().atMost(Duration.ofSeconds(5)).until(() -> content(stream).contains(expected));
+  }
+
+  private static String content(MvcResult stream) throws Exception {
+    return stream.getResponse().getContentAsString();
+  }
+}
@@ -0,0 +1,131 @@
+package com.kartoffan.labinventory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.kartoffan.labinventory.model.Item;
+import com.kartoffan.labinventory.model.Lab;
+import com.kartoffan.labinventory.model.StockMovement;
+import com.kartoffan.labinventory.model.StockMovement.MovementType;
+import com.kartoffan.labinventory.model.User;
+import com.kartoffan.labinventory.repository.CategoryRepository;
+import com.kartoffan.labinventory.repository.ItemRepository;
+import com.kartoffan.labinventory.repository.LabRepository;
+import com.kartoffan.labinventory.repository.StockMovementRepository;
+import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceService;
+import com.kartoffan.labinventory.service.stockBalance.StockBalanceServiceImpl;
+import com.kartoffan.labinventory.service.stockLot.StockLotServiceImpl;
+import com.kartoffan.labinventory.service.stockSnapshot.StockSnapshotServiceImpl;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransfer;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransferService;
+import com.kartoffan.labinventory.service.stockTransfer.StockTransferServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({
+    StockTransferServiceImpl.class,
+    StockBalanceServiceImpl.class,
+    StockLotServiceImpl.class,
+    StockSnapshotServiceImpl.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockTransferConcurrencyTest {
+
+  private static final int WRITERS = 16;
+  private static final int TRANSFERS_PER_WRITER = 25;
+  private static final double INITIAL_STOCK = 1000;
+
+  @Autowired
+  private StockTransferService stockTransferService;
+
+  @Autowired
+  private StockBalanceService stockBalanceService;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private LabRepository labRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  void concurrentOppositeTransfers_neitherDeadlockNorLoseStock() throws Exception {
+    Lab labA = StockFixtures.lab(labRepository);
+    Lab labB = StockFixtures.lab(labRepository);
+    Item item = StockFixtures.item(itemRepository, labA, StockFixtures.category(categoryRepository, labA));
+    User user = StockFixtures.user(userRepository);
+    stockBalanceService.apply(item, labA, INITIAL_STOCK);
+    stockBalanceService.apply(item, labB, INITIAL_STOCK);
+
+    ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+
+    for (int i = 0; i < WRITERS; i++) {
+      boolean forward = i % 2 == 0;
+      results.add(writers.submit(() -> {
+        start.await();
+        for (int transfer = 0; transfer < TRANSFERS_PER_WRITER; transfer++) {
+          stockTransferService.transfer(new StockTransfer(
+              item, forward ? labA : labB, forward ? labB : labA, 1.0, null, null, "Stress", user));
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> result : results) {
+      result.get(2, TimeUnit.MINUTES);
+    }
+    writers.shutdown();
+
+    int transfers = WRITERS * TRANSFERS_PER_WRITER;
+
+    // As many transfers ran each way, so both labs end where they started
+    assertEquals(INITIAL_STOCK, stockBalanceService.getQuantity(item.getId(), labA.getId()));
+    assertEquals(INITIAL_STOCK, stockBalanceService.getQuantity(item.getId(), labB.getId()));
+    // The seed stock has no movements, the transfer rows of each lab net to zero
+    assertEquals(0.0, stockMovementRepository.getCurrentQuantityByLab(item.getId(), labA.getId()));
+    assertEquals(0.0, stockMovementRepository.getCurrentQuantityByLab(item.getId(), labB.getId()));
+
+    Map<UUID, List<StockMovement>> pairs = stockMovementRepository.findAll().stream()
+        .filter(movement -> movement.getTransferId() != null)
+        .filter(movement -> movement.getItem().getId().equals(item.getId()))
+        .collect(Collectors.groupingBy(StockMovement::getTransferId));
+    assertEquals(transfers, pairs.size());
+    for (List<StockMovement> pair : pairs.values()) {
+      assertEquals(2, pair.size());
+      assertEquals(1, pair.stream().filter(movement -> movement.getType() == MovementType.TRANSFER_OUT).count());
+      assertEquals(0.0, pair.get(0).getQuantity() + pair.get(1).getQuantity());
+    }
+  }
+}
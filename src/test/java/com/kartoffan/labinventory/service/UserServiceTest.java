@@ -23,6 +23,7 @@ import com.kartoffan.labinventory.dto.user.UpdateUserRequest;
 import com.kartoffan.labinventory.exception.ResourceNotFoundException;
 import com.kartoffan.labinventory.model.User;
 import com.kartoffan.labinventory.repository.UserRepository;
+import com.kartoffan.labinventory.security.PrincipalCache;
 import com.kartoffan.labinventory.service.user.UserServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +32,9 @@ class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private PrincipalCache principalCache;
+
   @InjectMocks
   private UserServiceImpl userService;
 
@@ -96,6 +100,7 @@ class UserServiceTest {
 
     assertEquals("John", result.getFirstName());
     assertEquals("Doe", result.getLastName());
+    verify(principalCache).evict("user@test.com");
   }
 
   @Test
@@ -105,6 +110,7 @@ class UserServiceTest {
 
     assertThrows(ResourceNotFoundException.class,
         () -> userService.update(userId, new UpdateUserRequest()));
+    verifyNoInteractions(principalCache);
   }
 
   @Test
@@ -116,6 +122,7 @@ class UserServiceTest {
 
     assertFalse(user.getIsActive());
     verify(userRepository).save(user);
+    verify(principalCache).evict("user@test.com");
   }
 
   @Test
@@ -127,6 +134,7 @@ class UserServiceTest {
 
     assertTrue(user.getIsActive());
     verify(userRepository).save(user);
+    verify(principalCache).evict("user@test.com");
   }
 
   @Test